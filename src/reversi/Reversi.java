@@ -4,15 +4,20 @@ import java.util.ArrayList;
 
 import reversi.controller.PlayerController;
 import reversi.model.BasicReversiModel;
+import reversi.model.BitboardHexReversiModel;
+import reversi.model.BitboardSquareReversiModel;
+import reversi.model.ConcurrentReversiModel;
 import reversi.model.ReversiModel;
 import reversi.model.SquareReversiModel;
 import reversi.player.IPlayer;
 import reversi.player.Player;
 
 
+import reversi.player.strategies.AlphaBetaStrategy;
 import reversi.player.strategies.AvoidNearCornersStrategy;
 import reversi.player.strategies.CombinedStrategy;
 import reversi.player.strategies.GetCornersStrategy;
+import reversi.player.strategies.MctsStrategy;
 import reversi.player.strategies.MostPiecesStrategy;
 import reversi.player.strategies.Strategy;
 import reversi.provider.player.strategies.AvoidNextToCorners;
@@ -44,17 +49,24 @@ public final class Reversi {
     int size = 4;
     boolean square = false;
     String type = "";
+    boolean bitboard = false;
+    int p1Threads = 1;
+    int p2Threads = 1;
+    boolean p1Ponder = false;
+    boolean p2Ponder = false;
 
     ArrayList<String> p1Args = new ArrayList<>();
     ArrayList<String> p2Args = new ArrayList<>();
 
     for (String arg : args) {
       if (arg.equals("p1AvoidNearCorners") || arg.equals("p1Combined") ||
-              arg.equals("p1GetCorners") || arg.equals("p1MostPieces") || arg.equals("p1Hint")) {
+              arg.equals("p1GetCorners") || arg.equals("p1MostPieces") || arg.equals("p1Hint") ||
+              arg.equals("p1AlphaBeta") || arg.equals("p1Mcts")) {
         p1Args.add(arg);
       }
       if (arg.equals("p2AvoidNearCorners") || arg.equals("p2Combined") ||
-              arg.equals("p2GetCorners") || arg.equals("p2MostPieces") || arg.equals("p2Hint")) {
+              arg.equals("p2GetCorners") || arg.equals("p2MostPieces") || arg.equals("p2Hint") ||
+              arg.equals("p2AlphaBeta") || arg.equals("p2Mcts")) {
         p2Args.add(arg);
       }
       try {
@@ -66,23 +78,48 @@ public final class Reversi {
       if (arg.equals("square")) {
         type = "square";
       }
+      if (arg.equals("bitboard")) {
+        bitboard = true;
+      }
+      // p1Threads8 lets player 1's strategy search on 8 threads
+      if (arg.startsWith("p1Threads")) {
+        p1Threads = threadsArg(arg, "p1Threads");
+      }
+      if (arg.startsWith("p2Threads")) {
+        p2Threads = threadsArg(arg, "p2Threads");
+      }
+      // p1Ponder lets player 1's strategy think during player 2's turn
+      if (arg.equals("p1Ponder")) {
+        p1Ponder = true;
+      }
+      if (arg.equals("p2Ponder")) {
+        p2Ponder = true;
+      }
     }
 
     // create model
     ReversiModel model;
     if (type.equals("square")) {
-      if (size > 3 && size % 2 == 0) {
-        model = new SquareReversiModel(players, size);
+      if (size <= 3 || size % 2 != 0) {
+        size = 4;
+      }
+      if (bitboard) {
+        model = new BitboardSquareReversiModel(players, size);
       } else {
-        model = new SquareReversiModel(players, 4);
+        model = new SquareReversiModel(players, size);
       }
     } else {
-      if (size >= 3) {
-        model = new BasicReversiModel(players, size);
+      if (size < 3) {
+        size = 4;
+      }
+      if (bitboard) {
+        model = new BitboardHexReversiModel(players, size);
       } else {
-        model = new BasicReversiModel(players, 4);
+        model = new BasicReversiModel(players, size);
       }
     }
+    // computer players search and the views repaint while moves are played
+    model = new ConcurrentReversiModel(model);
 
     //default human
     player1.setStrat(null);
@@ -91,9 +128,13 @@ public final class Reversi {
 
     //set player 1 strategy
     argHelperOriginalStrats(player1, p1Args, model, type);
+    player1.setThreads(p1Threads);
+    player1.setPondering(p1Ponder);
 
     //set player 2 strategy
     argHelperOriginalStrats(player2, p2Args, model, type);
+    player2.setThreads(p2Threads);
+    player2.setPondering(p2Ponder);
 
     ReversiFrame viewModel1 = new ReversiFrame(model, type, 0);
 
@@ -158,10 +199,26 @@ public final class Reversi {
         if (pArgs.get(0).equals(beginning + "MostPieces")) {
           player.setStrat(new MostPiecesStrategy(model, type));
         }
+        if (pArgs.get(0).equals(beginning + "AlphaBeta")) {
+          player.setStrat(new AlphaBetaStrategy(model, type));
+        }
+        if (pArgs.get(0).equals(beginning + "Mcts")) {
+          player.setStrat(new MctsStrategy(model, type));
+        }
       }
     }
   }
 
+  // reads the thread count after the prefix of a threads argument, one if it is not a number
+  private static int threadsArg(String arg, String prefix) {
+    try {
+      return Math.max(1, Integer.parseInt(arg.substring(prefix.length())));
+    }
+    catch (NumberFormatException ignored) {
+      return 1;
+    }
+  }
+
   private static ReversiStrategies p2Helper(String arg) {
     switch (arg) {
       case "p2AvoidNextToCorners":
@@ -0,0 +1,225 @@
+package reversi.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reversi.model.Coordinate;
+import reversi.model.ModelEvent;
+import reversi.model.MoveResult;
+import reversi.model.PositionSnapshot;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.ReversiModel;
+import reversi.model.SearchableReversiModel;
+
+/**
+ * Runs a game on a thread of its own, so any number of threads, such as computer players and
+ * network clients, can play it without locking. Moves and passes are sent as commands to a
+ * bounded queue and applied one at a time, in the order they were sent, by the engine's thread,
+ * which is the only one that changes the model. After each command the engine publishes a copy of
+ * the position that can only be read, which any thread can read while the game goes on, and then
+ * hands the events the command made to its listeners on its own thread. Once a model is given
+ * to an engine nothing else should change it.
+ */
+public final class GameEngine {
+
+  // a command and the future its result goes to
+  private static final class Command {
+    private final Callable<Object> action;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    private Command(Callable<Object> action) {
+      this.action = action;
+    }
+  }
+
+  private final ReversiModel model;
+  private final BlockingQueue<Command> commands;
+  private final Thread thread;
+  private final List<ModelStatusFeatures> features = new CopyOnWriteArrayList<>();
+  // the events of the command being applied, only used on the engine's thread
+  private final List<ModelEvent> pending = new ArrayList<>();
+  private final AtomicLong applied = new AtomicLong();
+  private volatile PositionSnapshot snapshot;
+  private volatile boolean stopped;
+
+  /**
+   * Creates an engine for a game and starts its thread.
+   *
+   * @param model    the game, which from now on is only changed by the engine
+   * @param capacity the most commands that can wait to be applied
+   * @throws IllegalArgumentException if there is no model, it cannot be copied or the capacity
+   *                                  is not positive
+   */
+  public GameEngine(ReversiModel model, int capacity) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (!(model instanceof SearchableReversiModel)) {
+      throw new IllegalArgumentException("Model cannot be copied");
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.model = model;
+    this.commands = new ArrayBlockingQueue<>(capacity);
+    this.snapshot = PositionSnapshot.of((SearchableReversiModel) model);
+    model.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        pending.addAll(events);
+      }
+    });
+    this.thread = new Thread(this::run, "game-engine");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Sends the command to start the game.
+   *
+   * @return completes once the game has started
+   * @throws IllegalStateException if the queue is full or the engine has been shut down
+   */
+  public CompletableFuture<Void> submitStart() {
+    return send(() -> {
+      model.startGame();
+      return null;
+    });
+  }
+
+  /**
+   * Sends the command to play a move for the player whose turn it is when it is applied.
+   *
+   * @param c the tile to play on
+   * @return completes with what the move did, or with an IllegalArgumentException if the move
+   *         was not legal when it was applied
+   * @throws IllegalStateException if the queue is full or the engine has been shut down
+   */
+  public CompletableFuture<MoveResult> submitMove(Coordinate c) {
+    return send(() -> model.doMove(c));
+  }
+
+  /**
+   * Sends the command to pass the turn of the player whose turn it is when it is applied.
+   *
+   * @return completes once the turn has been passed
+   * @throws IllegalStateException if the queue is full or the engine has been shut down
+   */
+  public CompletableFuture<Void> submitPass() {
+    return send(() -> {
+      model.passTurn();
+      return null;
+    });
+  }
+
+  /**
+   * Gives the position after the last command that was applied. It is a copy that can only be
+   * read, so it stays the same however the game goes on and can be read from any thread.
+   *
+   * @return the latest position
+   */
+  public ReadonlyReversiModel getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Gives the number of commands applied so far, including those that failed.
+   *
+   * @return the command count
+   */
+  public long getAppliedCount() {
+    return applied.get();
+  }
+
+  /**
+   * Adds a listener that is handed the events of each command on the engine's thread, once the
+   * snapshot shows the position after the command and the command's result is complete. A
+   * listener that throws does not stop the engine.
+   *
+   * @param f the listener
+   */
+  public void addFeatures(ModelStatusFeatures f) {
+    features.add(f);
+  }
+
+  /**
+   * Stops the engine. The command being applied is finished, and the ones still waiting are
+   * cancelled.
+   */
+  public void shutdown() {
+    synchronized (commands) {
+      stopped = true;
+    }
+    thread.interrupt();
+  }
+
+  // Puts a command on the queue without waiting for room. The check and the offer are made
+  // under the lock shutdown takes, so every command that gets on the queue is there before the
+  // engine empties it on shutdown, and is either applied or cancelled.
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<T> send(Callable<T> action) {
+    Command command = new Command((Callable<Object>) action);
+    synchronized (commands) {
+      if (stopped) {
+        throw new IllegalStateException("Engine has been shut down");
+      }
+      if (!commands.offer(command)) {
+        throw new IllegalStateException("Command queue is full");
+      }
+    }
+    return (CompletableFuture<T>) command.result;
+  }
+
+  // applies commands until the engine is shut down
+  private void run() {
+    try {
+      while (!stopped) {
+        apply(commands.take());
+      }
+    } catch (InterruptedException e) {
+      // shut down while waiting for a command
+    }
+    Command left;
+    while ((left = commands.poll()) != null) {
+      left.result.completeExceptionally(new CancellationException("Engine was shut down"));
+    }
+  }
+
+  // Applies one command, publishes the position after it, completes its result, then hands out
+  // its events. A listener that throws is reported to the thread's uncaught exception handler
+  // and the other listeners and commands go on.
+  private void apply(Command command) {
+    Object value = null;
+    Exception failure = null;
+    try {
+      value = command.action.call();
+    } catch (Exception e) {
+      failure = e;
+    }
+    snapshot = PositionSnapshot.of((SearchableReversiModel) model);
+    applied.incrementAndGet();
+    if (failure == null) {
+      command.result.complete(value);
+    } else {
+      command.result.completeExceptionally(failure);
+    }
+    if (!pending.isEmpty()) {
+      List<ModelEvent> events = List.copyOf(pending);
+      pending.clear();
+      for (ModelStatusFeatures f : features) {
+        try {
+          f.modelChanged(events);
+        } catch (RuntimeException e) {
+          thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+      }
+    }
+  }
+}
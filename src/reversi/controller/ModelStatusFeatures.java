@@ -1,6 +1,10 @@
 package reversi.controller;
 
 
+import java.util.List;
+
+import reversi.model.ModelEvent;
+
 /**
  * This interface repersents requests a model can make. A Controller
  * could implement this interface.
@@ -8,12 +12,40 @@ package reversi.controller;
 public interface ModelStatusFeatures {
 
 
+  /**
+   * Tells the listener what happened in one call to the model, such as a move together with the
+   * turn change and end of game it led to. The events come in the order they happened, and all
+   * of them are already reflected in the model, so a listener can redraw once for the whole
+   * list. By default each event is passed on as the message it used to be sent as.
+   * @param events what happened, never empty.
+   */
+  default void modelChanged(List<ModelEvent> events) {
+    for (ModelEvent e : events) {
+      switch (e.getKind()) {
+        case TURN_CHANGED:
+          requestDisplayMessage("It's your turn!");
+          break;
+        case GAME_OVER:
+          requestDisplayMessage("Game Over");
+          break;
+        case ILLEGAL_MOVE:
+          requestDisplayMessage(e.getMessage());
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+
   /**
    * When an exception is thrown, the model requests that the view display the excpetion.
    * @param s the message excpetion throw.
    */
-  void requestDisplayMessage(String s);
+  default void requestDisplayMessage(String s) {
+  }
 
 
-  void requestDisplayBoard();
+  default void requestDisplayBoard() {
+  }
 }
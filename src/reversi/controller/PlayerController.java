@@ -4,9 +4,12 @@ package reversi.controller;
 
 
 
+import java.util.List;
+
 import javax.swing.SwingUtilities;
 
 import reversi.model.Coordinate;
+import reversi.model.ModelEvent;
 
 import reversi.model.ReversiModel;
 import reversi.player.IPlayer;
@@ -25,6 +28,8 @@ public class PlayerController implements Features, ModelStatusFeatures, PlayerAc
   private IReversiFrame view;
 
   private boolean isPlayersturn;
+  // the position the player's computer move is being found for
+  private long aiPosition;
 
 
   /**
@@ -48,6 +53,14 @@ public class PlayerController implements Features, ModelStatusFeatures, PlayerAc
     isPlayersturn = model.getCurrentPlayer().equals(p.getState());
   }
 
+  // A computer move found for a position the game has since left is no use, so it is cancelled
+  // before it can be played.
+  private void cancelStaleMove() {
+    if (model.getPositionHash() != aiPosition) {
+      p.cancelMove();
+    }
+  }
+
   @Override
   public void requestDoMove(Coordinate c) {
     this.updateTurn();
@@ -75,30 +88,70 @@ public class PlayerController implements Features, ModelStatusFeatures, PlayerAc
   }
 
   @Override
-  public void requestDisplayMessage(String s) {
-    if (s.equals("Game Over")) {
+  public void modelChanged(List<ModelEvent> events) {
+    // however many events one call to the model made, the board is drawn once for all of them
+    cancelStaleMove();
+    view.rePaint();
+    boolean turnChanged = false;
+    boolean gameOver = false;
+    String illegal = null;
+    for (ModelEvent e : events) {
+      switch (e.getKind()) {
+        case TURN_CHANGED:
+          turnChanged = true;
+          break;
+        case GAME_OVER:
+          gameOver = true;
+          break;
+        case ILLEGAL_MOVE:
+          illegal = e.getMessage();
+          break;
+        default:
+          break;
+      }
+    }
+    if (gameOver) {
+      p.cancelMove();
+      p.stopPondering();
       view.displayNotification("Game Over! Your final score is " + p.getScore());
-    } else {
-      if ((p.getState().equals(model.getCurrentPlayer()))) {
-        view.rePaint();
-        view.displayNotification(s);
-        SwingUtilities.invokeLater(new Runnable() {
-          public void run() {
-            if (s.equals("It's your turn!")) {
-              p.strategicMove();
-            }
+    } else if (p.getState().equals(model.getCurrentPlayer())) {
+      if (illegal != null) {
+        view.displayNotification(illegal);
+      }
+      if (turnChanged) {
+        view.displayNotification("It's your turn!");
+        SwingUtilities.invokeLater(() -> {
+          // the move is found off the event thread and played when it is ready
+          if (p.getState().equals(model.getCurrentPlayer())) {
+            aiPosition = model.getPositionHash();
+            p.strategicMoveAsync();
           }
         });
-        view.rePaint();
-      } else {
-        view.rePaint();
       }
+    } else if (turnChanged) {
+      // the opponent is to move, so the player can think on their time
+      SwingUtilities.invokeLater(() -> {
+        if (!model.getGameOver() && !p.getState().equals(model.getCurrentPlayer())) {
+          p.ponder();
+        }
+      });
     }
+  }
 
+  @Override
+  public void requestDisplayMessage(String s) {
+    if (s.equals("Game Over")) {
+      modelChanged(List.of(ModelEvent.gameOver()));
+    } else if (s.equals("It's your turn!")) {
+      modelChanged(List.of(ModelEvent.turnChanged(model.getCurrentPlayer())));
+    } else {
+      modelChanged(List.of(ModelEvent.illegalMove(s)));
+    }
   }
 
   @Override
   public void requestDisplayBoard() {
+    cancelStaleMove();
     view.rePaint();
   }
 
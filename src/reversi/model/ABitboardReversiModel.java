@@ -0,0 +1,392 @@
+package reversi.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import reversi.player.IPlayer;
+import reversi.player.TileState;
+
+/**
+ * This is an abstract class for Reversi models that store the board as bitboards instead of a
+ * TileState[][]. Every tile of the board is assigned a bit index by the subclass, and the discs of
+ * each color are kept as an array of 64-bit words (a single word when the board fits in 64 bits).
+ * Each direction of movement on the board is a fixed shift of the bit index, so legal moves are
+ * generated for every tile at once by shifting and masking whole boards, and flips are found by
+ * stepping through bits rather than building Coordinates and comparing Strings.
+ */
+public abstract class ABitboardReversiModel extends AReversiModel {
+
+  // number of bits in the layout, including any padding bits that are not tiles
+  protected int bitCount;
+  // number of 64-bit words needed to hold one board
+  protected int words;
+  // the bits that are tiles on the board
+  protected long[] valid;
+  // the bit index offset of one step in each direction
+  protected int[] dirDelta;
+  // for each direction, the tiles whose neighbor in that direction is also on the board
+  protected long[][] dirMask;
+  // the discs of each color
+  protected long[] black;
+  protected long[] white;
+  // the bit index of each cell index, and the cell index of each bit (-1 for padding bits)
+  protected int[] cellToBit;
+  protected int[] bitToCell;
+
+  // scratch board reused by moves so they do not allocate. Only changes to the model use it, so
+  // it is never touched by readers
+  private long[] scratchFlips;
+  // scratch boards reused by move generation, one set for each thread, so that several threads
+  // can read the same model at once without allocating
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+  /**
+   * Default constructor for the bitboard model that returns a board size of 4.
+   */
+  public ABitboardReversiModel() {
+    super();
+  }
+
+  /**
+   * Basic size 4 board constructor with custom players.
+   */
+  public ABitboardReversiModel(IPlayer[] players) {
+    super(players);
+  }
+
+  /**
+   * Constructor that takes in a board size and produces a board of that size.
+   */
+  public ABitboardReversiModel(int boardSize) throws IllegalArgumentException {
+    super(boardSize);
+  }
+
+  /**
+   * Board constructor with custom players and a board size.
+   */
+  public ABitboardReversiModel(IPlayer[] players, int boardSize)
+          throws IllegalArgumentException {
+    super(players, boardSize);
+  }
+
+  // Returns the bit index of the given coordinate, or -1 if it is not a tile on the board.
+  protected abstract int bitIndex(Coordinate c);
+
+  // Returns the number of bits needed by the layout of a board of the given size.
+  protected abstract int layoutBits(int boardSize);
+
+  // Bitboards already generate every legal move at once with mask operations, so the incremental
+  // move mode of the array models is never used and stays off.
+  @Override
+  public void setIncrementalMoves(boolean enabled) {
+    // the bulk move generation is used instead
+  }
+
+  // Bitboards always have a valid shape, the layout is derived from the size.
+  @Override
+  protected boolean validateShape(TileState[][] boardState) {
+    return true;
+  }
+
+  // Builds the bit layout of the board and then places the starting pieces.
+  @Override
+  protected void initialStates(int boardSize) {
+    this.size = boardSize;
+    this.bitCount = layoutBits(boardSize);
+    this.words = (bitCount + 63) >>> 6;
+    this.valid = new long[words];
+    this.black = new long[words];
+    this.white = new long[words];
+    this.scratchFlips = new long[words];
+    BoardTopology t = getTopology();
+    for (int cell = 0; cell < t.getCellCount(); cell++) {
+      BitBoards.set(valid, bitIndex(t.coordOf(cell)));
+    }
+    dirDelta = new int[t.getDirectionCount()];
+    dirMask = new long[dirDelta.length][words];
+    for (int d = 0; d < dirDelta.length; d++) {
+      for (int cell = 0; cell < t.getCellCount(); cell++) {
+        int next = t.neighbor(d, cell);
+        if (next >= 0) {
+          int bit = bitIndex(t.coordOf(cell));
+          BitBoards.set(dirMask[d], bit);
+          dirDelta[d] = bitIndex(t.coordOf(next)) - bit;
+        }
+      }
+    }
+    startingPieces(boardSize);
+  }
+
+  // Numbers the bits of the layout by cell index before building the shared cell tables.
+  @Override
+  protected void indexCells() {
+    BoardTopology t = getTopology();
+    cellToBit = new int[t.getCellCount()];
+    bitToCell = new int[bitCount];
+    Arrays.fill(bitToCell, -1);
+    for (int cell = 0; cell < cellToBit.length; cell++) {
+      int bit = bitIndex(t.coordOf(cell));
+      cellToBit[cell] = bit;
+      bitToCell[bit] = cell;
+    }
+    super.indexCells();
+  }
+
+  @Override
+  protected void storeState(int cell, byte state) {
+    int bit = cellToBit[cell];
+    BitBoards.clear(black, bit);
+    BitBoards.clear(white, bit);
+    if (state == TileState.BLACK) {
+      BitBoards.set(black, bit);
+    } else if (state == TileState.WHITE) {
+      BitBoards.set(white, bit);
+    }
+  }
+
+  @Override
+  public byte getStateAt(int cell) {
+    if (checkOutOfBounds(cell)) {
+      throw new IllegalArgumentException("Provided coordinates are invalid");
+    }
+    int bit = cellToBit[cell];
+    if (BitBoards.get(black, bit)) {
+      return TileState.BLACK;
+    } else if (BitBoards.get(white, bit)) {
+      return TileState.WHITE;
+    }
+    return TileState.EMPTY;
+  }
+
+  // Returns the discs of the given color code, or null if it is not a player color
+  private long[] discsOf(int color) {
+    if (color == TileState.BLACK) {
+      return black;
+    } else if (color == TileState.WHITE) {
+      return white;
+    }
+    return null;
+  }
+
+  // Returns the discs of the opponent of the given discs
+  private long[] opponentOf(long[] own) {
+    return own == black ? white : black;
+  }
+
+  // Places a disc of the given color at a cell and flips the discs it captures, finding them in
+  // one pass. Changes nothing and returns 0 if the move is not legal.
+  @Override
+  protected int placeAndFlip(int cell, int color) {
+    int bit = cellToBit[cell];
+    if (isOccupied(bit)) {
+      return 0;
+    }
+    long[] own = discsOf(color);
+    long[] opp = opponentOf(own);
+    long[] flips = scratchFlips;
+    Arrays.fill(flips, 0);
+    int flipped = findFlips(bit, own, opp, flips);
+    if (flipped == 0) {
+      return 0;
+    }
+    for (int i = 0; i < words; i++) {
+      own[i] |= flips[i];
+      opp[i] &= ~flips[i];
+    }
+    BitBoards.set(own, bit);
+    int n = 0;
+    for (int b = BitBoards.nextSetBit(flips, 0); b >= 0; b = BitBoards.nextSetBit(flips, b + 1)) {
+      lastFlips[n++] = bitToCell[b];
+    }
+    return flipped;
+  }
+
+  @Override
+  public int isLegalMove(int cell, int color) {
+    long[] own = discsOf(color);
+    if (checkOutOfBounds(cell) || own == null || isOccupied(cellToBit[cell])) {
+      return 0;
+    }
+    return findFlips(cellToBit[cell], own, opponentOf(own), null);
+  }
+
+  // Returns true if either color has a disc on the given bit
+  private boolean isOccupied(int bit) {
+    return BitBoards.get(black, bit) || BitBoards.get(white, bit);
+  }
+
+  /**
+   * Counts the discs of opp that would be flipped by own placing a disc at the given bit, walking
+   * each direction once. If flips is not null, the flipped discs are also added to it.
+   *
+   * @param bit   the bit the disc would be placed at
+   * @param own   the discs of the player moving
+   * @param opp   the discs of the other player
+   * @param flips the board to mark the flipped discs in, or null to only count them
+   * @return the number of discs flipped, 0 if the move is not legal
+   */
+  protected int findFlips(int bit, long[] own, long[] opp, long[] flips) {
+    int total = 0;
+    for (int d = 0; d < dirDelta.length; d++) {
+      int delta = dirDelta[d];
+      int cur = bit;
+      int run = 0;
+      while (BitBoards.get(dirMask[d], cur)) {
+        cur += delta;
+        if (BitBoards.get(opp, cur)) {
+          run++;
+          continue;
+        }
+        if (run > 0 && BitBoards.get(own, cur)) {
+          total += run;
+          if (flips != null) {
+            for (int i = 1; i <= run; i++) {
+              BitBoards.set(flips, bit + i * delta);
+            }
+          }
+        }
+        break;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Computes every legal move of own against opp at once, writing the tiles into moves. Each
+   * direction floods runs of opp discs outwards from own discs and keeps the empty tile that ends
+   * a run.
+   *
+   * @param own   the discs of the player moving
+   * @param opp   the discs of the other player
+   * @param moves the board to write the legal moves to
+   */
+  protected void legalMoves(long[] own, long[] opp, long[] moves) {
+    if (words == 1) {
+      moves[0] = legalMoves(own[0], opp[0]);
+      return;
+    }
+    for (int i = 0; i < words; i++) {
+      moves[i] = 0;
+    }
+    Scratch scratch = scratch();
+    long[] run = scratch.run;
+    for (int d = 0; d < dirDelta.length; d++) {
+      shiftInDirection(own, d, run, scratch.shift);
+      boolean any = false;
+      for (int i = 0; i < words; i++) {
+        run[i] &= opp[i];
+        any |= run[i] != 0;
+      }
+      while (any) {
+        shiftInDirection(run, d, run, scratch.shift);
+        any = false;
+        for (int i = 0; i < words; i++) {
+          long e = valid[i] & ~(own[i] | opp[i]);
+          moves[i] |= run[i] & e;
+          run[i] &= opp[i];
+          any |= run[i] != 0;
+        }
+      }
+    }
+  }
+
+  // the single word version of legalMoves, used when the whole board fits in one long
+  private long legalMoves(long own, long opp) {
+    long empty = valid[0] & ~(own | opp);
+    long moves = 0;
+    for (int d = 0; d < dirDelta.length; d++) {
+      long mask = dirMask[d][0];
+      int delta = dirDelta[d];
+      long run = shift(own & mask, delta) & opp;
+      while (run != 0) {
+        long next = shift(run & mask, delta);
+        moves |= next & empty;
+        run = next & opp;
+      }
+    }
+    return moves;
+  }
+
+  // shifts a single word board by the given number of bits
+  private static long shift(long board, int delta) {
+    return delta > 0 ? board << delta : board >>> -delta;
+  }
+
+  // moves every disc of src one step in the given direction, dropping discs that leave the board,
+  // using the given scratch board for the discs that stay on it
+  private void shiftInDirection(long[] src, int d, long[] dst, long[] shift) {
+    for (int i = 0; i < words; i++) {
+      shift[i] = src[i] & dirMask[d][i];
+    }
+    BitBoards.shift(shift, dirDelta[d], dst);
+  }
+
+  // the calling thread's scratch boards, sized for this board
+  private Scratch scratch() {
+    Scratch scratch = SCRATCH.get();
+    if (scratch.moves.length != words) {
+      scratch.resize(words);
+    }
+    return scratch;
+  }
+
+  @Override
+  public List<Coordinate> allValidMoves(String state) {
+    List<Coordinate> coords = new ArrayList<>();
+    long[] own = discsOf(TileState.codeOf(state));
+    if (own == null) {
+      return coords;
+    }
+    long[] legal = scratch().moves;
+    legalMoves(own, opponentOf(own), legal);
+    for (int bit = BitBoards.nextSetBit(legal, 0); bit >= 0;
+         bit = BitBoards.nextSetBit(legal, bit + 1)) {
+      coords.add(topology.coordOf(bitToCell[bit]));
+    }
+    return coords;
+  }
+
+  // Finds the moves with the bulk move generation and then counts the flips of only those bits.
+  @Override
+  public int generateMoves(int color, MoveList moves) {
+    moves.clear();
+    long[] own = discsOf(color);
+    if (own == null) {
+      return 0;
+    }
+    long[] opp = opponentOf(own);
+    long[] legal = scratch().moves;
+    legalMoves(own, opp, legal);
+    for (int bit = BitBoards.nextSetBit(legal, 0); bit >= 0;
+         bit = BitBoards.nextSetBit(legal, bit + 1)) {
+      moves.add(bitToCell[bit], findFlips(bit, own, opp, null));
+    }
+    return moves.size();
+  }
+
+  @Override
+  public boolean hasAnyValidMove(int color) {
+    long[] own = discsOf(color);
+    if (own == null) {
+      return false;
+    }
+    long[] legal = scratch().moves;
+    legalMoves(own, opponentOf(own), legal);
+    return !BitBoards.isEmpty(legal);
+  }
+
+  // The scratch boards of one thread. The board functions work on whole arrays, so the boards
+  // are made again when the thread reads a board with a different number of words.
+  private static final class Scratch {
+    private long[] shift = new long[0];
+    private long[] run = new long[0];
+    private long[] moves = new long[0];
+
+    private void resize(int words) {
+      shift = new long[words];
+      run = new long[words];
+      moves = new long[words];
+    }
+  }
+}
@@ -1,7 +1,7 @@
 package reversi.model;
 
 import java.util.ArrayList;
-
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -15,7 +15,7 @@ import reversi.player.strategies.MostPiecesStrategy;
  * This is an abstract class that provides basic functionality that cna be used by different game
  * board implementations of a Reversi game.
  */
-public abstract class AReversiModel implements ReversiModel {
+public abstract class AReversiModel implements ReversiModel, SearchableReversiModel {
 
   // an array of arrays containing the state of each tile of the game.
   protected TileState[][] boardState;
@@ -26,7 +26,45 @@ public abstract class AReversiModel implements ReversiModel {
   //the index of the player array representing the current player.
   protected int currentPlayer;
 
+  // the shared geometry of the board, see getTopology
+  protected BoardTopology topology;
+  // the tables of the topology, kept here for the inner loops. They are shared by every model of
+  // the same shape and size and must never be written to.
+  // the row and column in boardState of each cell index
+  protected int[] cellRow;
+  protected int[] cellCol;
+  // the cell index of the first tile of each row
+  protected int[] rowStart;
+  // for each direction, the cell index of the neighbor of each cell, or -1 if it is off the board
+  protected int[][] neighbors;
+  // for each direction, the cells from each cell to the edge of the board, nearest first
+  protected int[][][] rays;
+  // the color code of each player
+  protected byte[] playerColors;
+  // the number of tiles in each state, indexed by TileState code, kept up to date by every change
+  // to the board so scores never need a scan
+  protected int[] discCounts;
+  // the Zobrist hash of the discs on the board, see getPositionHash
+  protected long boardHash;
+  // the Zobrist key of each (cell, color) pair
+  protected long[] zobristKeys;
+  // the cells flipped by the last call to placeAndFlip
+  protected int[] lastFlips;
+  // the incrementally maintained legal moves, or null when moves are computed on demand
+  private MoveCache moveCache;
+  // counts changes to the board, so gameOver can tell when the current player's moves were
+  // already checked on the same board
+  private int boardVersion;
+  private int checkedVersion = -1;
+  private int checkedPlayer = -1;
+  // the records of the moves made with makeMove and makePass that have not been undone yet
+  private UndoRecord[] undoStack = new UndoRecord[0];
+  private int undoDepth;
+
   private List<ModelStatusFeatures> features = new ArrayList<>();
+  // the events of the call in progress, and how deeply calls that make events are nested
+  private final List<ModelEvent> pendingEvents = new ArrayList<>();
+  private int eventDepth;
 
   protected boolean isGameOver = false;
 
@@ -38,6 +76,7 @@ public abstract class AReversiModel implements ReversiModel {
     this.initialStates(4);
     this.size = 4;
     initializePlayers();
+    indexCells();
   }
 
   /**
@@ -51,6 +90,7 @@ public abstract class AReversiModel implements ReversiModel {
     this.initialStates(4);
     this.size = 4;
     currentPlayer = 0;
+    indexCells();
   }
 
   /**
@@ -63,6 +103,7 @@ public abstract class AReversiModel implements ReversiModel {
     this.size = boardSize;
     this.initialStates(boardSize);
     initializePlayers();
+    indexCells();
   }
 
   /**
@@ -79,6 +120,7 @@ public abstract class AReversiModel implements ReversiModel {
     this.size = boardState[0].length;
     this.boardState = boardState;
     initializePlayers();
+    indexCells();
   }
 
   /**
@@ -95,6 +137,7 @@ public abstract class AReversiModel implements ReversiModel {
     this.size = boardSize;
     this.initialStates(boardSize);
     this.currentPlayer = 0;
+    indexCells();
   }
 
   // method to start the game with two players
@@ -117,6 +160,130 @@ public abstract class AReversiModel implements ReversiModel {
   // places the starting pieces for a board.
   protected abstract void startingPieces(int boardSize);
 
+  // Gives the shared topology of a board of this shape with the given size.
+  protected abstract BoardTopology layoutTopology(int boardSize);
+
+  /**
+   * Gives the precomputed geometry of the board, shared by every model of the same shape and
+   * size.
+   *
+   * @return the topology of the board
+   */
+  @Override
+  public BoardTopology getTopology() {
+    if (topology == null) {
+      topology = layoutTopology(size);
+    }
+    return topology;
+  }
+
+  // Returns the number of rows of the board, as returned by getBoardCopy.
+  protected int rowCount() {
+    return getTopology().getRowCount();
+  }
+
+  // Returns the number of tiles in the given row, as returned by getBoardCopy.
+  protected int rowLength(int row) {
+    return getTopology().getRowLength(row);
+  }
+
+  // Takes the cell tables from the topology and sets up the per game state used by the primitive
+  // methods. Called once the board and players of a constructor are in place.
+  protected void indexCells() {
+    BoardTopology t = getTopology();
+    int count = t.getCellCount();
+    rowStart = t.rowStart;
+    cellRow = t.cellRow;
+    cellCol = t.cellCol;
+    neighbors = t.neighbors;
+    rays = t.rays;
+    playerColors = new byte[players.length];
+    for (int i = 0; i < players.length; i++) {
+      playerColors[i] = (byte) TileState.codeOf(players[i].getState());
+    }
+    discCounts = new int[TileState.values().length];
+    zobristKeys = Zobrist.keysFor(count);
+    boardHash = 0;
+    for (int cell = 0; cell < count; cell++) {
+      byte state = getStateAt(cell);
+      discCounts[state]++;
+      boardHash ^= discKey(cell, state);
+    }
+    lastFlips = new int[count];
+  }
+
+  /**
+   * Turns the incremental legal move mode on or off. While it is on, the model remembers the
+   * flip count of every tile for both players and after each change only recomputes the tiles
+   * whose lines run through the changed tiles, so isLegalMove, allValidMoves and
+   * hasAnyValidMove cost in proportion to what changed rather than to the size of the board.
+   *
+   * @param enabled true to maintain legal moves incrementally
+   */
+  public void setIncrementalMoves(boolean enabled) {
+    if (enabled && moveCache == null) {
+      moveCache = new MoveCache(this);
+    } else if (!enabled) {
+      moveCache = null;
+    }
+  }
+
+  // Gives the Zobrist key of a tile with the given state, 0 for an empty tile
+  protected long discKey(int cell, int state) {
+    if (state == TileState.EMPTY) {
+      return 0;
+    }
+    return zobristKeys[cell * 2 + state - 1];
+  }
+
+  /**
+   * Gives a 64-bit Zobrist hash of the position: the discs on the board, the player to move and
+   * which players have passed. The disc part is kept up to date by every change to the board, so
+   * this is constant time.
+   *
+   * @return the hash of the current position
+   */
+  @Override
+  public long getPositionHash() {
+    long hash = boardHash;
+    if (getCurrentColor() == TileState.WHITE) {
+      hash ^= Zobrist.WHITE_TO_MOVE;
+    }
+    for (int i = 0; i < players.length; i++) {
+      if (players[i].getPassed()) {
+        hash ^= Zobrist.passedKey(i);
+      }
+    }
+    return hash;
+  }
+
+  // tells the move cache, if there is one, that the given cell changed state
+  protected void cellChanged(int cell) {
+    if (moveCache != null) {
+      moveCache.invalidate(cell);
+    }
+  }
+
+  @Override
+  public int getCellCount() {
+    return cellRow.length;
+  }
+
+  @Override
+  public Coordinate cellToCoord(int cell) {
+    return topology.coordOf(cell);
+  }
+
+  @Override
+  public int cellIndex(Coordinate c) {
+    return getTopology().cellIndex(c);
+  }
+
+  // Makes sure that the given cell index is a tile of the board
+  protected boolean checkOutOfBounds(int cell) {
+    return cell < 0 || cell >= cellRow.length;
+  }
+
   /**
    * This method sets the state at the given coordinates.
    *
@@ -124,7 +291,37 @@ public abstract class AReversiModel implements ReversiModel {
    * @param state the state to be set
    */
   @Override
-  public abstract void setStateAt(Coordinate c, String state);
+  public void setStateAt(Coordinate c, String state) {
+    int code = TileState.codeOf(state);
+    if (code < 0) {
+      throw new IllegalArgumentException("setting an invalid state");
+    }
+    int cell = cellIndex(c);
+    if (cell < 0) {
+      throw new IllegalArgumentException("Provided cooridnates are invalid");
+    }
+    setStateAt(cell, (byte) code);
+  }
+
+  @Override
+  public void setStateAt(int cell, byte state) {
+    TileState.fromCode(state);
+    if (checkOutOfBounds(cell)) {
+      throw new IllegalArgumentException("Provided cooridnates are invalid");
+    }
+    byte old = getStateAt(cell);
+    storeState(cell, state);
+    discCounts[old]--;
+    discCounts[state]++;
+    boardHash ^= discKey(cell, old) ^ discKey(cell, state);
+    boardVersion++;
+    cellChanged(cell);
+  }
+
+  // writes the given state code to the storage of the board, without any bookkeeping
+  protected void storeState(int cell, byte state) {
+    boardState[cellRow[cell]][cellCol[cell]] = TileState.fromCode(state);
+  }
 
   /**
    * This method gets the state at the given coordinates.
@@ -133,10 +330,26 @@ public abstract class AReversiModel implements ReversiModel {
    * @return the String representing the given tile state
    */
   @Override
-  public abstract String getStateAt(Coordinate c);
+  public String getStateAt(Coordinate c) {
+    int cell = cellIndex(c);
+    if (cell < 0) {
+      throw new IllegalArgumentException("Provided coordinates are invalid");
+    }
+    return TileState.fromCode(getStateAt(cell)).toString();
+  }
 
-  // Makes sure that the Coordinates provided fit within the bounds of the current boardState
-  protected abstract boolean checkOutOfBounds(Coordinate c);
+  @Override
+  public byte getStateAt(int cell) {
+    if (checkOutOfBounds(cell)) {
+      throw new IllegalArgumentException("Provided coordinates are invalid");
+    }
+    return (byte) boardState[cellRow[cell]][cellCol[cell]].ordinal();
+  }
+
+  // Makes sure that the Coordinates provided are a tile of the board
+  protected boolean checkOutOfBounds(Coordinate c) {
+    return getTopology().cellIndex(c) < 0;
+  }
 
   /**
    * Gives the board size, representing the length of onne edge of the board.
@@ -153,20 +366,237 @@ public abstract class AReversiModel implements ReversiModel {
    * to the given state.
    *
    * @param c     the coordinate to set the state at
+   * @return the placed disc, the discs it flipped and the state of the game after the move
    */
   @Override
-  public abstract void doMove(Coordinate c);
+  public MoveResult doMove(Coordinate c) {
+    return doMove(cellIndex(c));
+  }
 
-  //Overrides Pass Turn
+  // Each ray from the cell is scanned once: the legality check and the flips are the same pass.
   @Override
-  public void passTurn() {
-    if (!isGameOver) {
-      players[currentPlayer].setPassed(true);
+  public MoveResult doMove(int cell) {
+    beginEvents();
+    try {
+      this.gameOver();
+      if (isGameOver) {
+        fire(ModelEvent.gameOver());
+      }
+      int color = getCurrentColor();
+      int flipped = isGameOver || checkOutOfBounds(cell) ? 0 : applyMove(cell, color);
+      if (flipped == 0) {
+        fire(ModelEvent.illegalMove("Cannot perform move at given coordinates."));
+        throw new IllegalArgumentException("Cannot perform move at given coordinates.");
+      }
+      int[] flips = Arrays.copyOf(lastFlips, flipped);
+      int[] scores = discCounts.clone();
+      adjustScores();
+      players[currentPlayer].setPassed(false);
+      int moveEvent = pendingEvents.size();
       nextPlayer();
+      this.gameOver();
+      if (isGameOver) {
+        fire(ModelEvent.gameOver());
+      }
+      MoveResult result = new MoveResult(topology, cell, color, flips, scores,
+              getCurrentPlayer(), isGameOver);
+      // the move goes before the turn change and end of game it led to
+      pendingEvents.add(moveEvent, ModelEvent.movePlayed(result));
+      return result;
+    } finally {
+      endEvents();
     }
-    this.gameOver();
+  }
+
+  // places a disc of the given color and updates the counts and move cache for every changed
+  // cell. Returns the number of discs flipped, which are recorded in lastFlips, or 0 without
+  // changing anything if the move is not legal.
+  protected int applyMove(int cell, int color) {
+    int flipped = placeAndFlip(cell, color);
+    if (flipped == 0) {
+      return 0;
+    }
+    boardVersion++;
+    int opp = TileState.opposite(color);
+    discCounts[TileState.EMPTY]--;
+    discCounts[color] += flipped + 1;
+    discCounts[opp] -= flipped;
+    boardHash ^= discKey(cell, color);
+    cellChanged(cell);
+    for (int i = 0; i < flipped; i++) {
+      boardHash ^= discKey(lastFlips[i], opp) ^ discKey(lastFlips[i], color);
+      cellChanged(lastFlips[i]);
+    }
+    return flipped;
+  }
+
+  @Override
+  public UndoRecord makeMove(int cell) {
+    int color = getCurrentColor();
+    if (isGameOver || checkOutOfBounds(cell)) {
+      return null;
+    }
+    UndoRecord record = pushRecord(cell, color);
+    int flipped = applyMove(cell, color);
+    if (flipped == 0) {
+      undoDepth--;
+      return null;
+    }
+    System.arraycopy(lastFlips, 0, record.flipped, 0, flipped);
+    record.flipCount = flipped;
+    adjustScores();
+    players[currentPlayer].setPassed(false);
+    currentPlayer = (currentPlayer + 1) % players.length;
+    return record;
+  }
+
+  @Override
+  public UndoRecord makePass() {
     if (isGameOver) {
-      this.modelRequestDisplayMessage("Game Over");
+      return null;
+    }
+    UndoRecord record = pushRecord(-1, getCurrentColor());
+    record.flipCount = 0;
+    players[currentPlayer].setPassed(true);
+    currentPlayer = (currentPlayer + 1) % players.length;
+    boolean allPassed = true;
+    for (IPlayer p : players) {
+      allPassed &= p.getPassed();
+    }
+    isGameOver = allPassed;
+    return record;
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) {
+    if (undoDepth == 0 || undoStack[undoDepth - 1] != record) {
+      throw new IllegalStateException("Can only undo the most recent move");
+    }
+    undoDepth--;
+    if (!record.isPass()) {
+      int opp = TileState.opposite(record.color);
+      storeState(record.cell, TileState.EMPTY);
+      for (int i = 0; i < record.flipCount; i++) {
+        storeState(record.flipped[i], (byte) opp);
+      }
+      discCounts[TileState.EMPTY]++;
+      discCounts[record.color] -= record.flipCount + 1;
+      discCounts[opp] += record.flipCount;
+      boardVersion++;
+      boardHash ^= discKey(record.cell, record.color);
+      cellChanged(record.cell);
+      for (int i = 0; i < record.flipCount; i++) {
+        int flippedCell = record.flipped[i];
+        boardHash ^= discKey(flippedCell, opp) ^ discKey(flippedCell, record.color);
+        cellChanged(flippedCell);
+      }
+    }
+    currentPlayer = record.previousPlayer;
+    isGameOver = record.previousGameOver;
+    for (int i = 0; i < players.length; i++) {
+      players[i].setPassed(record.previousPassed[i]);
+      players[i].setScore(record.previousScores[i]);
+    }
+  }
+
+  // takes the next record off the pool and saves the state a move is about to change into it
+  private UndoRecord pushRecord(int cell, int color) {
+    if (undoDepth == undoStack.length) {
+      undoStack = Arrays.copyOf(undoStack, Math.max(8, undoStack.length * 2));
+    }
+    UndoRecord record = undoStack[undoDepth];
+    if (record == null) {
+      record = new UndoRecord(getCellCount(), players.length);
+      undoStack[undoDepth] = record;
+    }
+    undoDepth++;
+    record.cell = cell;
+    record.color = color;
+    record.previousPlayer = currentPlayer;
+    record.previousGameOver = isGameOver;
+    for (int i = 0; i < players.length; i++) {
+      record.previousPassed[i] = players[i].getPassed();
+      record.previousScores[i] = players[i].getScore();
+    }
+    return record;
+  }
+
+  @Override
+  public SearchableReversiModel copyForSearch() {
+    IPlayer[] copyPlayers = new IPlayer[players.length];
+    for (int i = 0; i < players.length; i++) {
+      copyPlayers[i] = new Player(TileState.fromCode(playerColors[i]));
+      copyPlayers[i].setPassed(players[i].getPassed());
+      copyPlayers[i].setScore(players[i].getScore());
+    }
+    AReversiModel copy = newModel(copyPlayers, size);
+    for (int cell = 0; cell < getCellCount(); cell++) {
+      copy.setStateAt(cell, getStateAt(cell));
+    }
+    copy.currentPlayer = currentPlayer;
+    copy.isGameOver = isGameOver;
+    return copy;
+  }
+
+  // creates a new model of the same kind and size with the given players, used by copyForSearch
+  protected abstract AReversiModel newModel(IPlayer[] players, int boardSize);
+
+  // helper for doMove that places a disc of the given color at a cell and flips every line of
+  // the opponent's discs it closes, scanning each ray once. Returns the number of discs flipped,
+  // and records the flipped cells in lastFlips. If the move is not legal nothing is changed and 0
+  // is returned.
+  protected int placeAndFlip(int cell, int color) {
+    if (getStateAt(cell) != TileState.EMPTY) {
+      return 0;
+    }
+    TileState disc = TileState.fromCode(color);
+    int flipped = 0;
+    for (int d = 0; d < rays.length; d++) {
+      int run = lineLength(cell, d, color);
+      int[] ray = rays[d][cell];
+      for (int i = 0; i < run; i++) {
+        boardState[cellRow[ray[i]]][cellCol[ray[i]]] = disc;
+        lastFlips[flipped++] = ray[i];
+      }
+    }
+    if (flipped > 0) {
+      boardState[cellRow[cell]][cellCol[cell]] = disc;
+    }
+    return flipped;
+  }
+
+  // Takes the cell, direction, and color, and returns the number of opponent discs that a move by
+  // color at cell would flip in that direction, returning 0 if none.
+  protected int lineLength(int cell, int d, int color) {
+    int opp = TileState.opposite(color);
+    int[] ray = rays[d][cell];
+    int run = 0;
+    while (run < ray.length && boardState[cellRow[ray[run]]][cellCol[ray[run]]].ordinal() == opp) {
+      run++;
+    }
+    if (run > 0 && run < ray.length
+            && boardState[cellRow[ray[run]]][cellCol[ray[run]]].ordinal() == color) {
+      return run;
+    }
+    return 0;
+  }
+
+  //Overrides Pass Turn
+  @Override
+  public void passTurn() {
+    beginEvents();
+    try {
+      if (!isGameOver) {
+        players[currentPlayer].setPassed(true);
+        fire(ModelEvent.passed(getCurrentPlayer()));
+        nextPlayer();
+      }
+      this.gameOver();
+      if (isGameOver) {
+        fire(ModelEvent.gameOver());
+      }
+    } finally {
+      endEvents();
     }
   }
 
@@ -177,21 +607,13 @@ public abstract class AReversiModel implements ReversiModel {
     } else {
       currentPlayer++;
     }
-    this.modelRequestDisplayMessage("It's your turn!");
+    fire(ModelEvent.turnChanged(getCurrentPlayer()));
   }
 
   // resets the players scores to their proper numbers
   protected void adjustScores() {
-    for (IPlayer p : players) {
-      int score = 0;
-      for (int row = 0; row < boardState.length; row++) {
-        for (int col = 0; col < boardState[row].length; col++) {
-          if (p.getState().equals(getStateAt(indexToCoord(row, col)))) {
-            score++;
-          }
-        }
-      }
-      p.setScore(score);
+    for (int i = 0; i < players.length; i++) {
+      players[i].setScore(getScore(playerColors[i]));
     }
   }
 
@@ -205,85 +627,92 @@ public abstract class AReversiModel implements ReversiModel {
   @Override
   public List<Coordinate> allValidMoves(String state) {
     List<Coordinate> coords = new ArrayList<>();
-    for (int i = 0; i < boardState.length; i++) {
-      for (int j = 0; j < boardState[i].length; j++) {
-        if (isLegalMove(indexToCoord(i, j), state) > 0) {
-          Coordinate tile = indexToCoord(i, j);
-          coords.add(tile);
-        }
+    int color = TileState.codeOf(state);
+    for (int cell = 0; cell < getCellCount(); cell++) {
+      if (isLegalMove(cell, color) > 0) {
+        coords.add(cellToCoord(cell));
       }
     }
     return coords;
   }
 
-  // Gives A copy of the board in the form of A String[][]
   @Override
-  public String[][] getBoardCopy() {
-    String[][] copy = new String[boardState.length][];
-    for (int i = 0; i < boardState.length; i++) {
-      copy[i] = new String[boardState[i].length];
-      for (int j = 0; j < boardState[i].length; j++) {
-        copy[i][j] = boardState[i][j].toString();
+  public int generateMoves(int color, MoveList moves) {
+    moves.clear();
+    if (color != TileState.BLACK && color != TileState.WHITE) {
+      return 0;
+    }
+    for (int cell = 0; cell < getCellCount(); cell++) {
+      int flips = isLegalMove(cell, color);
+      if (flips > 0) {
+        moves.add(cell, flips);
       }
     }
-    return copy;
+    return moves.size();
   }
 
-  // helper for doMove that flips the specified number of disks in the specified direction,
-  // skipping the starting disk.
-  protected void flipInDirection(Coordinate c, int qDir, int rDir, int numToFlip) {
-    int currentQ = c.q + qDir;
-    int currentR = c.r + rDir;
-    Coordinate currentCoord = new Coordinate(currentQ, currentR);
-    for (int i = 0; i < numToFlip; i++) {
-      String oppositeState = oppositeState(getStateAt(currentCoord));
-      setStateAt(currentCoord, oppositeState);
-      currentQ = currentQ + qDir;
-      currentR = currentR + rDir;
-      currentCoord = new Coordinate(currentQ, currentR);
+  @Override
+  public boolean hasAnyValidMove(int color) {
+    if (color != TileState.BLACK && color != TileState.WHITE) {
+      return false;
+    }
+    if (moveCache != null) {
+      return moveCache.hasAny(color);
+    }
+    for (int cell = 0; cell < getCellCount(); cell++) {
+      if (isLegalMove(cell, color) > 0) {
+        return true;
+      }
     }
+    return false;
   }
 
-  // Returns the state opposite of the given state
-  private String oppositeState(String state) {
-    if (state.equals("white")) {
-      return "black";
-    } else {
-      return "white";
+  // Gives A copy of the board in the form of A String[][]
+  @Override
+  public String[][] getBoardCopy() {
+    String[][] copy = new String[rowCount()][];
+    int cell = 0;
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = new String[rowLength(i)];
+      for (int j = 0; j < copy[i].length; j++) {
+        copy[i][j] = TileState.fromCode(getStateAt(cell)).toString();
+        cell++;
+      }
     }
+    return copy;
+  }
+
+  // Checks if the specific move is legal according to the rules specified in do move. returns 0 if
+  // false and the number of pieces flipped if true.
+  @Override
+  public int isLegalMove(Coordinate c, String state) {
+    return isLegalMove(cellIndex(c), TileState.codeOf(state));
   }
 
-  // Takes the tile coordinates, direction, and state, and returns the number flipped,
-  // returning 0 if it is not valid.
-  protected int checkDirection(Coordinate c, int qInc, int rInc, String state) {
-    int currentQ = c.q + qInc;
-    int currentR = c.r + rInc;
-    if (checkOutOfBounds(new Coordinate(currentQ, currentR))) {
+  @Override
+  public int isLegalMove(int cell, int color) {
+    if (checkOutOfBounds(cell) || (color != TileState.BLACK && color != TileState.WHITE)) {
       return 0;
     }
-    int countTiles = 0;
-    String otherState = oppositeState(state);
-    while (getStateAt(new Coordinate(currentQ, currentR)).equals(otherState)) {
-      countTiles++;
-      currentQ = currentQ + qInc;
-      currentR = currentR + rInc;
-      if (checkOutOfBounds(new Coordinate(currentQ, currentR))) {
-        return 0;
-      }
+    if (moveCache != null) {
+      return moveCache.flips(cell, color);
     }
-    if (getStateAt(new Coordinate(currentQ, currentR)).equals(state)) {
-      return countTiles;
-    } else {
+    return countFlips(cell, color);
+  }
+
+  // scans every direction from an in bounds cell and returns the number of discs a move by the
+  // given color would flip there.
+  protected int countFlips(int cell, int color) {
+    if (getStateAt(cell) != TileState.EMPTY) {
       return 0;
     }
+    int total = 0;
+    for (int d = 0; d < neighbors.length; d++) {
+      total += lineLength(cell, d, color);
+    }
+    return total;
   }
 
-
-  // Checks if the specific move is legal according to the rules specified in do move. returns 0 if
-  // false and the number of pieces flipped if true.
-  @Override
-  public abstract int isLegalMove(Coordinate c, String state);
-
   // Converts the index of an array to a Coordinate
   @Override
   public abstract Coordinate indexToCoord(int i1, int i2);
@@ -291,15 +720,16 @@ public abstract class AReversiModel implements ReversiModel {
   // Returns the score, by how many spots on the boardState have the given state
   @Override
   public int getScore(String state) {
-    int score = 0;
-    for (int row = 0; row < boardState.length; row++) {
-      for (int col = 0; col < boardState[row].length; col++) {
-        if (getStateAt(indexToCoord(row, col)).equals(state)) {
-          score++;
-        }
-      }
+    int color = TileState.codeOf(state);
+    return color < 0 ? 0 : getScore(color);
+  }
+
+  @Override
+  public int getScore(int color) {
+    if (color < 0 || color >= discCounts.length) {
+      return 0;
     }
-    return score;
+    return discCounts[color];
   }
 
   //Returns the current Player (aka whoose turn it is)
@@ -308,6 +738,11 @@ public abstract class AReversiModel implements ReversiModel {
     return players[currentPlayer].getState();
   }
 
+  @Override
+  public int getCurrentColor() {
+    return playerColors[currentPlayer];
+  }
+
 
   // Returns a copy of the current players
   @Override
@@ -335,9 +770,16 @@ public abstract class AReversiModel implements ReversiModel {
         }
       }
     }
-    if (allValidMoves(getCurrentPlayer()).isEmpty()) {
+    if (checkedVersion == boardVersion && checkedPlayer == currentPlayer) {
+      return;
+    }
+    if (!hasAnyValidMove(getCurrentColor())) {
       players[currentPlayer].setPassed(true);
+      fire(ModelEvent.passed(getCurrentPlayer()));
       nextPlayer();
+    } else {
+      checkedVersion = boardVersion;
+      checkedPlayer = currentPlayer;
     }
   }
 
@@ -356,12 +798,32 @@ public abstract class AReversiModel implements ReversiModel {
     this.features.add(f);
   }
 
-  protected void modelRequestDisplayMessage(String s) {
-    for (ModelStatusFeatures f: features) {
-      f.requestDisplayMessage(s);
+  // Starts collecting the events of a call, so they are handed to the listeners together when
+  // it ends. Calls can nest; the events go out when the outermost one ends.
+  private void beginEvents() {
+    eventDepth++;
+  }
+
+  // Ends a call started with beginEvents, and hands its events to every listener once it was
+  // the outermost call.
+  private void endEvents() {
+    eventDepth--;
+    if (eventDepth == 0 && !pendingEvents.isEmpty()) {
+      List<ModelEvent> events = List.copyOf(pendingEvents);
+      pendingEvents.clear();
+      for (ModelStatusFeatures f: features) {
+        f.modelChanged(events);
+      }
     }
   }
 
+  // Adds an event to the ones of the call in progress, or hands it out at once outside a call.
+  protected void fire(ModelEvent event) {
+    beginEvents();
+    pendingEvents.add(event);
+    endEvents();
+  }
+
   protected void modelRequestDisplayBoard() {
     for (ModelStatusFeatures f: features) {
       f.requestDisplayBoard();
@@ -374,7 +836,7 @@ public abstract class AReversiModel implements ReversiModel {
   @Override
   public void startGame() {
 
-    this.modelRequestDisplayMessage("It's your turn!");
+    fire(ModelEvent.turnChanged(getCurrentPlayer()));
 
   }
 
@@ -109,93 +109,8 @@ public class BasicReversiModel extends AReversiModel {
   }
 
   @Override
-  public void setStateAt(Coordinate c, String state) {
-    if (!(state.equals("empty") || state.equals("black") || state.equals("white"))) {
-      throw new IllegalArgumentException("setting an invalid state");
-    }
-    if (this.checkOutOfBounds(c)) {
-      throw new IllegalArgumentException("Provided cooridnates are invalid");
-    }
-    int max = 0;
-    if (size - 1 - c.r > max) {
-      max = size - 1 - c.r;
-    }
-    this.boardState[c.r][c.q - max] = TileState.valueOf(state);
-  }
-
-  @Override
-  public String getStateAt(Coordinate c) {
-    if (this.checkOutOfBounds(c)) {
-      throw new IllegalArgumentException("Provided coordinates are invalid");
-    }
-    int max = 0;
-    if (size - 1 - c.r > max) {
-      max = size - 1 - c.r;
-    }
-    return this.boardState[c.r][c.q - max].toString();
-  }
-
-  // Makes sure that the Coordinates provided fit within the bounds of the current boardState
-  @Override
-  protected boolean checkOutOfBounds(Coordinate c) {
-    if (c.r > (size * 2) - 2) {
-      return true;
-    }
-    if (c.r < 0) {
-      return true;
-    }
-    int bottomQ = 0;
-    int topQ = (this.size * 2) - 2;
-    if (size - 1 - c.r > 0) {
-      bottomQ = size - 1 - c.r;
-    }
-    if (c.r >= size) {
-      topQ = topQ - (c.r - (size - 1));
-    }
-    return c.q < bottomQ || c.q > topQ;
-  }
-
-  @Override
-  public void doMove(Coordinate c) {
-    this.gameOver();
-    if (isGameOver) {
-      this.modelRequestDisplayMessage("Game Over");
-    }
-    if ((isLegalMove(c, getCurrentPlayer()) > 0) &&  (!isGameOver)) {
-      setStateAt(c, getCurrentPlayer());
-      for (int i = -1; i < 2; i++) {
-        for (int j = -1; j < 2; j++) {
-          // does the move in all six directions
-          if (i != j) {
-            flipInDirection(c, i, j, checkDirection(c, i, j, getCurrentPlayer()));
-          }
-        }
-      }
-      adjustScores();
-      players[currentPlayer].setPassed(false);
-      nextPlayer();
-
-    } else {
-      this.modelRequestDisplayMessage("Cannot perform move at given coordinates.");
-      throw new IllegalArgumentException("Cannot perform move at given coordinates.");
-    }
-    this.gameOver();
-    if (isGameOver) {
-      this.modelRequestDisplayMessage("Game Over");
-    }
-  }
-
-  @Override
-  public int isLegalMove(Coordinate c, String state) {
-    if (this.checkOutOfBounds(c)) {
-      return 0;
-    }
-    if (!(getStateAt(c).equals(TileState.empty.toString()))) {
-      return 0;
-    }
-    return checkDirection(c, 1, 0, state) + checkDirection(c, 0, 1, state)
-            + checkDirection(c, -1, 0, state) + checkDirection(c, 0, -1, state)
-            + checkDirection(c, 1, -1, state) + checkDirection(c, -1, 1, state);
+  protected BoardTopology layoutTopology(int boardSize) {
+    return BoardTopology.hex(boardSize);
   }
 
   @Override
@@ -206,6 +121,9 @@ public class BasicReversiModel extends AReversiModel {
     }
     return new Coordinate(i2 + max, i1);
   }
-}
-
 
+  @Override
+  protected AReversiModel newModel(IPlayer[] players, int boardSize) {
+    return new BasicReversiModel(players, boardSize);
+  }
+}
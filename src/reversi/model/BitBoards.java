@@ -0,0 +1,112 @@
+package reversi.model;
+
+/**
+ * Static helpers for boards stored as arrays of 64-bit words, where bit i of the board lives in
+ * bit (i % 64) of word (i / 64). None of these methods allocate, so they can be used from the
+ * inner loops of move generation.
+ */
+final class BitBoards {
+
+  private BitBoards() {
+  }
+
+  /**
+   * Shifts every bit of src by n positions into dst, so bit i moves to bit i + n. Negative values
+   * of n shift towards bit 0. Bits shifted past either end of the array are dropped.
+   *
+   * @param src the words to shift
+   * @param n   the number of bit positions to shift by
+   * @param dst the words to write the result to, must not be src
+   */
+  static void shift(long[] src, int n, long[] dst) {
+    int len = src.length;
+    if (n >= 0) {
+      int wordShift = n >>> 6;
+      int bitShift = n & 63;
+      for (int i = len - 1; i >= 0; i--) {
+        int j = i - wordShift;
+        long v = 0;
+        if (j >= 0) {
+          v = src[j] << bitShift;
+          if (bitShift != 0 && j > 0) {
+            v |= src[j - 1] >>> (64 - bitShift);
+          }
+        }
+        dst[i] = v;
+      }
+    } else {
+      int wordShift = (-n) >>> 6;
+      int bitShift = (-n) & 63;
+      for (int i = 0; i < len; i++) {
+        int j = i + wordShift;
+        long v = 0;
+        if (j < len) {
+          v = src[j] >>> bitShift;
+          if (bitShift != 0 && j < len - 1) {
+            v |= src[j + 1] << (64 - bitShift);
+          }
+        }
+        dst[i] = v;
+      }
+    }
+  }
+
+  // Returns true if the given bit is set
+  static boolean get(long[] words, int bit) {
+    return (words[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  // Sets the given bit
+  static void set(long[] words, int bit) {
+    words[bit >>> 6] |= 1L << bit;
+  }
+
+  // Clears the given bit
+  static void clear(long[] words, int bit) {
+    words[bit >>> 6] &= ~(1L << bit);
+  }
+
+  // Returns true if no bit is set
+  static boolean isEmpty(long[] words) {
+    for (long w : words) {
+      if (w != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Returns the number of set bits
+  static int count(long[] words) {
+    int total = 0;
+    for (long w : words) {
+      total += Long.bitCount(w);
+    }
+    return total;
+  }
+
+  /**
+   * Returns the index of the lowest set bit at or after from, or -1 if there is none.
+   *
+   * @param words the words to search
+   * @param from  the first bit to consider
+   * @return the index of the next set bit
+   */
+  static int nextSetBit(long[] words, int from) {
+    int i = from >>> 6;
+    if (i >= words.length) {
+      return -1;
+    }
+    long w = words[i] & (-1L << from);
+    while (true) {
+      if (w != 0) {
+        return (i << 6) + Long.numberOfTrailingZeros(w);
+      }
+      i++;
+      if (i == words.length) {
+        return -1;
+      }
+      w = words[i];
+    }
+  }
+}
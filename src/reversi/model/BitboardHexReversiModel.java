@@ -0,0 +1,95 @@
+package reversi.model;
+
+import reversi.player.IPlayer;
+
+
+/**
+ * Represents a hexagonal game of Reversi that is stored as bitboards. The board behaves exactly
+ * like {@link BasicReversiModel} and uses the same axial coordinates. The hexagon is embedded in a
+ * parallelogram of (size * 2 - 1) rows, where the tile at Coordinate (q, r) is stored at bit
+ * r * (size * 2) + q. Each row has one extra padding bit at the end, so a step in any of the six
+ * axial directions is a fixed shift that never wraps from one row onto a tile of the next, and
+ * the corners of the parallelogram that are not part of the hexagon are left out of the valid
+ * mask.
+ */
+public class BitboardHexReversiModel extends ABitboardReversiModel {
+
+  /**
+   * Default constructor for the Reversi Model that returns a board size of 4.
+   */
+  public BitboardHexReversiModel() {
+    super();
+  }
+
+  /**
+   * Basic size 4 board constructor with custom players.
+   */
+  public BitboardHexReversiModel(IPlayer[] players) {
+    super(players);
+  }
+
+  /**
+   * Constructor that takes in a board size and produces a board of that size.
+   */
+  public BitboardHexReversiModel(int boardSize) throws IllegalArgumentException {
+    super(boardSize);
+  }
+
+  /**
+   * Board constructor with custom players and a board size.
+   */
+  public BitboardHexReversiModel(IPlayer[] players, int boardSize)
+          throws IllegalArgumentException {
+    super(players, boardSize);
+  }
+
+  // places the starting pieces for a hexagonal board, in the same places as BasicReversiModel.
+  @Override
+  protected void startingPieces(int boardSize) {
+    BitBoards.set(black, bitIndex(indexToCoord(boardSize - 2, boardSize - 2)));
+    BitBoards.set(white, bitIndex(indexToCoord(boardSize - 2, boardSize - 1)));
+    BitBoards.set(white, bitIndex(indexToCoord(boardSize - 1, boardSize - 2)));
+    BitBoards.set(black, bitIndex(indexToCoord(boardSize - 1, boardSize)));
+    BitBoards.set(black, bitIndex(indexToCoord(boardSize, boardSize - 2)));
+    BitBoards.set(white, bitIndex(indexToCoord(boardSize, boardSize - 1)));
+  }
+
+  // the number of bits in one row of the parallelogram, including the padding bit
+  private int stride() {
+    return size * 2;
+  }
+
+  @Override
+  protected int bitIndex(Coordinate c) {
+    int last = size * 2 - 2;
+    if (c.q < 0 || c.q > last || c.r < 0 || c.r > last
+            || c.q + c.r < size - 1 || c.q + c.r > 3 * size - 3) {
+      return -1;
+    }
+    return c.r * stride() + c.q;
+  }
+
+  @Override
+  protected int layoutBits(int boardSize) {
+    return (boardSize * 2 - 1) * (boardSize * 2);
+  }
+
+  @Override
+  protected BoardTopology layoutTopology(int boardSize) {
+    return BoardTopology.hex(boardSize);
+  }
+
+  @Override
+  public Coordinate indexToCoord(int i1, int i2) {
+    int max = 0;
+    if (size - 1 - i1 > max) {
+      max = size - 1 - i1;
+    }
+    return new Coordinate(i2 + max, i1);
+  }
+
+  @Override
+  protected AReversiModel newModel(IPlayer[] players, int boardSize) {
+    return new BitboardHexReversiModel(players, boardSize);
+  }
+}
@@ -0,0 +1,75 @@
+package reversi.model;
+
+import reversi.player.IPlayer;
+
+
+/**
+ * Represents a square board version of a game of Reversi that is stored as bitboards. The board
+ * behaves exactly like {@link SquareReversiModel}, with the tile at Coordinate (q, r) stored at bit
+ * q * size + r, so an 8x8 board is held in one 64-bit word per color and larger even sizes use an
+ * array of words per color.
+ */
+public class BitboardSquareReversiModel extends ABitboardReversiModel {
+
+  /**
+   * Constructor that takes in a board size and produces a board of that size.
+   */
+  public BitboardSquareReversiModel(int boardSize) throws IllegalArgumentException {
+    super(boardSize);
+  }
+
+  /**
+   * Board constructor with custom players and a board size.
+   */
+  public BitboardSquareReversiModel(IPlayer[] players, int boardSize)
+          throws IllegalArgumentException {
+    super(players, boardSize);
+  }
+
+  // square boards must have an even size so the starting pieces sit in the center.
+  @Override
+  protected void initialStates(int boardSize) {
+    if (boardSize % 2 != 0) {
+      throw new IllegalArgumentException("not even board");
+    }
+    super.initialStates(boardSize);
+  }
+
+  // places the starting pieces for a square board.
+  @Override
+  protected void startingPieces(int boardSize) {
+    int half = boardSize / 2;
+    BitBoards.set(black, bitIndex(new Coordinate(half - 1, half - 1)));
+    BitBoards.set(white, bitIndex(new Coordinate(half - 1, half)));
+    BitBoards.set(white, bitIndex(new Coordinate(half, half - 1)));
+    BitBoards.set(black, bitIndex(new Coordinate(half, half)));
+  }
+
+  @Override
+  protected int bitIndex(Coordinate c) {
+    if (c.q < 0 || c.q > size - 1 || c.r < 0 || c.r > size - 1) {
+      return -1;
+    }
+    return c.q * size + c.r;
+  }
+
+  @Override
+  protected int layoutBits(int boardSize) {
+    return boardSize * boardSize;
+  }
+
+  @Override
+  protected BoardTopology layoutTopology(int boardSize) {
+    return BoardTopology.square(boardSize);
+  }
+
+  @Override
+  public Coordinate indexToCoord(int i1, int i2) {
+    return new Coordinate(i1, i2);
+  }
+
+  @Override
+  protected AReversiModel newModel(IPlayer[] players, int boardSize) {
+    return new BitboardSquareReversiModel(players, boardSize);
+  }
+}
@@ -0,0 +1,379 @@
+package reversi.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fixed geometry of a board of one shape and size: which coordinates are tiles, the cell
+ * index of each tile, the neighbor of every cell in each direction, the ray of cells running out
+ * from every cell in each direction, and the corner and X-square tiles. None of this depends on
+ * the discs on the board, so it is computed once per shape and size and shared by every model,
+ * strategy and view of that board. A topology is immutable once built.
+ *
+ * <p>Cells are numbered row by row in the same order as getBoardCopy. On a hexagonal board each
+ * row is a value of r, and on a square board each row is a value of q.
+ */
+public final class BoardTopology {
+
+  /**
+   * The type name of a hexagonal board.
+   */
+  public static final String HEX = "hex";
+
+  /**
+   * The type name of a square board.
+   */
+  public static final String SQUARE = "square";
+
+  // the six axial directions a line can run in on a hexagonal board
+  private static final int[][] HEX_DIRECTIONS = {
+      {1, 0}, {0, 1}, {-1, 0}, {0, -1}, {1, -1}, {-1, 1}};
+  // the eight directions a line can run in on a square board
+  private static final int[][] SQUARE_DIRECTIONS = {
+      {1, 0}, {0, 1}, {-1, 0}, {0, -1}, {1, -1}, {-1, 1}, {1, 1}, {-1, -1}};
+
+  private static final Map<Integer, BoardTopology> HEX_CACHE = new ConcurrentHashMap<>();
+  private static final Map<Integer, BoardTopology> SQUARE_CACHE = new ConcurrentHashMap<>();
+
+  private final String type;
+  private final int size;
+  // the width and height of the q, r grid the board fits in
+  private final int span;
+  // the cell index of each (q, r) of the grid at q * span + r, or -1 if it is not a tile
+  private final int[] grid;
+  private final Coordinate[] coords;
+  private final int[][] directions;
+  // the tables below are shared with the models in this package, which must never write to them
+  final int[] rowStart;
+  final int[] cellRow;
+  final int[] cellCol;
+  // for each direction, the neighbor of each cell, or -1 if it is off the board
+  final int[][] neighbors;
+  // for each direction, the cells from each cell to the edge of the board, nearest first
+  final int[][][] rays;
+  private final int[] corners;
+  private final boolean[] isCorner;
+  private final boolean[] isXSquare;
+  private final boolean[] isNextToCorner;
+  private final boolean[] isEdge;
+
+  // builds the tables of a board of the given type and size
+  private BoardTopology(String type, int size) {
+    this.type = type;
+    this.size = size;
+    boolean square = SQUARE.equals(type);
+    this.span = square ? size : size * 2 - 1;
+    this.directions = square ? SQUARE_DIRECTIONS : HEX_DIRECTIONS;
+
+    rowStart = new int[span];
+    int count = 0;
+    for (int row = 0; row < span; row++) {
+      rowStart[row] = count;
+      count += square ? size : size + Math.min(row, size * 2 - 2 - row);
+    }
+    cellRow = new int[count];
+    cellCol = new int[count];
+    coords = new Coordinate[count];
+    grid = new int[span * span];
+    Arrays.fill(grid, -1);
+    for (int row = 0; row < span; row++) {
+      int end = row + 1 < span ? rowStart[row + 1] : count;
+      for (int cell = rowStart[row]; cell < end; cell++) {
+        int col = cell - rowStart[row];
+        cellRow[cell] = row;
+        cellCol[cell] = col;
+        coords[cell] = square ? new Coordinate(row, col)
+                : new Coordinate(col + Math.max(0, size - 1 - row), row);
+        grid[coords[cell].q * span + coords[cell].r] = cell;
+      }
+    }
+
+    neighbors = new int[directions.length][count];
+    rays = new int[directions.length][count][];
+    isEdge = new boolean[count];
+    for (int d = 0; d < directions.length; d++) {
+      for (int cell = 0; cell < count; cell++) {
+        neighbors[d][cell] = cellAt(coords[cell].q + directions[d][0],
+                coords[cell].r + directions[d][1]);
+        isEdge[cell] |= neighbors[d][cell] < 0;
+      }
+      for (int cell = 0; cell < count; cell++) {
+        int length = 0;
+        for (int cur = neighbors[d][cell]; cur >= 0; cur = neighbors[d][cur]) {
+          length++;
+        }
+        rays[d][cell] = new int[length];
+        int cur = neighbors[d][cell];
+        for (int i = 0; i < length; i++) {
+          rays[d][cell][i] = cur;
+          cur = neighbors[d][cur];
+        }
+      }
+    }
+
+    // corners are listed in the same order the strategies have always found them in
+    List<Integer> cornerList = new ArrayList<>();
+    int x = size - 1;
+    int steps = square ? 2 : 3;
+    for (int i = 0; i < steps; i++) {
+      for (int j = 0; j < steps; j++) {
+        if (square || i != j) {
+          cornerList.add(cellAt(i * x, j * x));
+        }
+      }
+    }
+    corners = new int[cornerList.size()];
+    isCorner = new boolean[count];
+    isXSquare = new boolean[count];
+    isNextToCorner = new boolean[count];
+    for (int i = 0; i < corners.length; i++) {
+      corners[i] = cornerList.get(i);
+      isCorner[corners[i]] = true;
+    }
+    for (int corner : corners) {
+      for (int d = 0; d < directions.length; d++) {
+        int n = neighbors[d][corner];
+        if (n >= 0 && !isCorner[n]) {
+          isNextToCorner[n] = true;
+          // on a square board only the diagonal neighbors are X-squares, on a hexagonal board
+          // every neighbor of a corner gives the corner away in the same way
+          if (!square || (directions[d][0] != 0 && directions[d][1] != 0)) {
+            isXSquare[n] = true;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives the topology of a hexagonal board with the given size, building it on first use.
+   *
+   * @param size the length of one edge of the board
+   * @return the shared topology of the board
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public static BoardTopology hex(int size) {
+    return lookup(HEX_CACHE, HEX, size);
+  }
+
+  /**
+   * Gives the topology of a square board with the given size, building it on first use.
+   *
+   * @param size the length of one edge of the board
+   * @return the shared topology of the board
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public static BoardTopology square(int size) {
+    return lookup(SQUARE_CACHE, SQUARE, size);
+  }
+
+  /**
+   * Gives the topology of a board of the given type name, as used by the strategies. The name
+   * "square" gives a square board and any other name a hexagonal board.
+   *
+   * @param type the type of the board
+   * @param size the length of one edge of the board
+   * @return the shared topology of the board
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public static BoardTopology of(String type, int size) {
+    return SQUARE.equals(type) ? square(size) : hex(size);
+  }
+
+  // finds the topology in the given cache or builds it
+  private static BoardTopology lookup(Map<Integer, BoardTopology> cache, String type, int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Size must be positive");
+    }
+    return cache.computeIfAbsent(size, s -> new BoardTopology(type, s));
+  }
+
+  /**
+   * Gives the type name of the board, HEX or SQUARE.
+   *
+   * @return the type of the board
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Gives the length of one edge of the board.
+   *
+   * @return the size of the board
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Gives the number of tiles on the board.
+   *
+   * @return the number of cells
+   */
+  public int getCellCount() {
+    return coords.length;
+  }
+
+  /**
+   * Gives the number of rows of the board, as returned by getBoardCopy.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowStart.length;
+  }
+
+  /**
+   * Gives the number of tiles in the given row, as returned by getBoardCopy.
+   *
+   * @param row the row of the board
+   * @return the length of the row
+   */
+  public int getRowLength(int row) {
+    int end = row + 1 < rowStart.length ? rowStart[row + 1] : coords.length;
+    return end - rowStart[row];
+  }
+
+  /**
+   * Gives the cell index of the tile at the given axial coordinates.
+   *
+   * @param q the q coordinate of the tile
+   * @param r the r coordinate of the tile
+   * @return the cell index, or -1 if the coordinates are not a tile of the board
+   */
+  public int cellAt(int q, int r) {
+    if (q < 0 || q >= span || r < 0 || r >= span) {
+      return -1;
+    }
+    return grid[q * span + r];
+  }
+
+  /**
+   * Gives the cell index of the tile at the given coordinate.
+   *
+   * @param c the coordinate of the tile
+   * @return the cell index, or -1 if the coordinate is not a tile of the board
+   */
+  public int cellIndex(Coordinate c) {
+    return cellAt(c.q, c.r);
+  }
+
+  /**
+   * Gives the coordinate of the given cell. The same Coordinate object is returned every time.
+   *
+   * @param cell the cell index of the tile
+   * @return the coordinate of the tile
+   */
+  public Coordinate coordOf(int cell) {
+    return coords[cell];
+  }
+
+  /**
+   * Gives the number of directions a line of discs can run in.
+   *
+   * @return 6 for a hexagonal board and 8 for a square board
+   */
+  public int getDirectionCount() {
+    return directions.length;
+  }
+
+  /**
+   * Gives the (q, r) step of the given direction.
+   *
+   * @param d the direction
+   * @return a new array holding the q step and the r step
+   */
+  public int[] getDirection(int d) {
+    return directions[d].clone();
+  }
+
+  /**
+   * Gives the neighbor of a cell in the given direction.
+   *
+   * @param d    the direction
+   * @param cell the cell index of the tile
+   * @return the cell index of the neighbor, or -1 if it is off the board
+   */
+  public int neighbor(int d, int cell) {
+    return neighbors[d][cell];
+  }
+
+  /**
+   * Gives the number of tiles between a cell and the edge of the board in the given direction.
+   *
+   * @param d    the direction
+   * @param cell the cell index of the tile
+   * @return the length of the ray
+   */
+  public int rayLength(int d, int cell) {
+    return rays[d][cell].length;
+  }
+
+  /**
+   * Gives the i-th tile out from a cell in the given direction, starting with its neighbor at 0.
+   *
+   * @param d    the direction
+   * @param cell the cell index of the tile the ray starts from
+   * @param i    the position along the ray, less than rayLength(d, cell)
+   * @return the cell index of the tile
+   */
+  public int rayCell(int d, int cell, int i) {
+    return rays[d][cell][i];
+  }
+
+  /**
+   * Gives the corners of the board.
+   *
+   * @return a new array of the cell indices of the corners
+   */
+  public int[] getCorners() {
+    return corners.clone();
+  }
+
+  /**
+   * Returns true if the given cell is a corner of the board.
+   *
+   * @param cell the cell index of the tile
+   * @return true if it is a corner
+   */
+  public boolean isCorner(int cell) {
+    return isCorner[cell];
+  }
+
+  /**
+   * Returns true if the given cell is an X-square, a tile next to a corner that lets the opponent
+   * take the corner. On a square board these are the tiles diagonal to a corner, and on a
+   * hexagonal board every neighbor of a corner.
+   *
+   * @param cell the cell index of the tile
+   * @return true if it is an X-square
+   */
+  public boolean isXSquare(int cell) {
+    return isXSquare[cell];
+  }
+
+  /**
+   * Returns true if the given cell is next to a corner in any direction, without being a corner.
+   *
+   * @param cell the cell index of the tile
+   * @return true if it touches a corner
+   */
+  public boolean isNextToCorner(int cell) {
+    return isNextToCorner[cell];
+  }
+
+  /**
+   * Returns true if the given cell is on the edge of the board, so that it is missing a neighbor
+   * in at least one direction. Corners are edge cells too.
+   *
+   * @param cell the cell index of the tile
+   * @return true if it is on the edge
+   */
+  public boolean isEdge(int cell) {
+    return isEdge[cell];
+  }
+}
@@ -0,0 +1,348 @@
+package reversi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import reversi.controller.ModelStatusFeatures;
+import reversi.player.IPlayer;
+
+/**
+ * A model that can be read from any number of threads while it is played on, such as by
+ * computer players searching and a view repainting while a move is made. It wraps another model,
+ * which from then on must only be used through the wrapper.
+ *
+ * <p>Changes take a write lock. Questions about a single tile, the score, the player to move or
+ * the end of the game are read without locking, and only read again under a read lock if a change
+ * happened while they were being read. Everything that looks at the whole board, such as finding
+ * the legal moves or copying the board, is answered from a snapshot: a {@link PositionSnapshot}
+ * of the position, which can only be read. A snapshot is only made the first time it is asked for
+ * after a change, so repainting a board that has not changed does not copy it.
+ *
+ * <p>Listeners are told about a change after the write lock is released, so they can read the
+ * model while they handle the events.
+ */
+public final class ConcurrentReversiModel implements ReversiModel, SearchableReversiModel {
+
+  // a copy of the position at one version of the model
+  private static final class Snapshot {
+    private final long version;
+    private final PositionSnapshot copy;
+
+    private Snapshot(long version, PositionSnapshot copy) {
+      this.version = version;
+      this.copy = copy;
+    }
+  }
+
+  private final ReversiModel model;
+  private final StampedLock lock = new StampedLock();
+  private final List<ModelStatusFeatures> features = new CopyOnWriteArrayList<>();
+  // the events of the change being made, only used under the write lock
+  private final List<ModelEvent> pending = new ArrayList<>();
+  // the number of changes made, only changed under the write lock
+  private long version;
+  private volatile Snapshot snapshot;
+
+  /**
+   * Wraps a model so it can be shared between threads.
+   *
+   * @param model the model, which must not be used except through the wrapper from now on
+   * @throws IllegalArgumentException if the model is null or cannot be copied
+   */
+  public ConcurrentReversiModel(ReversiModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (!(model instanceof SearchableReversiModel)) {
+      throw new IllegalArgumentException("Model cannot be copied");
+    }
+    this.model = model;
+    model.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        pending.addAll(events);
+      }
+    });
+  }
+
+  /**
+   * Gives a copy of the current position that can only be read, so it can be read from any
+   * thread while the game goes on. The same copy is given until the model changes.
+   *
+   * @return the position as it is now
+   */
+  @Override
+  public ReadonlyReversiModel snapshot() {
+    return current();
+  }
+
+  // Gives the snapshot of the current version, making it if it has not been made yet. Readers
+  // that find it made never lock.
+  private PositionSnapshot current() {
+    long stamp = lock.tryOptimisticRead();
+    Snapshot s = snapshot;
+    if (s != null && s.version == version && lock.validate(stamp)) {
+      return s.copy;
+    }
+    stamp = lock.readLock();
+    try {
+      s = snapshot;
+      if (s == null || s.version != version) {
+        s = new Snapshot(version, PositionSnapshot.of((SearchableReversiModel) model));
+        snapshot = s;
+      }
+      return s.copy;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // Reads a value without locking, and again under the read lock if the model was changed
+  // meanwhile. A read that fails because it saw a change half made is also read again. Every
+  // read of the model goes through here, as a long holds any of its int values unboxed.
+  private long readLong(LongSupplier reader) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        long value = reader.getAsLong();
+        if (lock.validate(stamp)) {
+          return value;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return reader.getAsLong();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // readLong for int values
+  private int readInt(IntSupplier reader) {
+    return (int) readLong(reader::getAsInt);
+  }
+
+  // readLong for other values, which keeps the one from the read it returns after
+  @SuppressWarnings("unchecked")
+  private <T> T read(Supplier<T> reader) {
+    Object[] value = new Object[1];
+    readLong(() -> {
+      value[0] = reader.get();
+      return 0;
+    });
+    return (T) value[0];
+  }
+
+  // Makes a change under the write lock, then hands the events it made to the listeners once
+  // the lock is released.
+  private <T> T write(Supplier<T> change) {
+    List<ModelEvent> events = List.of();
+    long stamp = lock.writeLock();
+    try {
+      version++;
+      return change.get();
+    } finally {
+      if (!pending.isEmpty()) {
+        events = List.copyOf(pending);
+        pending.clear();
+      }
+      lock.unlockWrite(stamp);
+      if (!events.isEmpty()) {
+        for (ModelStatusFeatures f : features) {
+          f.modelChanged(events);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void setStateAt(Coordinate c, String state) {
+    write(() -> {
+      model.setStateAt(c, state);
+      return null;
+    });
+  }
+
+  @Override
+  public void setStateAt(int cell, byte state) {
+    write(() -> {
+      model.setStateAt(cell, state);
+      return null;
+    });
+  }
+
+  @Override
+  public MoveResult doMove(Coordinate c) {
+    return write(() -> model.doMove(c));
+  }
+
+  @Override
+  public MoveResult doMove(int cell) {
+    return write(() -> model.doMove(cell));
+  }
+
+  @Override
+  public void passTurn() {
+    write(() -> {
+      model.passTurn();
+      return null;
+    });
+  }
+
+  @Override
+  public void startGame() {
+    write(() -> {
+      model.startGame();
+      return null;
+    });
+  }
+
+  @Override
+  public void addFeatures(ModelStatusFeatures features) {
+    this.features.add(features);
+  }
+
+  @Override
+  public UndoRecord makeMove(int cell) {
+    return write(() -> ((SearchableReversiModel) model).makeMove(cell));
+  }
+
+  @Override
+  public UndoRecord makePass() {
+    return write(() -> ((SearchableReversiModel) model).makePass());
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) {
+    write(() -> {
+      ((SearchableReversiModel) model).unmakeMove(record);
+      return null;
+    });
+  }
+
+  // the copy is made from the snapshot, so searches that start between changes share the work
+  @Override
+  public SearchableReversiModel copyForSearch() {
+    return current().copyForSearch();
+  }
+
+  @Override
+  public String getStateAt(Coordinate c) {
+    return read(() -> model.getStateAt(c));
+  }
+
+  @Override
+  public byte getStateAt(int cell) {
+    return (byte) readInt(() -> model.getStateAt(cell));
+  }
+
+  @Override
+  public int getScore(String state) {
+    return readInt(() -> model.getScore(state));
+  }
+
+  @Override
+  public int getScore(int color) {
+    return readInt(() -> model.getScore(color));
+  }
+
+  @Override
+  public String getCurrentPlayer() {
+    return read(model::getCurrentPlayer);
+  }
+
+  @Override
+  public int getCurrentColor() {
+    return readInt(model::getCurrentColor);
+  }
+
+  @Override
+  public boolean getGameOver() {
+    return read(model::getGameOver);
+  }
+
+  @Override
+  public long getPositionHash() {
+    return readLong(model::getPositionHash);
+  }
+
+  @Override
+  public List<Coordinate> allValidMoves(String state) {
+    return current().allValidMoves(state);
+  }
+
+  @Override
+  public String[][] getBoardCopy() {
+    return current().getBoardCopy();
+  }
+
+  @Override
+  public IPlayer[] getPlayersCopy() {
+    return current().getPlayersCopy();
+  }
+
+  @Override
+  public int isLegalMove(Coordinate c, String state) {
+    return current().isLegalMove(c, state);
+  }
+
+  @Override
+  public int isLegalMove(int cell, int color) {
+    return current().isLegalMove(cell, color);
+  }
+
+  @Override
+  public boolean hasAnyValidMove(int color) {
+    return current().hasAnyValidMove(color);
+  }
+
+  @Override
+  public int generateMoves(int color, MoveList moves) {
+    return current().generateMoves(color, moves);
+  }
+
+  @Override
+  public int getSize() {
+    return model.getSize();
+  }
+
+  @Override
+  public Coordinate indexToCoord(int i1, int i2) {
+    return model.indexToCoord(i1, i2);
+  }
+
+  @Override
+  public String[] getColors() {
+    return model.getColors();
+  }
+
+  @Override
+  public int getCellCount() {
+    return model.getCellCount();
+  }
+
+  @Override
+  public int cellIndex(Coordinate c) {
+    return model.cellIndex(c);
+  }
+
+  @Override
+  public Coordinate cellToCoord(int cell) {
+    return model.cellToCoord(cell);
+  }
+
+  @Override
+  public BoardTopology getTopology() {
+    return model.getTopology();
+  }
+}
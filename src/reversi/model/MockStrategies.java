@@ -3,6 +3,8 @@ package reversi.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import reversi.player.TileState;
+
 
 /**
  * Allows for the user to test the strategies of Reversi without having to filter through every
@@ -58,6 +60,17 @@ public class MockStrategies extends BasicReversiModel {
     }
   }
 
+  // The strategies read moves through generateMoves, so it gives the same user provided moves,
+  // with the flips they would make on the mock's board.
+  @Override
+  public int generateMoves(int color, MoveList moves) {
+    moves.clear();
+    for (Coordinate c : allValidMoves(TileState.fromCode(color).toString())) {
+      moves.add(cellIndex(c), isLegalMove(cellIndex(c), color));
+    }
+    return moves.size();
+  }
+
 
 
 
@@ -0,0 +1,146 @@
+package reversi.model;
+
+/**
+ * Something that happened in a game, as told to the model's listeners. The model collects the
+ * events of one call, such as a move and the turn change and end of game it leads to, and hands
+ * them to each listener together, so a listener can react to all of them at once, for example
+ * with a single repaint. An event never changes once it is made.
+ */
+public final class ModelEvent {
+
+  /**
+   * The kinds of event.
+   */
+  public enum Kind {
+    /**
+     * A disc was placed; the move result has the cells it flipped.
+     */
+    MOVE_PLAYED,
+    /**
+     * It is now the given player's turn.
+     */
+    TURN_CHANGED,
+    /**
+     * The given player passed, by choice or because they had no move.
+     */
+    PASSED,
+    /**
+     * The game is over.
+     */
+    GAME_OVER,
+    /**
+     * A move was asked for that could not be played; the message says why.
+     */
+    ILLEGAL_MOVE
+  }
+
+  private final Kind kind;
+  private final String player;
+  private final MoveResult move;
+  private final String message;
+
+  private ModelEvent(Kind kind, String player, MoveResult move, String message) {
+    this.kind = kind;
+    this.player = player;
+    this.move = move;
+    this.message = message;
+  }
+
+  /**
+   * Makes the event of a move being played.
+   *
+   * @param move what the move did
+   * @return the event
+   */
+  public static ModelEvent movePlayed(MoveResult move) {
+    return new ModelEvent(Kind.MOVE_PLAYED, null, move, null);
+  }
+
+  /**
+   * Makes the event of the turn passing to a player.
+   *
+   * @param player the player whose turn it now is
+   * @return the event
+   */
+  public static ModelEvent turnChanged(String player) {
+    return new ModelEvent(Kind.TURN_CHANGED, player, null, null);
+  }
+
+  /**
+   * Makes the event of a player passing.
+   *
+   * @param player the player who passed
+   * @return the event
+   */
+  public static ModelEvent passed(String player) {
+    return new ModelEvent(Kind.PASSED, player, null, null);
+  }
+
+  /**
+   * Makes the event of the game ending.
+   *
+   * @return the event
+   */
+  public static ModelEvent gameOver() {
+    return new ModelEvent(Kind.GAME_OVER, null, null, null);
+  }
+
+  /**
+   * Makes the event of a move that could not be played.
+   *
+   * @param message why the move could not be played
+   * @return the event
+   */
+  public static ModelEvent illegalMove(String message) {
+    return new ModelEvent(Kind.ILLEGAL_MOVE, null, null, message);
+  }
+
+  /**
+   * Gives the kind of the event.
+   *
+   * @return the kind
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gives the player the event is about: whose turn it now is for TURN_CHANGED, who passed for
+   * PASSED, and the player who moved for MOVE_PLAYED.
+   *
+   * @return the player, or null for other kinds of event
+   */
+  public String getPlayer() {
+    return kind == Kind.MOVE_PLAYED ? move.getPlayer() : player;
+  }
+
+  /**
+   * Gives what a move did.
+   *
+   * @return the move result for MOVE_PLAYED, or null for other kinds of event
+   */
+  public MoveResult getMove() {
+    return move;
+  }
+
+  /**
+   * Gives why a move could not be played.
+   *
+   * @return the message for ILLEGAL_MOVE, or null for other kinds of event
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case MOVE_PLAYED:
+        return kind + " " + move.getPlaced().q + "," + move.getPlaced().r;
+      case ILLEGAL_MOVE:
+        return kind + " " + message;
+      default:
+        return player == null ? kind.toString() : kind + " " + player;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package reversi.model;
+
+import java.util.Arrays;
+
+import reversi.player.TileState;
+
+/**
+ * Remembers the flip count of every cell for both colors so legal moves do not have to be
+ * recomputed from scratch after every move. When a tile changes, only the empty tiles whose lines
+ * run through it are forgotten: from the changed tile, each direction is followed across discs up
+ * to the first empty tile, which is the only tile in that direction whose flips could depend on
+ * it. Forgotten tiles are recomputed lazily, and only tiles on the frontier (empty tiles next to a
+ * disc) ever need a ray scan.
+ */
+final class MoveCache {
+
+  private final AReversiModel model;
+  // the flip count of each cell for each color code, or -1 if it is not known
+  private final int[][] flips;
+  // the number of known legal cells for each color code
+  private final int[] legalCount;
+  // the cells that have been forgotten since the last refresh
+  private final int[] stale;
+  private final boolean[] isStale;
+  private int staleCount;
+
+  /**
+   * Creates a cache for the given model where nothing is known yet.
+   *
+   * @param model the model to cache the moves of
+   */
+  MoveCache(AReversiModel model) {
+    this.model = model;
+    int cells = model.getCellCount();
+    int colors = TileState.values().length;
+    this.flips = new int[colors][cells];
+    this.legalCount = new int[colors];
+    this.stale = new int[cells];
+    this.isStale = new boolean[cells];
+    for (int[] row : flips) {
+      Arrays.fill(row, -1);
+    }
+    for (int cell = 0; cell < cells; cell++) {
+      isStale[cell] = true;
+      stale[staleCount++] = cell;
+    }
+  }
+
+  /**
+   * Gives the number of discs a move by color at cell would flip, computing it if needed.
+   *
+   * @param cell  the cell to move to
+   * @param color the color code of the player moving, BLACK or WHITE
+   * @return the number of discs flipped, 0 if the move is not legal
+   */
+  int flips(int cell, int color) {
+    int value = flips[color][cell];
+    if (value < 0) {
+      value = compute(cell, color);
+    }
+    return value;
+  }
+
+  /**
+   * Returns true if the given color has at least one legal move.
+   *
+   * @param color the color code of the player, BLACK or WHITE
+   * @return true if there is a legal move
+   */
+  boolean hasAny(int color) {
+    if (legalCount[color] > 0) {
+      return true;
+    }
+    refresh();
+    return legalCount[color] > 0;
+  }
+
+  /**
+   * Forgets the flip counts that may have changed because the given cell changed state.
+   *
+   * @param cell the cell that changed
+   */
+  void invalidate(int cell) {
+    forget(cell);
+    int[][] neighbors = model.neighbors;
+    for (int[] next : neighbors) {
+      int cur = next[cell];
+      while (cur >= 0 && model.getStateAt(cur) != TileState.EMPTY) {
+        cur = next[cur];
+      }
+      if (cur >= 0) {
+        forget(cur);
+      }
+    }
+  }
+
+  // computes every forgotten cell for both colors
+  private void refresh() {
+    for (int i = 0; i < staleCount; i++) {
+      int cell = stale[i];
+      isStale[cell] = false;
+      for (int color = TileState.BLACK; color <= TileState.WHITE; color++) {
+        if (flips[color][cell] < 0) {
+          compute(cell, color);
+        }
+      }
+    }
+    staleCount = 0;
+  }
+
+  // computes and stores the flip count of a cell, checking the frontier before scanning rays
+  private int compute(int cell, int color) {
+    int value = 0;
+    if (model.getStateAt(cell) == TileState.EMPTY && onFrontier(cell)) {
+      value = model.countFlips(cell, color);
+    }
+    flips[color][cell] = value;
+    if (value > 0) {
+      legalCount[color]++;
+    }
+    return value;
+  }
+
+  // returns true if the cell is next to at least one disc
+  private boolean onFrontier(int cell) {
+    for (int[] next : model.neighbors) {
+      int n = next[cell];
+      if (n >= 0 && model.getStateAt(n) != TileState.EMPTY) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // forgets the flip counts of a single cell
+  private void forget(int cell) {
+    for (int color = TileState.BLACK; color <= TileState.WHITE; color++) {
+      if (flips[color][cell] > 0) {
+        legalCount[color]--;
+      }
+      flips[color][cell] = -1;
+    }
+    if (!isStale[cell]) {
+      isStale[cell] = true;
+      stale[staleCount++] = cell;
+    }
+  }
+}
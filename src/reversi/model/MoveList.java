@@ -0,0 +1,103 @@
+package reversi.model;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of legal moves, filled by {@link ReadonlyReversiModel#generateMoves}. Each
+ * entry is the cell index of a move and the number of discs it would flip, kept in two primitive
+ * arrays, so a strategy can keep one list and refill it for every decision without building
+ * Coordinates or rescanning rays to count flips. The arrays grow as needed and are never shrunk.
+ */
+public final class MoveList {
+
+  private int[] cells;
+  private int[] flips;
+  private int size;
+
+  /**
+   * Creates an empty list with room for a typical number of moves.
+   */
+  public MoveList() {
+    this(32);
+  }
+
+  /**
+   * Creates an empty list with room for the given number of moves before it has to grow.
+   *
+   * @param capacity the number of moves to make room for
+   */
+  public MoveList(int capacity) {
+    this.cells = new int[Math.max(1, capacity)];
+    this.flips = new int[cells.length];
+  }
+
+  /**
+   * Removes every move from the list, keeping its arrays.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Adds a move to the end of the list.
+   *
+   * @param cell  the cell index of the move
+   * @param flips the number of discs the move flips
+   */
+  public void add(int cell, int flips) {
+    if (size == cells.length) {
+      cells = Arrays.copyOf(cells, size * 2);
+      this.flips = Arrays.copyOf(this.flips, size * 2);
+    }
+    cells[size] = cell;
+    this.flips[size] = flips;
+    size++;
+  }
+
+  /**
+   * Gives the number of moves in the list.
+   *
+   * @return the number of moves
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns true if the list has no moves.
+   *
+   * @return true if it is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gives the cell index of the i-th move.
+   *
+   * @param i the position of the move in the list
+   * @return the cell of the move
+   */
+  public int getCell(int i) {
+    checkIndex(i);
+    return cells[i];
+  }
+
+  /**
+   * Gives the number of discs the i-th move flips.
+   *
+   * @param i the position of the move in the list
+   * @return the flip count of the move
+   */
+  public int getFlips(int i) {
+    checkIndex(i);
+    return flips[i];
+  }
+
+  // makes sure i is the position of a move in the list
+  private void checkIndex(int i) {
+    if (i < 0 || i >= size) {
+      throw new IllegalArgumentException("No move at position " + i);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package reversi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import reversi.player.TileState;
+
+/**
+ * What happened when a move was played with {@link ReversiModel#doMove}: the cell the disc was
+ * placed at, the cells it flipped, the scores after the move, whose turn it is next and whether
+ * the game ended. A view or a remote player can apply the flip list directly instead of reading
+ * the whole board again. A result never changes once it is made.
+ */
+public final class MoveResult {
+
+  private final int cell;
+  private final Coordinate placed;
+  private final int color;
+  private final int[] flipped;
+  private final Coordinate[] flippedCoords;
+  // the number of tiles in each state after the move, indexed by TileState code
+  private final int[] scores;
+  private final String nextPlayer;
+  private final boolean gameOver;
+
+  // takes ownership of the flipped and scores arrays, which the caller must not change
+  MoveResult(BoardTopology topology, int cell, int color, int[] flipped, int[] scores,
+             String nextPlayer, boolean gameOver) {
+    this.cell = cell;
+    this.placed = topology.coordOf(cell);
+    this.color = color;
+    this.flipped = flipped;
+    this.flippedCoords = new Coordinate[flipped.length];
+    for (int i = 0; i < flipped.length; i++) {
+      flippedCoords[i] = topology.coordOf(flipped[i]);
+    }
+    this.scores = scores;
+    this.nextPlayer = nextPlayer;
+    this.gameOver = gameOver;
+  }
+
+  /**
+   * Gives the cell index the disc was placed at.
+   *
+   * @return the cell of the move
+   */
+  public int getCell() {
+    return cell;
+  }
+
+  /**
+   * Gives the coordinate the disc was placed at.
+   *
+   * @return the coordinate of the move
+   */
+  public Coordinate getPlaced() {
+    return placed;
+  }
+
+  /**
+   * Gives the color of the player who made the move.
+   *
+   * @return the TileState name of the player
+   */
+  public String getPlayer() {
+    return TileState.fromCode(color).toString();
+  }
+
+  /**
+   * Gives the number of discs the move flipped.
+   *
+   * @return the number of flipped discs
+   */
+  public int getFlipCount() {
+    return flipped.length;
+  }
+
+  /**
+   * Gives the cell index of one of the flipped discs.
+   *
+   * @param i which flipped disc, from 0 to getFlipCount() - 1
+   * @return the cell of the flipped disc
+   */
+  public int getFlipped(int i) {
+    if (i < 0 || i >= flipped.length) {
+      throw new IllegalArgumentException("No such flipped disc");
+    }
+    return flipped[i];
+  }
+
+  /**
+   * Gives the coordinates of every flipped disc.
+   *
+   * @return a new list of the coordinates of the flipped discs
+   */
+  public List<Coordinate> getFlippedCoordinates() {
+    List<Coordinate> coords = new ArrayList<>(flippedCoords.length);
+    for (Coordinate c : flippedCoords) {
+      coords.add(c);
+    }
+    return coords;
+  }
+
+  /**
+   * Gives the number of tiles of the given state after the move.
+   *
+   * @param state the state to count
+   * @return the score of that state, 0 if the state is not known
+   */
+  public int getScore(String state) {
+    int code = TileState.codeOf(state);
+    return code < 0 ? 0 : scores[code];
+  }
+
+  /**
+   * Gives the player whose turn it is after the move, taking any automatic pass into account.
+   *
+   * @return the state of the next player
+   */
+  public String getNextPlayer() {
+    return nextPlayer;
+  }
+
+  /**
+   * Returns true if the move ended the game.
+   *
+   * @return true if the game is over
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+}
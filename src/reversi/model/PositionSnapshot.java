@@ -0,0 +1,168 @@
+package reversi.model;
+
+import java.util.List;
+
+import reversi.player.IPlayer;
+import reversi.player.Player;
+import reversi.player.TileState;
+
+/**
+ * A position copied out of a model that can only be read, so it can be handed to any number of
+ * threads while the game goes on. It keeps a private copy of the model and gives out nothing
+ * that could change it: the board and the players only come out as copies, and the search copy
+ * is a new one every time.
+ */
+public final class PositionSnapshot implements ReadonlyReversiModel {
+
+  private final SearchableReversiModel copy;
+
+  private PositionSnapshot(SearchableReversiModel copy) {
+    this.copy = copy;
+  }
+
+  /**
+   * Copies the current position of a model.
+   *
+   * @param model the model to copy
+   * @return a snapshot of its position
+   */
+  public static PositionSnapshot of(SearchableReversiModel model) {
+    return new PositionSnapshot(model.copyForSearch());
+  }
+
+  /**
+   * Gives a new model at the snapshot's position that the caller may play on, such as to
+   * search it.
+   *
+   * @return a new copy of the position
+   */
+  public SearchableReversiModel copyForSearch() {
+    return copy.copyForSearch();
+  }
+
+  @Override
+  public String getStateAt(Coordinate c) {
+    return copy.getStateAt(c);
+  }
+
+  @Override
+  public int getSize() {
+    return copy.getSize();
+  }
+
+  @Override
+  public List<Coordinate> allValidMoves(String state) {
+    return copy.allValidMoves(state);
+  }
+
+  @Override
+  public String[][] getBoardCopy() {
+    return copy.getBoardCopy();
+  }
+
+  @Override
+  public Coordinate indexToCoord(int i1, int i2) {
+    return copy.indexToCoord(i1, i2);
+  }
+
+  @Override
+  public int getScore(String state) {
+    return copy.getScore(state);
+  }
+
+  @Override
+  public String getCurrentPlayer() {
+    return copy.getCurrentPlayer();
+  }
+
+  // New players with the snapshot's colours, passes and scores, as the copy's own players
+  // could be changed through the array it gives out.
+  @Override
+  public IPlayer[] getPlayersCopy() {
+    IPlayer[] players = copy.getPlayersCopy();
+    IPlayer[] result = new IPlayer[players.length];
+    for (int i = 0; i < players.length; i++) {
+      Player player = new Player(TileState.fromCode(TileState.codeOf(players[i].getState())));
+      player.setPassed(players[i].getPassed());
+      player.setScore(players[i].getScore());
+      result[i] = player;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean getGameOver() {
+    return copy.getGameOver();
+  }
+
+  @Override
+  public String[] getColors() {
+    return copy.getColors();
+  }
+
+  @Override
+  public int isLegalMove(Coordinate c, String state) {
+    return copy.isLegalMove(c, state);
+  }
+
+  @Override
+  public int getCellCount() {
+    return copy.getCellCount();
+  }
+
+  @Override
+  public int cellIndex(Coordinate c) {
+    return copy.cellIndex(c);
+  }
+
+  @Override
+  public Coordinate cellToCoord(int cell) {
+    return copy.cellToCoord(cell);
+  }
+
+  @Override
+  public byte getStateAt(int cell) {
+    return copy.getStateAt(cell);
+  }
+
+  @Override
+  public int isLegalMove(int cell, int color) {
+    return copy.isLegalMove(cell, color);
+  }
+
+  @Override
+  public boolean hasAnyValidMove(int color) {
+    return copy.hasAnyValidMove(color);
+  }
+
+  @Override
+  public int generateMoves(int color, MoveList moves) {
+    return copy.generateMoves(color, moves);
+  }
+
+  @Override
+  public int getScore(int color) {
+    return copy.getScore(color);
+  }
+
+  @Override
+  public int getCurrentColor() {
+    return copy.getCurrentColor();
+  }
+
+  @Override
+  public long getPositionHash() {
+    return copy.getPositionHash();
+  }
+
+  @Override
+  public BoardTopology getTopology() {
+    return copy.getTopology();
+  }
+
+  // A snapshot never changes, so it is its own.
+  @Override
+  public ReadonlyReversiModel snapshot() {
+    return this;
+  }
+}
@@ -94,4 +94,113 @@ public interface ReadonlyReversiModel {
    * @return the number of pieces flipped if the player can move to the given coordinate.
    */
   int isLegalMove(Coordinate c, String state);
+
+  /**
+   * Gives the number of tiles on the board. Tiles are numbered by cell index from 0 to
+   * getCellCount() - 1, row by row in the same order as getBoardCopy.
+   *
+   * @return the number of tiles on the board.
+   */
+  int getCellCount();
+
+  /**
+   * Gives the cell index of the tile at the given coordinate.
+   *
+   * @param c the coordinate of the tile
+   * @return the cell index of the tile, or -1 if the coordinate is not on the board.
+   */
+  int cellIndex(Coordinate c);
+
+  /**
+   * Gives the coordinate of the tile with the given cell index.
+   *
+   * @param cell the cell index of the tile
+   * @return the coordinate of the tile.
+   */
+  Coordinate cellToCoord(int cell);
+
+  /**
+   * Returns the state of the tile with the given cell index as a TileState code, such as
+   * TileState.EMPTY, TileState.BLACK or TileState.WHITE.
+   *
+   * @param cell the cell index of the tile
+   * @return the code of the state of the tile
+   * @throws IllegalArgumentException if the cell is not on the board
+   */
+  byte getStateAt(int cell);
+
+  /**
+   * Checks if the player of the given color code can legally move to the given cell. Returns 0 if
+   * false and the number of pieces flipped by the move if true.
+   *
+   * @param cell is the cell index to move to
+   * @param color is the TileState code of the player doing the move
+   * @return the number of pieces flipped if the player can move to the given cell.
+   */
+  int isLegalMove(int cell, int color);
+
+  /**
+   * Returns true if the player of the given color code has at least one legal move. This is
+   * cheaper than checking whether allValidMoves is empty.
+   *
+   * @param color is the TileState code of the player
+   * @return true if the player can move somewhere.
+   */
+  boolean hasAnyValidMove(int color);
+
+  /**
+   * Finds every legal move of the player with the given color code together with the number of
+   * discs each one flips, in a single pass over the board. The list is cleared and then filled
+   * in the same order as allValidMoves.
+   *
+   * @param color is the TileState code of the player
+   * @param moves the list to fill, which is reused rather than allocated on every call
+   * @return the number of legal moves found
+   */
+  int generateMoves(int color, MoveList moves);
+
+  /**
+   * Gets the number of tiles with the given TileState code.
+   *
+   * @param color the code of the state to count
+   * @return the number of tiles with that state
+   */
+  int getScore(int color);
+
+  /**
+   * Gets the TileState code of the player whose turn it currently is.
+   *
+   * @return the color code of the current player
+   */
+  int getCurrentColor();
+
+  /**
+   * Gives a 64-bit hash of the current position, covering the discs on the board, the player to
+   * move and which players have passed. Equal positions always have equal hashes, across model
+   * instances and runs, so it can key transposition tables, caches and game logs.
+   *
+   * @return the hash of the position
+   */
+  long getPositionHash();
+
+  /**
+   * Gives the precomputed geometry of the board: the cell index of every coordinate, the
+   * neighbors and rays of every cell and the corners. It is shared by every board of the same
+   * shape and size, so strategies and views can use it instead of working out the geometry
+   * themselves.
+   *
+   * @return the topology of the board
+   */
+  BoardTopology getTopology();
+
+  /**
+   * Gives a view of the current position that stays the same while it is read, for reading the
+   * whole board at once, such as for a repaint. A model that is only changed on the thread that
+   * reads it is its own snapshot; a model shared between threads gives a copy.
+   *
+   * @return the position as it is now
+   */
+  default ReadonlyReversiModel snapshot() {
+    return this;
+  }
 }
\ No newline at end of file
@@ -19,15 +19,34 @@ public interface ReversiModel extends ReadonlyReversiModel {
    */
   void setStateAt(Coordinate c, String state);
 
+  /**
+   * Sets the state of the tile with the given cell index.
+   *
+   * @param cell the cell index of the tile
+   * @param state is the TileState code to set at the given cell
+   * @throws IllegalArgumentException if the cell is not on the board or if the state is invalid.
+   */
+  void setStateAt(int cell, byte state);
+
   /**
    * Does the move at the specified location and updates the game board accordingly. Move rules
    * are based on game implementation.
    *
    * @param c the coordinate to set the state at
+   * @return the placed disc, the discs it flipped and the state of the game after the move
    * @throws IllegalArgumentException if q or r are out of bounds for coordinate system or
    *                                  if the state is invalid.
    */
-  void doMove(Coordinate c);
+  MoveResult doMove(Coordinate c);
+
+  /**
+   * Does the move at the tile with the given cell index for the current player.
+   *
+   * @param cell the cell index to move to
+   * @return the placed disc, the discs it flipped and the state of the game after the move
+   * @throws IllegalArgumentException if the cell is not on the board or the move is not legal.
+   */
+  MoveResult doMove(int cell);
 
   /**
    * Sets the players passed status to true and makes the next player the current player.
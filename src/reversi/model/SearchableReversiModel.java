@@ -0,0 +1,44 @@
+package reversi.model;
+
+/**
+ * A model that can be explored by search strategies. Moves are made and taken back in place, so
+ * a search does not copy the board at every node. Making and undoing moves never notifies the
+ * model's listeners, never passes automatically and never throws for an illegal move.
+ */
+public interface SearchableReversiModel extends ReadonlyReversiModel {
+
+  /**
+   * Places a disc for the current player at the given cell, flips the captured discs and gives
+   * the turn to the next player.
+   *
+   * @param cell the cell index to move to
+   * @return the record to undo the move with, or null if the move is not legal or the game is
+   *         over.
+   */
+  UndoRecord makeMove(int cell);
+
+  /**
+   * Passes the turn of the current player. The game is over once every player has passed in a
+   * row.
+   *
+   * @return the record to undo the pass with, or null if the game is over.
+   */
+  UndoRecord makePass();
+
+  /**
+   * Takes back a move or pass. Records must be undone in the reverse order they were made, and
+   * every record must be undone before the model is played on normally again.
+   *
+   * @param record the record of the most recent move or pass that has not been undone
+   * @throws IllegalStateException if the record is not the most recent one.
+   */
+  void unmakeMove(UndoRecord record);
+
+  /**
+   * Makes a copy of the current position that has no listeners and whose players have no
+   * strategies, so that it can be searched without affecting the game being played.
+   *
+   * @return a copy of the game for searching.
+   */
+  SearchableReversiModel copyForSearch();
+}
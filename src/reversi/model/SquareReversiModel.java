@@ -51,72 +51,8 @@ public class SquareReversiModel extends AReversiModel {
   }
 
   @Override
-  public void setStateAt(Coordinate c, String state) {
-    if (!(state.equals("empty") || state.equals("black") || state.equals("white"))) {
-      throw new IllegalArgumentException("setting an invalid state");
-    }
-    if (this.checkOutOfBounds(c)) {
-      throw new IllegalArgumentException("Provided cooridnates are invalid");
-    }
-    this.boardState[c.q][c.r] = TileState.valueOf(state);
-  }
-
-  @Override
-  public String getStateAt(Coordinate c) {
-    if (this.checkOutOfBounds(c)) {
-      throw new IllegalArgumentException("Provided coordinates are invalid");
-    }
-    return this.boardState[c.q][c.r].toString();
-  }
-
-  // Makes sure that the Coordinates provided fit within the bounds of the current boardState
-  @Override
-  protected boolean checkOutOfBounds(Coordinate c) {
-    return c.q < 0 || c.q > size - 1 || c.r < 0 || c.r > size - 1;
-  }
-
-  @Override
-  public void doMove(Coordinate c) {
-    this.gameOver();
-    if (isGameOver) {
-      this.modelRequestDisplayMessage("Game Over");
-    }
-    if ((isLegalMove(c, getCurrentPlayer()) > 0) &&  (!isGameOver)) {
-      setStateAt(c, getCurrentPlayer());
-      for (int i = -1; i < 2; i++) {
-        for (int j = -1; j < 2; j++) {
-          // does the move in all eight directions
-          if (!(i == 0 && j == 0)) {
-            flipInDirection(c, i, j, checkDirection(c, i, j, getCurrentPlayer()));
-          }
-        }
-      }
-      adjustScores();
-      players[currentPlayer].setPassed(false);
-      nextPlayer();
-
-    } else {
-      this.modelRequestDisplayMessage("Cannot perform move at given coordinates.");
-      throw new IllegalArgumentException("Cannot perform move at given coordinates.");
-    }
-    this.gameOver();
-    if (isGameOver) {
-      this.modelRequestDisplayMessage("Game Over");
-    }
-  }
-
-  @Override
-  public int isLegalMove(Coordinate c, String state) {
-    if (this.checkOutOfBounds(c)) {
-      return 0;
-    }
-    if (!(getStateAt(c).equals(TileState.empty.toString()))) {
-      return 0;
-    }
-    return checkDirection(c, 1, 0, state) + checkDirection(c, 0, 1, state)
-            + checkDirection(c, -1, 0, state) + checkDirection(c, 0, -1, state)
-            + checkDirection(c, 1, -1, state) + checkDirection(c, -1, 1, state)
-            + checkDirection(c, 1, 1, state) + checkDirection(c, -1, -1, state);
+  protected BoardTopology layoutTopology(int boardSize) {
+    return BoardTopology.square(boardSize);
   }
 
   @Override
@@ -124,4 +60,8 @@ public class SquareReversiModel extends AReversiModel {
     return new Coordinate(i1, i2);
   }
 
+  @Override
+  protected AReversiModel newModel(IPlayer[] players, int boardSize) {
+    return new SquareReversiModel(players, boardSize);
+  }
 }
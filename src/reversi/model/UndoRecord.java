@@ -0,0 +1,76 @@
+package reversi.model;
+
+/**
+ * Holds everything needed to take back one move or pass made with
+ * {@link SearchableReversiModel#makeMove} or {@link SearchableReversiModel#makePass}: the cell
+ * played, the cells it flipped, and the turn, pass and score state from before the move. Records
+ * are owned and reused by the model that made them, so a record is only valid until it is undone.
+ */
+public final class UndoRecord {
+
+  // the cell the disc was placed at, or -1 for a pass
+  int cell;
+  // the color code of the player that moved
+  int color;
+  // the cells flipped by the move, the first flipCount entries are used
+  int[] flipped;
+  int flipCount;
+  // the index of the current player before the move
+  int previousPlayer;
+  // the passed flag of each player before the move
+  boolean[] previousPassed;
+  // whether the game was over before the move
+  boolean previousGameOver;
+  // the score of each player before the move
+  int[] previousScores;
+
+  UndoRecord(int cells, int players) {
+    this.flipped = new int[cells];
+    this.previousPassed = new boolean[players];
+    this.previousScores = new int[players];
+  }
+
+  /**
+   * Gives the cell index the disc was placed at.
+   * @return the cell of the move, or -1 if the record is a pass.
+   */
+  public int getCell() {
+    return cell;
+  }
+
+  /**
+   * Gives the color of the player who made the move.
+   * @return the TileState code of the player.
+   */
+  public int getColor() {
+    return color;
+  }
+
+  /**
+   * Returns true if the record is a pass rather than a move.
+   * @return true for a pass.
+   */
+  public boolean isPass() {
+    return cell < 0;
+  }
+
+  /**
+   * Gives the number of discs flipped by the move.
+   * @return the number of flipped discs.
+   */
+  public int getFlipCount() {
+    return flipCount;
+  }
+
+  /**
+   * Gives the cell index of one of the flipped discs.
+   * @param i which flipped disc, from 0 to getFlipCount() - 1.
+   * @return the cell of the flipped disc.
+   */
+  public int getFlipped(int i) {
+    if (i < 0 || i >= flipCount) {
+      throw new IllegalArgumentException("No such flipped disc");
+    }
+    return flipped[i];
+  }
+}
@@ -0,0 +1,52 @@
+package reversi.model;
+
+import java.util.Arrays;
+
+/**
+ * The random keys used to hash Reversi positions. Each (cell, color) pair, the side to move and
+ * the passed flag of each player has its own 64-bit key, and a position hashes to the XOR of the
+ * keys of its parts, so a move only has to XOR in the keys of the tiles it changes. The keys are
+ * generated from a fixed seed, so the same position always has the same hash in every run.
+ */
+final class Zobrist {
+
+  // XORed in when it is white's turn
+  static final long WHITE_TO_MOVE = mix(-2);
+
+  private static long[] cellKeys = new long[0];
+
+  private Zobrist() {
+  }
+
+  /**
+   * Gives the key table for a board with the given number of cells. The key of a disc of color c
+   * at cell i is at index i * 2 + c - 1.
+   *
+   * @param cells the number of cells of the board
+   * @return the shared key table, with at least cells * 2 entries
+   */
+  static synchronized long[] keysFor(int cells) {
+    if (cellKeys.length < cells * 2) {
+      int old = cellKeys.length;
+      cellKeys = Arrays.copyOf(cellKeys, cells * 2);
+      for (int i = old; i < cellKeys.length; i++) {
+        cellKeys[i] = mix(i);
+      }
+    }
+    return cellKeys;
+  }
+
+  // Gives the key for the passed flag of the given player index
+  static long passedKey(int player) {
+    return mix(-3 - player);
+  }
+
+  // the SplitMix64 finalizer, which turns consecutive indices into well spread keys; index -1
+  // maps to 0 so it is never used
+  private static long mix(long i) {
+    long z = (i + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
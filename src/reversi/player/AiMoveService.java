@@ -0,0 +1,198 @@
+package reversi.player;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import reversi.model.Coordinate;
+
+/**
+ * Finds the moves of computer players away from the thread that asks for them, so a search
+ * never freezes the window. Each search runs on one of the service's own threads and has a
+ * deadline; if it has not finished by then it is interrupted and its player is told the search
+ * found no move, so it can play one it finds at once instead. The move is handed back on a
+ * callback executor, by default the Swing event thread, and never sooner than a minimum delay
+ * after it was asked for, so people can follow a game between two computer players. The time
+ * each search takes is kept so it can be watched.
+ */
+public final class AiMoveService {
+
+  private static AiMoveService defaultService;
+
+  private final long deadlineMillis;
+  private final long minDelayMillis;
+  private final Executor callbacks;
+  private final ExecutorService workers;
+  private final ScheduledExecutorService timer;
+
+  private final AtomicLong lastLatency = new AtomicLong();
+  private final AtomicLong maxLatency = new AtomicLong();
+  private final AtomicLong moves = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+
+  /**
+   * Creates a service with its own threads.
+   *
+   * @param threads        the number of searches that can run at once, at least one
+   * @param deadlineMillis the longest a search may take, in milliseconds
+   * @param minDelayMillis the soonest a move is handed back after it is asked for
+   * @param callbacks      runs the code that is handed the moves
+   * @throws IllegalArgumentException if there are no threads, the deadline is not positive, the
+   *                                  delay is negative or there is no callback executor
+   */
+  public AiMoveService(int threads, long deadlineMillis, long minDelayMillis,
+                       Executor callbacks) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search with at least one thread");
+    }
+    if (deadlineMillis <= 0 || minDelayMillis < 0) {
+      throw new IllegalArgumentException("Invalid deadline or delay");
+    }
+    if (callbacks == null) {
+      throw new IllegalArgumentException("Callback executor cannot be null");
+    }
+    this.deadlineMillis = deadlineMillis;
+    this.minDelayMillis = minDelayMillis;
+    this.callbacks = callbacks;
+    this.workers = Executors.newFixedThreadPool(threads, r -> daemon(r, "ai-move"));
+    this.timer = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "ai-move-timer"));
+  }
+
+  /**
+   * Gives the service players use unless they are given another one: two search threads, a
+   * deadline of 30 seconds, moves handed back at least half a second after they are asked for,
+   * on the Swing event thread.
+   *
+   * @return the shared service
+   */
+  public static synchronized AiMoveService getDefault() {
+    if (defaultService == null) {
+      defaultService = new AiMoveService(2, 30_000, 500, SwingUtilities::invokeLater);
+    }
+    return defaultService;
+  }
+
+  /**
+   * Starts a search. When it finishes in time its move is given to onMove on the callback
+   * executor; when it runs past the deadline or fails, onMove is given null instead. Cancelling
+   * the returned future interrupts the search and onMove is never called.
+   *
+   * @param search finds the move
+   * @param onMove is handed the move, or null if there is none
+   * @return the result of the search
+   */
+  public Future<Coordinate> submit(Callable<Coordinate> search, Consumer<Coordinate> onMove) {
+    long start = System.nanoTime();
+    // whichever of the search, the deadline and a cancel completes this first decides what
+    // happens, so a move is handed back at most once
+    CompletableFuture<Coordinate> result = new CompletableFuture<>();
+    Future<?> work = workers.submit(() -> {
+      Coordinate move = null;
+      try {
+        move = search.call();
+      } catch (Exception e) {
+        if (result.completeExceptionally(e)) {
+          callbacks.execute(() -> onMove.accept(null));
+        }
+        return;
+      }
+      if (result.complete(move)) {
+        record(System.nanoTime() - start);
+        deliver(move, onMove, start);
+      }
+    });
+    ScheduledFuture<?> deadline = timer.schedule(() -> {
+      if (result.completeExceptionally(new TimeoutException("No move after "
+              + deadlineMillis + " ms"))) {
+        timeouts.incrementAndGet();
+        callbacks.execute(() -> onMove.accept(null));
+      }
+    }, deadlineMillis, TimeUnit.MILLISECONDS);
+    result.whenComplete((move, failure) -> {
+      deadline.cancel(false);
+      if (failure != null) {
+        work.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Gives how long the last search that finished in time took.
+   *
+   * @return the time in milliseconds
+   */
+  public long getLastLatencyMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(lastLatency.get());
+  }
+
+  /**
+   * Gives how long the slowest search that finished in time took.
+   *
+   * @return the time in milliseconds
+   */
+  public long getMaxLatencyMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
+  }
+
+  /**
+   * Gives the number of searches that finished in time.
+   *
+   * @return the move count
+   */
+  public long getMoveCount() {
+    return moves.get();
+  }
+
+  /**
+   * Gives the number of searches stopped by the deadline.
+   *
+   * @return the timeout count
+   */
+  public long getTimeoutCount() {
+    return timeouts.get();
+  }
+
+  /**
+   * Stops the service's threads, interrupting any searches still running.
+   */
+  public void shutdown() {
+    workers.shutdownNow();
+    timer.shutdownNow();
+  }
+
+  // hands a move back once the minimum delay since it was asked for has passed
+  private void deliver(Coordinate move, Consumer<Coordinate> onMove, long start) {
+    long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (waited >= minDelayMillis) {
+      callbacks.execute(() -> onMove.accept(move));
+    } else {
+      timer.schedule(() -> callbacks.execute(() -> onMove.accept(move)),
+              minDelayMillis - waited, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  // keeps the time a search took
+  private void record(long nanos) {
+    lastLatency.set(nanos);
+    maxLatency.accumulateAndGet(nanos, Math::max);
+    moves.incrementAndGet();
+  }
+
+  private static Thread daemon(Runnable r, String name) {
+    Thread thread = new Thread(r, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
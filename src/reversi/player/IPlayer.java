@@ -1,5 +1,7 @@
 package reversi.player;
 
+import java.util.concurrent.Future;
+
 import reversi.controller.PlayerActions;
 import reversi.model.Coordinate;
 import reversi.player.strategies.Strategy;
@@ -46,12 +48,53 @@ public interface IPlayer {
    */
   Coordinate strategicMove() ;
 
+  /**
+   * Starts finding the "smartest" move on another thread, so the caller is not held up by the
+   * search. When the move is found it is sent to the Player's features, as strategicMove does.
+   * If the search runs out of time or fails, the strategy's quickMove is sent instead: a legal
+   * move found without searching, which is only a pass if the Player has no legal move or the
+   * strategy cannot give one. Asking again cancels a search still running.
+   * @return the move being found, completed at once with (0, 0) if the Player has no strategy.
+   */
+  Future<Coordinate> strategicMoveAsync();
+
+  /**
+   * Cancels the move being found, if any, so it is never sent. Used when the game has moved on
+   * from the position the move was asked for.
+   */
+  void cancelMove();
+
+  /**
+   * Turns pondering on or off. While it is on, the Player's strategy thinks about its next move
+   * during the opponent's turn. Turning it off stops any pondering.
+   * @param pondering true to ponder.
+   */
+  void setPondering(boolean pondering);
+
+  /**
+   * Starts pondering during the opponent's turn, if pondering is on.
+   */
+  void ponder();
+
+  /**
+   * Stops any pondering, for when the game is over.
+   */
+  void stopPondering();
+
   /**
    * Sets a Player's current Strategy.
    * @param strat the strategy the user wants to set.
    */
   void setStrat(Strategy strat);
 
+  /**
+   * Sets how many threads the Player's strategy may use to find a move. The count is kept when
+   * the strategy is changed.
+   * @param threads the number of threads, at least one.
+   * @throws IllegalArgumentException if the number of threads is less than one.
+   */
+  void setThreads(int threads);
+
   void addFeatures(PlayerActions features);
 
 
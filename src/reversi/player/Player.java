@@ -1,5 +1,8 @@
 package reversi.player;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
 import reversi.controller.PlayerActions;
 import reversi.model.Coordinate;
 import reversi.player.strategies.Strategy;
@@ -16,6 +19,12 @@ public class Player implements IPlayer {
   private boolean passedLastTurn;
   private PlayerActions features;
   private Strategy strat;
+  private int threads;
+  private AiMoveService service;
+  // the move being found, and a count of requests so a move found for an old one is dropped
+  private Future<Coordinate> pending;
+  private int request;
+  private boolean pondering;
 
   /**
    * Constructor for a Player.
@@ -26,6 +35,7 @@ public class Player implements IPlayer {
     this.score = 0;
     this.passedLastTurn = false;
     this.strat = null;
+    this.threads = 1;
   }
 
 
@@ -62,29 +72,116 @@ public class Player implements IPlayer {
   @Override
   public Coordinate strategicMove() {
     if (strat != null) {
-      try {
-        Thread.sleep(500);
-      } catch (InterruptedException ignored) {
-      }
       Coordinate c = this.strat.bestMove(this.getState());
-      if (c.q == -1 && c.r == -1) {
-        if (features != null) {
-          features.requestPass();
+      sendMove(c);
+      return c;
+    } else {
+      return new Coordinate(0, 0);
+    }
+  }
+
+  // Finds the move on the AI service and sends it when it is ready, unless it was cancelled
+  // or another move was asked for first.
+  @Override
+  public synchronized Future<Coordinate> strategicMoveAsync() {
+    cancelMove();
+    if (strat == null) {
+      return CompletableFuture.completedFuture(new Coordinate(0, 0));
+    }
+    int ticket = request;
+    Strategy search = strat;
+    String player = getState();
+    pending = getService().submit(() -> search.bestMove(player), c -> {
+      synchronized (this) {
+        if (ticket != request) {
+          return;
         }
+        pending = null;
       }
+      // a search that ran out of time or failed has no move, so the player plays one that can be
+      // found at once, and only passes if there is none
+      sendMove(c == null ? search.quickMove(player) : c);
+    });
+    return pending;
+  }
+
+  @Override
+  public synchronized void cancelMove() {
+    request++;
+    if (pending != null) {
+      pending.cancel(true);
+      pending = null;
+    }
+  }
+
+  @Override
+  public void setPondering(boolean pondering) {
+    this.pondering = pondering;
+    if (!pondering) {
+      stopPondering();
+    }
+  }
+
+  @Override
+  public void ponder() {
+    if (pondering && strat != null) {
+      strat.ponder(getState());
+    }
+  }
+
+  @Override
+  public void stopPondering() {
+    if (strat != null) {
+      strat.stopPondering();
+    }
+  }
+
+  /**
+   * Sets the service this player's moves are found on.
+   * @param service the service, or null for the shared default one.
+   */
+  public synchronized void setService(AiMoveService service) {
+    this.service = service;
+  }
+
+  // the service moves are found on, the shared one unless another was set
+  private synchronized AiMoveService getService() {
+    return service == null ? AiMoveService.getDefault() : service;
+  }
+
+  // Tells the controller about a move, or a pass if there is no move.
+  private void sendMove(Coordinate c) {
+    if (c.q == -1 && c.r == -1) {
       if (features != null) {
-        features.requestDoMove(c);
+        features.requestPass();
       }
-      return c;
-    } else {
-      return new Coordinate(0, 0);
+    }
+    if (features != null) {
+      features.requestDoMove(c);
     }
   }
 
 
   @Override
   public void setStrat(Strategy strat) {
+    if (this.strat != null) {
+      this.strat.stopPondering();
+    }
     this.strat = strat;
+    if (strat != null) {
+      strat.setThreads(threads);
+    }
+  }
+
+  @Override
+  public void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search with at least one thread");
+    }
+    this.threads = threads;
+    if (strat != null) {
+      strat.setThreads(threads);
+    }
   }
 
   @Override
@@ -1,8 +1,60 @@
 package reversi.player;
 
 /**
- * An enumeration representing the state of a Reversi Tile for a two player game.
+ * An enumeration representing the state of a Reversi Tile for a two player game. Each state also
+ * has a byte code equal to its ordinal, which the primitive model methods use in place of the
+ * String names.
  */
 public enum TileState {
-  empty, black, white
+  empty, black, white;
+
+  public static final byte EMPTY = 0;
+  public static final byte BLACK = 1;
+  public static final byte WHITE = 2;
+
+  private static final TileState[] STATES = values();
+
+  /**
+   * Gives the TileState with the given byte code.
+   * @param code the code of the state, its ordinal.
+   * @return the TileState with that code.
+   * @throws IllegalArgumentException if the code is not a state.
+   */
+  public static TileState fromCode(int code) {
+    if (code < 0 || code >= STATES.length) {
+      throw new IllegalArgumentException("setting an invalid state");
+    }
+    return STATES[code];
+  }
+
+  /**
+   * Gives the byte code of the state with the given name, or -1 if there is none. Unlike valueOf
+   * this does not throw for unknown names.
+   * @param state the name of the state.
+   * @return the code of the state.
+   */
+  public static int codeOf(String state) {
+    if (state == null) {
+      return -1;
+    }
+    switch (state) {
+      case "empty":
+        return EMPTY;
+      case "black":
+        return BLACK;
+      case "white":
+        return WHITE;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Gives the color of the opponent of the given player color.
+   * @param color the code of a player color, BLACK or WHITE.
+   * @return the code of the other player color.
+   */
+  public static int opposite(int color) {
+    return BLACK + WHITE - color;
+  }
 }
@@ -1,10 +1,12 @@
 package reversi.player.strategies;
 
 import java.util.ArrayList;
-import java.util.List;
 
+import reversi.model.BoardTopology;
 import reversi.model.Coordinate;
+import reversi.model.MoveList;
 import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
 
 
 /**
@@ -14,27 +16,63 @@ public abstract class AStrategy implements Strategy {
 
   ReadonlyReversiModel model;
   String type;
+  // the moves of the last decision, reused so finding moves does not allocate
+  protected final MoveList moveBuffer = new MoveList();
 
   public AStrategy(ReadonlyReversiModel model, String type) {
     this.model = model;
     this.type = type;
   }
 
-  public abstract int[] moveValues(String player);
+  // Finds the player's moves and their flip counts once and values them. The move buffer is
+  // shared, so one decision is made at a time.
+  @Override
+  public synchronized int[] moveValues(String player) {
+    model.generateMoves(TileState.codeOf(player), moveBuffer);
+    return moveValues(player, moveBuffer);
+  }
+
+  @Override
+  public abstract int[] moveValues(String player, MoveList moves);
 
   // Best Move finds the move with the highest value, as determined by the moveValue methods in
-  // the subclasses.
+  // the subclasses. Like moveValues, it makes one decision at a time.
   @Override
-  public Coordinate bestMove(String player) {
+  public synchronized Coordinate bestMove(String player) {
     int[] values = moveValues(player);
+    double[] scores = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      scores[i] = values[i];
+    }
+    return bestOf(scores, moveBuffer);
+  }
+
+  // Gives the first legal move. It uses a list of its own, as the search it stands in for may
+  // still be using the move buffer.
+  @Override
+  public Coordinate quickMove(String player) {
+    MoveList moves = new MoveList();
+    if (model.generateMoves(TileState.codeOf(player), moves) == 0) {
+      return new Coordinate(-1, -1);
+    }
+    return model.getTopology().coordOf(moves.getCell(0));
+  }
+
+  /**
+   * Finds the move with the highest value, with ties won by the upper-left coordinate.
+   * @param values the value of each move.
+   * @param moves the moves the values are for, in the same order.
+   * @return the coordinate of the best move, or -1, -1 if there are no moves.
+   */
+  protected Coordinate bestOf(double[] values, MoveList moves) {
     if (values.length == 0) {
       return new Coordinate(-1, -1);
     }
-    int highest = values[0];
-    List<Coordinate> moves = model.allValidMoves(player);
-    Coordinate best = moves.get(0);
+    BoardTopology topology = model.getTopology();
+    double highest = values[0];
+    Coordinate best = topology.coordOf(moves.getCell(0));
     for (int i = 0; i < values.length; i++) {
-      Coordinate current = moves.get(i);
+      Coordinate current = topology.coordOf(moves.getCell(i));
       if (values[i] >= highest) {
         if (values[i] > highest) {
           highest = values[i];
@@ -60,22 +98,10 @@ public abstract class AStrategy implements Strategy {
    * @return the list of corners in the board.
    */
   protected ArrayList<Coordinate> getCorners() {
-    int x = model.getSize() - 1;
+    BoardTopology topology = model.getTopology();
     ArrayList<Coordinate> corners = new ArrayList<>();
-    if (type.equals("square")) {
-      for (int i = 0; i < 2; i++) {
-        for (int j = 0; j < 2; j++) {
-          corners.add(new Coordinate(i * x, j * x));
-        }
-      }
-    } else {
-      for (int i = 0; i < 3; i++) {
-        for (int j = 0; j < 3; j++) {
-          if (i != j) {
-            corners.add(new Coordinate(i * x, j * x));
-          }
-        }
-      }
+    for (int cell : topology.getCorners()) {
+      corners.add(topology.coordOf(cell));
     }
     return corners;
   }
@@ -0,0 +1,767 @@
+package reversi.player.strategies;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reversi.model.Coordinate;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.model.UndoRecord;
+import reversi.player.TileState;
+
+/**
+ * AlphaBetaStrategy looks ahead instead of scoring moves one ply deep. It runs a negamax
+ * alpha-beta search with principal variation search on a copy of the game, deepening one ply at
+ * a time until its time or node budget runs out, and plays the best move of the deepest search
+ * that finished. From the third ply on, each search starts with a narrow aspiration window around
+ * the previous score and only widens it when the score falls outside. Positions are scored by an
+ * {@link Evaluator}, and finished games by their disc difference, so it works the same on hex and
+ * square boards. Results are kept in a {@link TranspositionTable}, so positions reached again by
+ * a different move order, or again in a later iteration or move, are not searched twice, and the
+ * best move found for a position last time is tried first, followed by the rest in the order a
+ * {@link MoveOrdering} gives. Given more than one thread, it runs a Lazy SMP search: helper
+ * threads search the same position on their own copies and share the table with the main
+ * search, which gets deeper in the same time as a result.
+ *
+ * <p>It can also ponder: think on the opponent's time. While the opponent is to move it
+ * searches the position after the reply the table predicts, with no time limit, on a thread of
+ * its own. If the opponent plays that reply and the pondering has already used up a move's
+ * budget, the move is played at once; otherwise the search starts with the table full of what
+ * the pondering found. With no predicted reply it searches the opponent's position instead,
+ * which fills the table for every reply.
+ */
+public class AlphaBetaStrategy extends AStrategy {
+
+  /**
+   * The score of a won game, before the final disc difference is added. Evaluations stay far
+   * below this.
+   */
+  public static final int WIN = 1_000_000;
+
+  private static final int INFINITY = WIN * 2;
+  // half the width of the first aspiration window, in evaluation units
+  private static final int ASPIRATION = 40;
+  // the budget is checked every this many nodes, a power of two
+  private static final int CHECK_INTERVAL = 1024;
+  // the size of the table used when none is given, in megabytes
+  private static final int TABLE_MEGABYTES = 16;
+
+  private final long moveTimeMillis;
+  private final long maxNodes;
+  private final int maxDepth;
+  private final Evaluator evaluator;
+  private final TranspositionTable table;
+
+  // the number of threads that search each move and their search states
+  private int threads = 1;
+  private Search[] searches;
+  private volatile ExecutorService pool;
+
+  // shared by the threads of the search in progress
+  private volatile long deadline;
+  private long nodeLimit;
+  private volatile boolean stopped;
+  private final AtomicLong sharedNodes = new AtomicLong();
+
+  // the pondering in progress, which stops when ponderStop is set, and what it found
+  private ExecutorService ponderThread;
+  private Future<?> ponderTask;
+  private volatile boolean ponderStop;
+  private Ponder ponder;
+  private long ponderHits;
+
+  // what the last search found
+  private int lastDepth;
+  private long lastNodes;
+  private int lastScore;
+
+  /**
+   * Creates a search that thinks for up to one second per move.
+   *
+   * @param model the model the strategy plays on.
+   * @param type  the type of board.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, String type) {
+    this(model, type, 1000, 0, 64, new PositionalEvaluator());
+  }
+
+  /**
+   * Creates a search with the given budget for each move. The search always finishes at least one
+   * ply, even if the budget runs out first.
+   *
+   * @param model          the model the strategy plays on.
+   * @param type           the type of board.
+   * @param moveTimeMillis the wall-clock time to think for, or 0 for no time limit.
+   * @param maxNodes       the number of positions to search, or 0 for no node limit.
+   * @param maxDepth       the deepest search to try, in plies.
+   * @param evaluator      scores the positions at the end of the search.
+   * @throws IllegalArgumentException if a limit is negative or the depth is less than one.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, String type, long moveTimeMillis,
+                           long maxNodes, int maxDepth, Evaluator evaluator) {
+    this(model, type, moveTimeMillis, maxNodes, maxDepth, evaluator,
+            new TranspositionTable(TABLE_MEGABYTES));
+  }
+
+  /**
+   * Creates a search with the given budget for each move that keeps its results in the given
+   * table. A table can be shared by several searches to bound the memory they use together.
+   *
+   * @param model          the model the strategy plays on.
+   * @param type           the type of board.
+   * @param moveTimeMillis the wall-clock time to think for, or 0 for no time limit.
+   * @param maxNodes       the number of positions to search, or 0 for no node limit.
+   * @param maxDepth       the deepest search to try, in plies.
+   * @param evaluator      scores the positions at the end of the search.
+   * @param table          keeps the results of the search.
+   * @throws IllegalArgumentException if a limit is negative, the depth is less than one or the
+   *                                  evaluator or table is null.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, String type, long moveTimeMillis,
+                           long maxNodes, int maxDepth, Evaluator evaluator,
+                           TranspositionTable table) {
+    super(model, type);
+    if (moveTimeMillis < 0 || maxNodes < 0 || maxDepth < 1) {
+      throw new IllegalArgumentException("Invalid search limits");
+    }
+    if (evaluator == null) {
+      throw new IllegalArgumentException("Evaluator cannot be null");
+    }
+    if (table == null) {
+      throw new IllegalArgumentException("Table cannot be null");
+    }
+    this.moveTimeMillis = moveTimeMillis;
+    this.maxNodes = maxNodes;
+    this.maxDepth = maxDepth;
+    this.evaluator = evaluator;
+    this.table = table;
+  }
+
+  // Searches the given moves and gives each its score from the deepest finished search. The best
+  // move's score is exact and the rest are upper bounds kept below it, so the best move is always
+  // the one with the highest value. If it is not the player's turn the moves are valued by how
+  // many discs they flip. Only one search runs at a time, so a search that was stopped by an
+  // interrupt has ended before the next one starts.
+  @Override
+  public synchronized int[] moveValues(String player, MoveList moves) {
+    int[] values = new int[moves.size()];
+    if (moves.isEmpty()) {
+      return values;
+    }
+    if (model.getCurrentColor() != TileState.codeOf(player)) {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = moves.getFlips(i);
+      }
+      return values;
+    }
+    if (!(model instanceof SearchableReversiModel)) {
+      throw new IllegalArgumentException("The model cannot be searched");
+    }
+    Ponder pondered = stopPonderingAndGet();
+    if (pondered != null && pondered.hash == model.getPositionHash() && pondered.covers()) {
+      // a ponder hit: the opponent played the predicted reply and the move is already searched
+      for (int i = 0; i < values.length; i++) {
+        values[i] = pondered.valueOf(moves.getCell(i));
+      }
+      lastScore = pondered.score;
+      lastDepth = pondered.depth;
+      lastNodes = pondered.nodes;
+      ponderHits++;
+      return values;
+    }
+    search(((SearchableReversiModel) model).copyForSearch(), moves, values, moveTimeMillis,
+            maxNodes);
+    return values;
+  }
+
+  // Gives the move the table holds for the position, the best one of the deepest search that
+  // finished so far, or else the first legal move. It is not synchronized, as it is asked for
+  // while a search that ran out of time may still be stopping. It only reads the model, which
+  // the search never changes, and the table, which is safe to read during a search.
+  @Override
+  public Coordinate quickMove(String player) {
+    int color = TileState.codeOf(player);
+    if (model.getCurrentColor() == color) {
+      long entry = table.probe(model.getPositionHash());
+      int cell = entry == 0 ? -1 : TranspositionTable.moveOf(entry);
+      if (cell >= 0 && model.isLegalMove(cell, color) > 0) {
+        return model.getTopology().coordOf(cell);
+      }
+    }
+    return super.quickMove(player);
+  }
+
+  // Starts searching on the opponent's time. Nothing happens unless the opponent is to move and
+  // has a move.
+  @Override
+  public synchronized void ponder(String player) {
+    stopPonderingAndGet();
+    int color = TileState.codeOf(player);
+    if (!(model instanceof SearchableReversiModel) || model.getGameOver()
+            || model.getCurrentColor() != TileState.opposite(color)) {
+      return;
+    }
+    SearchableReversiModel copy = ((SearchableReversiModel) model).copyForSearch();
+    MoveList replies = new MoveList();
+    if (copy.generateMoves(copy.getCurrentColor(), replies) == 0) {
+      return;
+    }
+    // the reply the last search expected, if the table still has it and it is legal
+    long entry = table.probe(copy.getPositionHash());
+    int predicted = entry == 0 ? -1 : TranspositionTable.moveOf(entry);
+    boolean predictedLegal = false;
+    for (int i = 0; i < replies.size(); i++) {
+      predictedLegal |= replies.getCell(i) == predicted;
+    }
+    MoveList moves = replies;
+    if (predictedLegal) {
+      copy.makeMove(predicted);
+      moves = new MoveList();
+      if (copy.generateMoves(color, moves) == 0) {
+        return;
+      }
+    }
+    Ponder next = new Ponder(copy.getPositionHash(), moves, predictedLegal);
+    ponderStop = false;
+    if (ponderThread == null) {
+      ponderThread = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "alpha-beta-ponder");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    // made here so the ponder thread never waits for the lock that stopping it holds
+    if (threads > 1) {
+      pool();
+    }
+    ponderTask = ponderThread.submit(() -> {
+      long start = System.nanoTime();
+      int[] values = new int[next.moves.size()];
+      search(copy, next.moves, values, 0, 0);
+      next.finish(values, ponderStop, System.nanoTime() - start);
+    });
+    ponder = next;
+  }
+
+  // Stops the pondering and waits for it, so the search it used is free again.
+  @Override
+  public void stopPondering() {
+    stopPonderingAndGet();
+  }
+
+  /**
+   * Returns true while a pondering search is still running. A pondering search with no time or
+   * node limit only ends by itself once it reaches the maximum depth.
+   *
+   * @return true if pondering is in progress
+   */
+  public synchronized boolean isPondering() {
+    return ponderTask != null && !ponderTask.isDone();
+  }
+
+  /**
+   * Gives the number of moves that were played straight from pondering.
+   *
+   * @return the ponder hit count
+   */
+  public long getPonderHits() {
+    return ponderHits;
+  }
+
+  // stops the pondering and gives what it found, or null if it found nothing that can be played
+  private synchronized Ponder stopPonderingAndGet() {
+    if (ponderTask == null) {
+      return null;
+    }
+    ponderStop = true;
+    boolean interrupted = false;
+    while (true) {
+      try {
+        ponderTask.get();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Pondering failed", e.getCause());
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    ponderTask = null;
+    ponderStop = false;
+    Ponder found = ponder;
+    ponder = null;
+    return found.predicted && found.depth > 0 ? found : null;
+  }
+
+  // Lets the search use the given number of threads for each move. A new pool of helper threads
+  // is made the next time more than one is needed.
+  @Override
+  public synchronized void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search with at least one thread");
+    }
+    stopPonderingAndGet();
+    if (threads != this.threads && pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Gives the number of threads that search each move.
+   *
+   * @return the thread count
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Gives the depth of the deepest search that finished during the last move.
+   *
+   * @return the depth in plies
+   */
+  public int getLastDepth() {
+    return lastDepth;
+  }
+
+  /**
+   * Gives the number of positions visited during the last move.
+   *
+   * @return the node count
+   */
+  public long getLastNodes() {
+    return lastNodes;
+  }
+
+  /**
+   * Gives the score of the best move of the last search, from the point of view of the player
+   * who moved. Scores beyond WIN / 2 in size are won or lost games.
+   *
+   * @return the score of the last search
+   */
+  public int getLastScore() {
+    return lastScore;
+  }
+
+  // runs the search on a copy of the game and fills in the root values. With more than one
+  // thread, helpers search their own copies at the same time and share what they find through
+  // the table, so the main search finds more cutoffs and goes deeper in the same time.
+  private void search(SearchableReversiModel copy, MoveList moves, int[] values, long timeMillis,
+                      long nodes) {
+    if (searches == null || searches.length != threads) {
+      searches = new Search[threads];
+      for (int i = 0; i < threads; i++) {
+        searches[i] = new Search(i);
+      }
+    }
+    deadline = timeMillis == 0 ? Long.MAX_VALUE : System.nanoTime() + timeMillis * 1_000_000L;
+    nodeLimit = nodes;
+    stopped = false;
+    sharedNodes.set(0);
+    table.newSearch();
+
+    Future<?>[] helpers = new Future<?>[threads - 1];
+    for (int i = 1; i < threads; i++) {
+      Search helper = searches[i];
+      helper.start(copy.copyForSearch(), moves.size());
+      helpers[i - 1] = pool().submit(() -> helper.iterate(moves, helper.values));
+    }
+    Search main = searches[0];
+    main.start(copy, moves.size());
+    int score;
+    try {
+      score = main.iterate(moves, values);
+    } finally {
+      stopped = true;
+      if (!HelperSearches.await(pool, helpers)) {
+        pool = null;
+      }
+    }
+    lastScore = score;
+    lastDepth = main.completedDepth;
+    lastNodes = sharedNodes.get();
+  }
+
+  // the pool the helper searches run on, made the first time it is needed. Only takes the lock
+  // to make it, as a pondering search asks for it while stopping the pondering holds the lock.
+  private ExecutorService pool() {
+    ExecutorService current = pool;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (pool == null) {
+        pool = Executors.newFixedThreadPool(threads - 1, r -> {
+          Thread thread = new Thread(r, "alpha-beta-helper");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+      return pool;
+    }
+  }
+
+  // the score of a finished game for the given player: a win or loss, plus the disc difference
+  private static int finalScore(SearchableReversiModel board, int color) {
+    int diff = board.getScore(color) - board.getScore(TileState.opposite(color));
+    if (diff > 0) {
+      return WIN + diff;
+    } else if (diff < 0) {
+      return -WIN + diff;
+    }
+    return 0;
+  }
+
+  // The state of one thread's search: its copy of the game, its move buffers for each ply and
+  // its node count. Search 0 is the main search, whose results are played. The others are
+  // helpers that start at different depths and try the root moves in a different order, so
+  // they fill the table with positions the main search has not reached yet.
+  private final class Search {
+    private final int id;
+    private final Evaluator evaluator;
+    private final MoveOrdering ordering = new MoveOrdering();
+    private SearchableReversiModel board;
+    private MoveList[] plyMoves;
+    private int[][] plyOrder;
+    private int[][] plyKeys;
+    private int[] values;
+    private long nodes;
+    private boolean aborted;
+    private int iterationBest;
+    private int completedDepth;
+
+    private Search(int id) {
+      this.id = id;
+      this.evaluator = id == 0 ? AlphaBetaStrategy.this.evaluator
+              : AlphaBetaStrategy.this.evaluator.copy();
+    }
+
+    // gets ready to search the given copy of the game
+    private void start(SearchableReversiModel copy, int rootMoves) {
+      board = copy;
+      ordering.reset(copy.getTopology());
+      ordering.newSearch();
+      int maxPly = board.getCellCount() * 2 + 2;
+      if (plyMoves == null || plyMoves.length < maxPly) {
+        plyMoves = new MoveList[maxPly];
+        plyOrder = new int[maxPly][];
+        plyKeys = new int[maxPly][];
+        for (int i = 0; i < maxPly; i++) {
+          plyMoves[i] = new MoveList();
+          plyOrder[i] = new int[0];
+          plyKeys[i] = new int[0];
+        }
+      }
+      if (values == null || values.length < rootMoves) {
+        values = new int[rootMoves];
+      }
+      nodes = 0;
+      aborted = false;
+      completedDepth = 0;
+    }
+
+    // the iterative deepening loop, returning the score of the deepest finished search
+    private int iterate(MoveList moves, int[] values) {
+      int n = moves.size();
+      int[] order = new int[n];
+      int[] keys = new int[n];
+      for (int i = 0; i < n; i++) {
+        order[i] = i;
+        keys[i] = ordering.staticKey(moves.getCell(i), moves.getFlips(i));
+      }
+      sortByKeys(order, keys, n);
+      if (id > 0) {
+        rotate(order, id % n);
+      }
+      int[] scores = new int[n];
+      int score = 0;
+      int empties = board.getScore(TileState.EMPTY);
+      for (int depth = 1 + (id & 1); depth <= maxDepth; depth++) {
+        int delta = ASPIRATION;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        if (depth >= 3 && Math.abs(score) < WIN / 2) {
+          alpha = score - delta;
+          beta = score + delta;
+        }
+        int result;
+        while (true) {
+          result = searchRoot(depth, alpha, beta, moves, order, scores);
+          if (aborted) {
+            break;
+          }
+          if (result <= alpha && alpha > -INFINITY) {
+            delta *= 2;
+            alpha = delta > WIN ? -INFINITY : Math.max(-INFINITY, result - delta);
+          } else if (result >= beta && beta < INFINITY) {
+            delta *= 2;
+            beta = delta > WIN ? INFINITY : Math.min(INFINITY, result + delta);
+          } else {
+            break;
+          }
+        }
+        if (aborted) {
+          break;
+        }
+        score = result;
+        completedDepth = depth;
+        for (int i = 0; i < n; i++) {
+          values[i] = i == iterationBest ? score : Math.min(scores[i], score - 1);
+          keys[i] = values[i];
+        }
+        sortByKeys(order, keys, n);
+        // once every line reaches the end of the game a deeper search finds nothing new
+        if (depth >= empties || Math.abs(score) >= WIN / 2) {
+          break;
+        }
+      }
+      sharedNodes.addAndGet(nodes & (CHECK_INTERVAL - 1));
+      board = null;
+      return score;
+    }
+
+    // searches every root move with a principal variation search and returns the best score,
+    // recording the score of each move and the index of the best one
+    private int searchRoot(int depth, int alpha, int beta, MoveList moves, int[] order,
+                           int[] scores) {
+      int best = -INFINITY;
+      boolean first = true;
+      iterationBest = order[0];
+      for (int k = 0; k < order.length; k++) {
+        int i = order[k];
+        scores[i] = -INFINITY;
+        UndoRecord record = board.makeMove(moves.getCell(i));
+        if (record == null) {
+          continue;
+        }
+        int a = Math.max(alpha, best);
+        int s;
+        if (first) {
+          s = -negamax(depth - 1, -beta, -a, 1);
+        } else {
+          s = -negamax(depth - 1, -a - 1, -a, 1);
+          if (s > a && s < beta) {
+            s = -negamax(depth - 1, -beta, -s, 1);
+          }
+        }
+        board.unmakeMove(record);
+        if (aborted) {
+          return best;
+        }
+        first = false;
+        scores[i] = s;
+        if (s > best) {
+          best = s;
+          iterationBest = i;
+        }
+        if (best >= beta) {
+          for (int rest = k + 1; rest < order.length; rest++) {
+            scores[order[rest]] = -INFINITY;
+          }
+          break;
+        }
+      }
+      return best;
+    }
+
+    // the fail-soft negamax search, returning the value of the position for the player to move
+    private int negamax(int depth, int alpha, int beta, int ply) {
+      nodes++;
+      if ((nodes & (CHECK_INTERVAL - 1)) == 0 && shouldStop()) {
+        aborted = true;
+      }
+      if (aborted) {
+        return 0;
+      }
+      int color = board.getCurrentColor();
+      if (board.getGameOver()) {
+        return finalScore(board, color);
+      }
+      if (depth <= 0) {
+        return evaluator.evaluate(board, color);
+      }
+      long hash = board.getPositionHash();
+      long entry = table.probe(hash);
+      int tableMove = -1;
+      if (entry != 0) {
+        tableMove = TranspositionTable.moveOf(entry);
+        if (TranspositionTable.depthOf(entry) >= depth) {
+          int stored = TranspositionTable.scoreOf(entry);
+          int bound = TranspositionTable.boundOf(entry);
+          if (bound == TranspositionTable.EXACT
+                  || (bound == TranspositionTable.LOWER && stored >= beta)
+                  || (bound == TranspositionTable.UPPER && stored <= alpha)) {
+            return stored;
+          }
+        }
+      }
+      MoveList moves = plyMoves[ply];
+      int n = board.generateMoves(color, moves);
+      if (n == 0) {
+        if (!board.hasAnyValidMove(TileState.opposite(color))) {
+          return finalScore(board, color);
+        }
+        UndoRecord pass = board.makePass();
+        if (pass == null) {
+          return finalScore(board, color);
+        }
+        // a pass does not use up depth, the opponent is sure to have a move next
+        int s = -negamax(depth, -beta, -alpha, ply + 1);
+        board.unmakeMove(pass);
+        return s;
+      }
+      if (plyOrder[ply].length < n) {
+        plyOrder[ply] = new int[n * 2];
+        plyKeys[ply] = new int[n * 2];
+      }
+      int[] order = plyOrder[ply];
+      int[] keys = plyKeys[ply];
+      for (int i = 0; i < n; i++) {
+        order[i] = i;
+      }
+      ordering.score(moves, color, ply, tableMove, keys);
+      int best = -INFINITY;
+      int bestCell = -1;
+      for (int k = 0; k < n; k++) {
+        pickNext(order, keys, k, n);
+        UndoRecord record = board.makeMove(moves.getCell(order[k]));
+        int a = Math.max(alpha, best);
+        int s;
+        if (k == 0) {
+          s = -negamax(depth - 1, -beta, -a, ply + 1);
+        } else {
+          s = -negamax(depth - 1, -a - 1, -a, ply + 1);
+          if (s > a && s < beta) {
+            s = -negamax(depth - 1, -beta, -s, ply + 1);
+          }
+        }
+        board.unmakeMove(record);
+        if (aborted) {
+          return 0;
+        }
+        if (s > best) {
+          best = s;
+          bestCell = moves.getCell(order[k]);
+          if (best >= beta) {
+            ordering.cutoff(bestCell, color, ply, depth);
+            break;
+          }
+        }
+      }
+      int bound = best >= beta ? TranspositionTable.LOWER
+              : best <= alpha ? TranspositionTable.UPPER : TranspositionTable.EXACT;
+      table.store(hash, depth, bound, best, bound == TranspositionTable.UPPER ? -1 : bestCell);
+      return best;
+    }
+
+    // adds this search's nodes to the shared count and returns true once it should stop: any
+    // search at once when its thread is interrupted, the main search once the budget is used up,
+    // as long as it has finished one ply, and the helpers as soon as the main search is done
+    private boolean shouldStop() {
+      long total = sharedNodes.addAndGet(CHECK_INTERVAL);
+      if (ponderStop || Thread.currentThread().isInterrupted()) {
+        return true;
+      }
+      if (id > 0) {
+        return stopped || (nodeLimit > 0 && total >= nodeLimit) || System.nanoTime() > deadline;
+      }
+      return completedDepth > 0
+              && ((nodeLimit > 0 && total >= nodeLimit) || System.nanoTime() > deadline);
+    }
+  }
+
+  // What a pondering search found: the position it searched, the moves there and their values,
+  // and whether it ran until its search was done or was stopped. Written by the ponder thread
+  // and read once it has been waited for.
+  private final class Ponder {
+    private final long hash;
+    private final MoveList moves;
+    private final boolean predicted;
+    private int[] values;
+    private boolean finished;
+    private long millis;
+    private int score;
+    private int depth;
+    private long nodes;
+
+    private Ponder(long hash, MoveList moves, boolean predicted) {
+      this.hash = hash;
+      this.moves = moves;
+      this.predicted = predicted;
+    }
+
+    // keeps the results of the search that just ended
+    private void finish(int[] values, boolean stopped, long nanos) {
+      this.values = values;
+      this.finished = !stopped;
+      this.millis = nanos / 1_000_000L;
+      this.score = lastScore;
+      this.depth = lastDepth;
+      this.nodes = lastNodes;
+    }
+
+    // true if the pondering did at least as much as a search of the move would
+    private boolean covers() {
+      if (finished) {
+        return true;
+      }
+      if (moveTimeMillis == 0 && maxNodes == 0) {
+        return false;
+      }
+      return (moveTimeMillis == 0 || millis >= moveTimeMillis)
+              && (maxNodes == 0 || nodes >= maxNodes);
+    }
+
+    // the value of the move to the given cell
+    private int valueOf(int cell) {
+      for (int i = 0; i < moves.size(); i++) {
+        if (moves.getCell(i) == cell) {
+          return values[i];
+        }
+      }
+      throw new IllegalStateException("The pondered position has no move to " + cell);
+    }
+  }
+
+  // moves the entry with the highest key among positions k to n - 1 to position k
+  private static void pickNext(int[] order, int[] keys, int k, int n) {
+    int best = k;
+    for (int i = k + 1; i < n; i++) {
+      if (keys[order[i]] > keys[order[best]]) {
+        best = i;
+      }
+    }
+    int tmp = order[k];
+    order[k] = order[best];
+    order[best] = tmp;
+  }
+
+  // moves the first k entries of order to its end, keeping the rest in order
+  private static void rotate(int[] order, int k) {
+    int[] copy = order.clone();
+    for (int i = 0; i < order.length; i++) {
+      order[i] = copy[(i + k) % order.length];
+    }
+  }
+
+  // sorts the first n entries of order by their keys, highest first, keeping ties in order
+  private static void sortByKeys(int[] order, int[] keys, int n) {
+    for (int i = 1; i < n; i++) {
+      int cur = order[i];
+      int j = i - 1;
+      while (j >= 0 && keys[order[j]] < keys[cur]) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = cur;
+    }
+  }
+}
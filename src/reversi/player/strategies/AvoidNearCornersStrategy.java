@@ -1,9 +1,7 @@
 package reversi.player.strategies;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import reversi.model.Coordinate;
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
 import reversi.model.ReadonlyReversiModel;
 import reversi.player.strategies.AStrategy;
 
@@ -22,23 +20,23 @@ public class AvoidNearCornersStrategy extends AStrategy {
 
   // Asssigns values to each move, Coordinates that are adjacent to a corner receive a -2 score.
   @Override
-  public int[] moveValues(String player) {
-    List<Coordinate> moves = model.allValidMoves(player);
+  public int[] moveValues(String player, MoveList moves) {
     int[] values = new int[moves.size()];
-    ArrayList<Coordinate> corners = this.getCorners();
+    BoardTopology topology = model.getTopology();
     // gets the array of values. A corner adjacent tile receives a -2 score. Other tiles are 0.
     for (int i = 0; i < moves.size(); i++) {
-      Coordinate current = moves.get(i);
-      // default 0
-      values[i] = 0;
-      for (Coordinate c : corners) {
-        if (Math.abs(current.q - c.q) <= 1 && Math.abs(current.r - c.r) <= 1
-                && (current.r - c.r != current.q - c.q)) {
-          values[i] = -2;
-          break;
-        }
-      }
+      values[i] = topology.isNextToCorner(moves.getCell(i)) ? -2 : 0;
     }
     return values;
   }
+
+  // The same values, read from the kinds of cell the context has already found.
+  @Override
+  public double[] moveScores(String player, EvaluationContext context) {
+    double[] scores = new double[context.size()];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = context.isNextToCorner(i) ? -2 : 0;
+    }
+    return scores;
+  }
 }
\ No newline at end of file
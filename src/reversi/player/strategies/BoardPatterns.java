@@ -0,0 +1,214 @@
+package reversi.player.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import reversi.model.BoardTopology;
+import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
+
+/**
+ * The patterns a {@link PatternEvaluator} looks at on a board, found from its topology so the
+ * same code covers hex and square boards. There are three groups of patterns:
+ * <ul>
+ *   <li>edges: the straight lines made only of edge cells, the four sides of a square board
+ *       and the six sides of a hex board,</li>
+ *   <li>corner regions: each corner and the cells up to two steps from it,</li>
+ *   <li>long lines: the longest line in a direction when there is only one, the two main
+ *       diagonals of a square board and the three axial lines through the middle of a hex
+ *       board.</li>
+ * </ul>
+ * The patterns of a group share one weight table. A pattern's code reads its cells in order as a
+ * base-3 number, with 0 for an empty cell, 1 for a disc of the player being scored and 2 for an
+ * opponent's disc, so one table scores both players.
+ */
+public final class BoardPatterns {
+
+  /**
+   * The group of the edge patterns.
+   */
+  public static final int EDGE = 0;
+
+  /**
+   * The group of the corner region patterns.
+   */
+  public static final int CORNER = 1;
+
+  /**
+   * The group of the long line patterns.
+   */
+  public static final int LINE = 2;
+
+  // patterns are cut to this many cells, so a table has at most 3^10 entries
+  private static final int MAX_LENGTH = 10;
+  private static final Map<BoardTopology, BoardPatterns> CACHE = new ConcurrentHashMap<>();
+
+  private final int[][] cells;
+  private final int[] groups;
+  private final int[] groupLengths = new int[3];
+
+  private BoardPatterns(BoardTopology topology) {
+    List<int[]> found = new ArrayList<>();
+    List<Integer> foundGroups = new ArrayList<>();
+    boolean[] edge = new boolean[topology.getCellCount()];
+    for (int cell = 0; cell < edge.length; cell++) {
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        edge[cell] |= topology.neighbor(d, cell) < 0;
+      }
+    }
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      if (opposite(topology, d) < d) {
+        continue;
+      }
+      List<int[]> longest = new ArrayList<>();
+      for (int cell = 0; cell < edge.length; cell++) {
+        if (topology.neighbor(opposite(topology, d), cell) >= 0) {
+          continue;
+        }
+        // a whole line, from one side of the board to the other
+        int[] line = new int[topology.rayLength(d, cell) + 1];
+        line[0] = cell;
+        boolean allEdge = edge[cell];
+        for (int i = 1; i < line.length; i++) {
+          line[i] = topology.rayCell(d, cell, i - 1);
+          allEdge &= edge[line[i]];
+        }
+        if (allEdge && line.length >= 3) {
+          found.add(line);
+          foundGroups.add(EDGE);
+        } else if (longest.isEmpty() || line.length > longest.get(0).length) {
+          longest.clear();
+          longest.add(line);
+        } else if (line.length == longest.get(0).length) {
+          longest.add(line);
+        }
+      }
+      if (longest.size() == 1 && longest.get(0).length >= 3) {
+        found.add(longest.get(0));
+        foundGroups.add(LINE);
+      }
+    }
+    for (int corner : topology.getCorners()) {
+      found.add(cornerRegion(topology, corner));
+      foundGroups.add(CORNER);
+    }
+    this.cells = new int[found.size()][];
+    this.groups = new int[found.size()];
+    for (int p = 0; p < cells.length; p++) {
+      int[] pattern = found.get(p);
+      cells[p] = Arrays.copyOf(pattern, Math.min(pattern.length, MAX_LENGTH));
+      groups[p] = foundGroups.get(p);
+      groupLengths[groups[p]] = Math.max(groupLengths[groups[p]], cells[p].length);
+    }
+  }
+
+  /**
+   * Gives the patterns of boards of the given topology. They are found once per topology and
+   * shared.
+   *
+   * @param topology the board
+   * @return the patterns of the board
+   */
+  public static BoardPatterns of(BoardTopology topology) {
+    return CACHE.computeIfAbsent(topology, BoardPatterns::new);
+  }
+
+  /**
+   * Gives the number of patterns on the board.
+   *
+   * @return the pattern count
+   */
+  public int getPatternCount() {
+    return cells.length;
+  }
+
+  /**
+   * Gives the group of a pattern.
+   *
+   * @param p the pattern
+   * @return EDGE, CORNER or LINE
+   */
+  public int getGroup(int p) {
+    return groups[p];
+  }
+
+  /**
+   * Gives the cells of a pattern, in the order they are read.
+   *
+   * @param p the pattern
+   * @return a copy of the cells of the pattern
+   */
+  public int[] getCells(int p) {
+    return cells[p].clone();
+  }
+
+  /**
+   * Gives the number of entries the weight table of a group needs.
+   *
+   * @param group the group
+   * @return 3 to the power of the longest pattern in the group
+   */
+  public int getTableSize(int group) {
+    int size = 1;
+    for (int i = 0; i < groupLengths[group]; i++) {
+      size *= 3;
+    }
+    return size;
+  }
+
+  /**
+   * Gives the code of a pattern in the current position of the model, for the given player.
+   *
+   * @param model the position
+   * @param p     the pattern
+   * @param color the color of the player to read the pattern for
+   * @return the base-3 code of the pattern
+   */
+  public int code(ReadonlyReversiModel model, int p, int color) {
+    int code = 0;
+    for (int cell : cells[p]) {
+      int state = model.getStateAt(cell);
+      code = code * 3 + (state == TileState.EMPTY ? 0 : state == color ? 1 : 2);
+    }
+    return code;
+  }
+
+  // the direction that points the opposite way to d
+  private static int opposite(BoardTopology topology, int d) {
+    int[] dir = topology.getDirection(d);
+    for (int o = 0; o < topology.getDirectionCount(); o++) {
+      int[] other = topology.getDirection(o);
+      if (other[0] == -dir[0] && other[1] == -dir[1]) {
+        return o;
+      }
+    }
+    throw new IllegalStateException("Direction has no opposite");
+  }
+
+  // the corner and the cells up to two steps from it, nearest first
+  private static int[] cornerRegion(BoardTopology topology, int corner) {
+    List<Integer> region = new ArrayList<>();
+    region.add(corner);
+    int start = 0;
+    for (int step = 0; step < 2; step++) {
+      int end = region.size();
+      for (int i = start; i < end; i++) {
+        for (int d = 0; d < topology.getDirectionCount(); d++) {
+          int n = topology.neighbor(d, region.get(i));
+          if (n >= 0 && !region.contains(n)) {
+            region.add(n);
+          }
+        }
+      }
+      start = end;
+    }
+    int[] result = new int[Math.min(region.size(), MAX_LENGTH)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = region.get(i);
+    }
+    return result;
+  }
+}
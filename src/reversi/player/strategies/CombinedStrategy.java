@@ -1,18 +1,23 @@
 package reversi.player.strategies;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 import reversi.model.Coordinate;
+import reversi.model.MoveList;
 import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
 
 /**
  * CombinedStrategy compares requested strategies run on valid moves to
  * determine the best over all move, considering potentially multiple strategies.
+ * The moves are found and classified once per decision in an EvaluationContext that
+ * every strategy shares, and the strategies' values are added with a weight each.
  */
 public class CombinedStrategy extends AStrategy {
   ArrayList<Strategy> strats;
+  // the weight of each strategy, or null to weight them all 1
+  private final double[] weights;
+  private final EvaluationContext context = new EvaluationContext();
 
   /**
    * Constructor for Combined Strategy.
@@ -24,21 +29,90 @@ public class CombinedStrategy extends AStrategy {
     //strats = new ArrayList<>();
     //strats.addAll(Arrays.asList(strategies));
     this.strats = strats;
+    this.weights = null;
+  }
+
+  /**
+   * Constructor for a Combined Strategy that weights its strategies.
+   * @param model the model
+   * @param strats every strategy that the user wants to evaluate on every possible move.
+   * @param weights how much each strategy's values count, in the same order as strats.
+   * @throws IllegalArgumentException if there is not one finite weight for each strategy.
+   */
+  public CombinedStrategy(ReadonlyReversiModel model, String type, ArrayList<Strategy> strats,
+                          double[] weights) {
+    super(model, type);
+    if (weights == null || weights.length != strats.size()) {
+      throw new IllegalArgumentException("Need one weight for each strategy");
+    }
+    for (double weight : weights) {
+      if (Double.isNaN(weight) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Weights must be finite");
+      }
+    }
+    this.strats = strats;
+    this.weights = weights.clone();
   }
 
   // Runs every strategy from strats on every valid move. Adds the scores from
-  // every strategy for each possible move together.
+  // every strategy for each possible move together, rounded to whole numbers.
   @Override
-  public int[] moveValues(String player) {
-    List<Coordinate> moves = model.allValidMoves(player);
-    int[] values = new int[moves.size()];
-    Arrays.fill(values, 0);
-    for (Strategy s : strats) {
-      int[] valuesToAdd = s.moveValues(player);
-      for (int i = 0; i < values.length; i++) {
-        values[i] += valuesToAdd[i];
-      }
+  public synchronized int[] moveValues(String player, MoveList moves) {
+    context.reset(model, TileState.codeOf(player), moves);
+    double[] scores = moveScores(player, context);
+    int[] values = new int[scores.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (int) Math.round(scores[i]);
     }
     return values;
   }
+
+  // Adds the weighted values of every strategy in the shared context, so a combined strategy
+  // can itself be combined without finding the moves again.
+  @Override
+  public double[] moveScores(String player, EvaluationContext context) {
+    double[] scores = new double[context.size()];
+    for (int s = 0; s < strats.size(); s++) {
+      double[] toAdd = strats.get(s).moveScores(player, context);
+      double weight = weights == null ? 1 : weights[s];
+      for (int i = 0; i < scores.length; i++) {
+        scores[i] += weight * toAdd[i];
+      }
+    }
+    return scores;
+  }
+
+  // Picks the move with the highest weighted value without rounding it first.
+  @Override
+  public synchronized Coordinate bestMove(String player) {
+    int color = TileState.codeOf(player);
+    model.generateMoves(color, moveBuffer);
+    return bestOf(moveScores(player, context.reset(model, color, moveBuffer)), moveBuffer);
+  }
+
+  // Every strategy is given the threads, since they run one after another.
+  @Override
+  public void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search with at least one thread");
+    }
+    for (Strategy s : strats) {
+      s.setThreads(threads);
+    }
+  }
+
+  // Every strategy ponders, since any of them may be able to use the time.
+  @Override
+  public void ponder(String player) {
+    for (Strategy s : strats) {
+      s.ponder(player);
+    }
+  }
+
+  @Override
+  public void stopPondering() {
+    for (Strategy s : strats) {
+      s.stopPondering();
+    }
+  }
 }
@@ -0,0 +1,404 @@
+package reversi.player.strategies;
+
+import java.util.Arrays;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.SearchableReversiModel;
+import reversi.model.UndoRecord;
+import reversi.player.TileState;
+
+/**
+ * Solves the end of a game exactly: it searches every line to the end and finds the best final
+ * disc difference the player to move can force. It only uses the board's topology, so it works
+ * on hex and square boards alike.
+ *
+ * <p>The empty cells are split into regions of touching cells when the solve starts. Moves in
+ * regions with an odd number of empty cells are tried first, since the player who fills the last
+ * cell of a region cannot be answered there. With more empty cells left, moves that leave the
+ * opponent the fewest replies are tried first. The last three empty cells are solved by routines
+ * that try the known empty cells directly instead of generating moves, and the last one just
+ * counts flips without playing it.
+ */
+public final class EndgameSolver {
+
+  /**
+   * The player to move wins.
+   */
+  public static final int WIN = 1;
+
+  /**
+   * The game is drawn.
+   */
+  public static final int DRAW = 0;
+
+  /**
+   * The player to move loses.
+   */
+  public static final int LOSS = -1;
+
+  // the budget is checked every this many nodes, a power of two
+  private static final int CHECK_INTERVAL = 1024;
+  // with more empty cells than this, moves are ordered by the opponent's replies
+  private static final int FASTEST_FIRST_EMPTIES = 6;
+  private static final int INFINITY = 10_000;
+
+  private final long timeMillis;
+
+  // the state of the solve in progress
+  private SearchableReversiModel board;
+  private BoardTopology topology;
+  private int[] empties;
+  // the region of each empty cell, by cell, and the number of empty cells left in each region
+  private int[] regionOf;
+  private int[] regionEmpties;
+  private MoveList[] plyMoves;
+  private int[][] plyOrder;
+  private int[][] plyKeys;
+  private final MoveList replies = new MoveList();
+  private long deadline;
+  private boolean aborted;
+
+  // what the last solve found
+  private long nodes;
+  private int bestMove;
+  private int discDifference;
+
+  /**
+   * Creates a solver that gives up after the given time.
+   *
+   * @param timeMillis the wall-clock time a solve may take, or 0 for no limit.
+   * @throws IllegalArgumentException if the time is negative.
+   */
+  public EndgameSolver(long timeMillis) {
+    if (timeMillis < 0) {
+      throw new IllegalArgumentException("Invalid time limit");
+    }
+    this.timeMillis = timeMillis;
+  }
+
+  /**
+   * Solves the position of the given board for the player to move. The board is searched in
+   * place and is left as it was.
+   *
+   * @param board the position to solve
+   * @return true if it was solved, false if the time ran out first
+   */
+  public boolean solve(SearchableReversiModel board) {
+    MoveList moves = new MoveList();
+    board.generateMoves(board.getCurrentColor(), moves);
+    return solve(board, moves, new int[moves.size()]);
+  }
+
+  /**
+   * Gives the best move found by the last solve.
+   *
+   * @return the cell of the best move, or -1 if the player had to pass or the game was over
+   */
+  public int getBestMove() {
+    return bestMove;
+  }
+
+  /**
+   * Gives the final disc difference of the last solve with best play from both sides, from the
+   * point of view of the player to move.
+   *
+   * @return the player's discs minus the opponent's at the end of the game
+   */
+  public int getDiscDifference() {
+    return discDifference;
+  }
+
+  /**
+   * Gives the result of the last solve for the player to move.
+   *
+   * @return WIN, DRAW or LOSS
+   */
+  public int getOutcome() {
+    return Integer.signum(discDifference);
+  }
+
+  /**
+   * Gives the number of positions visited by the last solve.
+   *
+   * @return the node count
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  // solves the position and gives each of the given moves of the player to move its score: the
+  // best move's is exact and the others are kept below it
+  boolean solve(SearchableReversiModel board, MoveList moves, int[] values) {
+    start(board);
+    try {
+      int color = board.getCurrentColor();
+      bestMove = -1;
+      if (moves.isEmpty()) {
+        discDifference = negamax(-INFINITY, INFINITY, 0);
+        return !aborted;
+      }
+      int best = -INFINITY;
+      int[] scores = new int[moves.size()];
+      int[] keys = new int[moves.size()];
+      int[] order = new int[moves.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+        keys[i] = orderKey(moves.getCell(i), color, true);
+      }
+      for (int k = 0; k < order.length; k++) {
+        pickNext(order, keys, k, order.length);
+        int i = order[k];
+        UndoRecord record = play(moves.getCell(i));
+        int s = -negamax(-INFINITY, -best, 1);
+        undo(record);
+        if (aborted) {
+          return false;
+        }
+        scores[i] = s;
+        if (s > best) {
+          best = s;
+          bestMove = moves.getCell(i);
+        }
+      }
+      discDifference = best;
+      for (int i = 0; i < values.length; i++) {
+        values[i] = moves.getCell(i) == bestMove ? best : Math.min(scores[i], best - 1);
+      }
+      return true;
+    } finally {
+      this.board = null;
+    }
+  }
+
+  // gets ready to solve the given board, finding its empty cells and their regions
+  private void start(SearchableReversiModel board) {
+    this.board = board;
+    this.topology = board.getTopology();
+    deadline = timeMillis == 0 ? Long.MAX_VALUE : System.nanoTime() + timeMillis * 1_000_000L;
+    aborted = false;
+    nodes = 0;
+    int cells = board.getCellCount();
+    int count = board.getScore(TileState.EMPTY);
+    empties = new int[count];
+    regionOf = new int[cells];
+    Arrays.fill(regionOf, -1);
+    regionEmpties = new int[count];
+    int found = 0;
+    int regions = 0;
+    int[] queue = new int[count];
+    for (int cell = 0; cell < cells; cell++) {
+      if (board.getStateAt(cell) != TileState.EMPTY || regionOf[cell] >= 0) {
+        continue;
+      }
+      // a breadth-first walk over the touching empty cells
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = cell;
+      regionOf[cell] = regions;
+      while (head < tail) {
+        int c = queue[head++];
+        empties[found++] = c;
+        regionEmpties[regions]++;
+        for (int d = 0; d < topology.getDirectionCount(); d++) {
+          int n = topology.neighbor(d, c);
+          if (n >= 0 && regionOf[n] < 0 && board.getStateAt(n) == TileState.EMPTY) {
+            regionOf[n] = regions;
+            queue[tail++] = n;
+          }
+        }
+      }
+      regions++;
+    }
+    if (plyMoves == null || plyMoves.length < count * 2 + 2) {
+      plyMoves = new MoveList[count * 2 + 2];
+      plyOrder = new int[count * 2 + 2][];
+      plyKeys = new int[count * 2 + 2][];
+      for (int i = 0; i < plyMoves.length; i++) {
+        plyMoves[i] = new MoveList();
+        plyOrder[i] = new int[0];
+        plyKeys[i] = new int[0];
+      }
+    }
+  }
+
+  // the exact negamax search on the final disc difference
+  private int negamax(int alpha, int beta, int ply) {
+    nodes++;
+    if ((nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+      aborted = true;
+    }
+    if (aborted) {
+      return 0;
+    }
+    int color = board.getCurrentColor();
+    int left = board.getScore(TileState.EMPTY);
+    if (left == 0) {
+      return difference(color);
+    }
+    if (left == 1) {
+      return solveLastOne(color);
+    }
+    if (left <= 3) {
+      return solveLastFew(color, alpha, beta, ply);
+    }
+    MoveList moves = plyMoves[ply];
+    int n = board.generateMoves(color, moves);
+    if (n == 0) {
+      return passOrEnd(color, alpha, beta, ply);
+    }
+    if (plyKeys[ply].length < n) {
+      plyOrder[ply] = new int[n * 2];
+      plyKeys[ply] = new int[n * 2];
+    }
+    int[] order = plyOrder[ply];
+    int[] keys = plyKeys[ply];
+    boolean fastestFirst = left > FASTEST_FIRST_EMPTIES;
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+      keys[i] = orderKey(moves.getCell(i), color, fastestFirst);
+    }
+    int best = -INFINITY;
+    for (int k = 0; k < n; k++) {
+      pickNext(order, keys, k, n);
+      UndoRecord record = play(moves.getCell(order[k]));
+      int s = -negamax(-beta, -Math.max(alpha, best), ply + 1);
+      undo(record);
+      if (aborted) {
+        return 0;
+      }
+      if (s > best) {
+        best = s;
+        if (best >= beta) {
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  // solves two or three empty cells by trying each empty cell directly, those in odd regions
+  // first
+  private int solveLastFew(int color, int alpha, int beta, int ply) {
+    int best = -INFINITY;
+    boolean moved = false;
+    for (int pass = 0; pass < 2; pass++) {
+      for (int cell : empties) {
+        if (board.getStateAt(cell) != TileState.EMPTY
+                || (regionEmpties[regionOf[cell]] % 2 == 1) != (pass == 0)) {
+          continue;
+        }
+        UndoRecord record = play(cell);
+        if (record == null) {
+          continue;
+        }
+        moved = true;
+        int s = -negamax(-beta, -Math.max(alpha, best), ply + 1);
+        undo(record);
+        if (aborted) {
+          return 0;
+        }
+        if (s > best) {
+          best = s;
+          if (best >= beta) {
+            return best;
+          }
+        }
+      }
+    }
+    return moved ? best : passOrEnd(color, alpha, beta, ply);
+  }
+
+  // solves the last empty cell by counting what it flips for either player, without playing it
+  private int solveLastOne(int color) {
+    int cell = lastEmpty();
+    int diff = difference(color);
+    int flips = board.isLegalMove(cell, color);
+    if (flips > 0) {
+      return diff + 2 * flips + 1;
+    }
+    int oppFlips = board.isLegalMove(cell, TileState.opposite(color));
+    if (oppFlips > 0) {
+      return diff - 2 * oppFlips - 1;
+    }
+    return diff;
+  }
+
+  // passes if the opponent can move, or scores the end of the game if neither can
+  private int passOrEnd(int color, int alpha, int beta, int ply) {
+    if (!board.hasAnyValidMove(TileState.opposite(color))) {
+      return difference(color);
+    }
+    UndoRecord pass = board.makePass();
+    if (pass == null) {
+      return difference(color);
+    }
+    int s = -negamax(-beta, -alpha, ply + 1);
+    board.unmakeMove(pass);
+    return s;
+  }
+
+  // a key to try moves in order of, highest first: moves into odd regions, then corners, and
+  // when asked, moves that leave the opponent fewer replies
+  private int orderKey(int cell, int color, boolean fastestFirst) {
+    int key = 0;
+    if (regionEmpties[regionOf[cell]] % 2 == 1) {
+      key += 100;
+    }
+    if (topology.isCorner(cell)) {
+      key += 50;
+    }
+    if (fastestFirst) {
+      UndoRecord record = play(cell);
+      if (record != null) {
+        key -= 10 * board.generateMoves(TileState.opposite(color), replies);
+        undo(record);
+      }
+    }
+    return key;
+  }
+
+  // plays a move and keeps the region counts up to date, returning null if it is not legal
+  private UndoRecord play(int cell) {
+    UndoRecord record = board.makeMove(cell);
+    if (record != null) {
+      regionEmpties[regionOf[cell]]--;
+    }
+    return record;
+  }
+
+  // takes back a move made with play
+  private void undo(UndoRecord record) {
+    board.unmakeMove(record);
+    regionEmpties[regionOf[record.getCell()]]++;
+  }
+
+  // the one empty cell that is left
+  private int lastEmpty() {
+    for (int cell : empties) {
+      if (board.getStateAt(cell) == TileState.EMPTY) {
+        return cell;
+      }
+    }
+    return -1;
+  }
+
+  // moves the entry with the highest key among positions k to n - 1 to position k, most moves
+  // are cut off before the whole list would have been sorted
+  private static void pickNext(int[] order, int[] keys, int k, int n) {
+    int best = k;
+    for (int i = k + 1; i < n; i++) {
+      if (keys[order[i]] > keys[order[best]]) {
+        best = i;
+      }
+    }
+    int tmp = order[k];
+    order[k] = order[best];
+    order[best] = tmp;
+  }
+
+  // the disc difference for the given player as the board stands
+  private int difference(int color) {
+    return board.getScore(color) - board.getScore(TileState.opposite(color));
+  }
+}
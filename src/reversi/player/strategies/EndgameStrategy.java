@@ -0,0 +1,95 @@
+package reversi.player.strategies;
+
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.player.TileState;
+
+/**
+ * EndgameStrategy plays like another strategy until only a few empty cells are left, then solves
+ * the rest of the game exactly with an {@link EndgameSolver} and plays the best move. If the
+ * solver runs out of time, the other strategy's choice is played instead.
+ */
+public class EndgameStrategy extends AStrategy {
+
+  private final Strategy fallback;
+  private final int maxEmpties;
+  private final EndgameSolver solver;
+  private boolean lastSolved;
+
+  /**
+   * Creates a strategy that takes over from the given one near the end of the game.
+   *
+   * @param model      the model the strategy plays on.
+   * @param type       the type of board.
+   * @param fallback   the strategy to play with until the end is near.
+   * @param maxEmpties the number of empty cells at which the solver takes over.
+   * @param timeMillis the wall-clock time the solver may take, or 0 for no limit.
+   * @throws IllegalArgumentException if the fallback is null, or the number of empty cells or
+   *                                  the time is negative.
+   */
+  public EndgameStrategy(ReadonlyReversiModel model, String type, Strategy fallback,
+                         int maxEmpties, long timeMillis) {
+    super(model, type);
+    if (fallback == null) {
+      throw new IllegalArgumentException("Fallback strategy cannot be null");
+    }
+    if (maxEmpties < 0) {
+      throw new IllegalArgumentException("Invalid number of empty cells");
+    }
+    this.fallback = fallback;
+    this.maxEmpties = maxEmpties;
+    this.solver = new EndgameSolver(timeMillis);
+  }
+
+  // Solves the game once few enough cells are empty, giving the best move the highest value.
+  // Otherwise, or if the solver runs out of time, the fallback strategy values the moves.
+  @Override
+  public int[] moveValues(String player, MoveList moves) {
+    lastSolved = false;
+    if (!moves.isEmpty() && model.getCurrentColor() == TileState.codeOf(player)
+            && model.getScore(TileState.EMPTY) <= maxEmpties
+            && model instanceof SearchableReversiModel) {
+      int[] values = new int[moves.size()];
+      SearchableReversiModel copy = ((SearchableReversiModel) model).copyForSearch();
+      if (solver.solve(copy, moves, values)) {
+        lastSolved = true;
+        return values;
+      }
+    }
+    return fallback.moveValues(player, moves);
+  }
+
+  @Override
+  public void setThreads(int threads) {
+    fallback.setThreads(threads);
+  }
+
+  @Override
+  public void ponder(String player) {
+    fallback.ponder(player);
+  }
+
+  @Override
+  public void stopPondering() {
+    fallback.stopPondering();
+  }
+
+  /**
+   * Returns true if the last move was chosen by solving the game.
+   *
+   * @return true if the solver chose the last move
+   */
+  public boolean wasSolved() {
+    return lastSolved;
+  }
+
+  /**
+   * Gives the solver, to read the result of the last solve.
+   *
+   * @return the endgame solver
+   */
+  public EndgameSolver getSolver() {
+    return solver;
+  }
+}
@@ -0,0 +1,185 @@
+package reversi.player.strategies;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+
+/**
+ * What the strategies of one decision have in common: the legal moves of the player, how many
+ * discs each flips and what kind of cell each is on. A {@link CombinedStrategy} fills it once per
+ * decision and hands it to every strategy it combines, so stacking more heuristics does not mean
+ * finding the moves or classifying the cells again. A context is reused from one decision to the
+ * next and is only used by one thread at a time.
+ */
+public final class EvaluationContext {
+
+  /**
+   * The kind of a corner cell.
+   */
+  public static final int CORNER = 0;
+
+  /**
+   * The kind of a cell diagonally next to a corner.
+   */
+  public static final int X_SQUARE = 1;
+
+  /**
+   * The kind of any other cell next to a corner.
+   */
+  public static final int NEXT_TO_CORNER = 2;
+
+  /**
+   * The kind of a cell on the edge of the board that is not near a corner.
+   */
+  public static final int EDGE = 3;
+
+  /**
+   * The kind of a cell in the middle of the board.
+   */
+  public static final int INTERIOR = 4;
+
+  private ReadonlyReversiModel model;
+  private int color;
+  private MoveList moves;
+  private final MoveList ownMoves = new MoveList();
+  // the kind of every cell of the board, found once per topology
+  private BoardTopology topology;
+  private byte[] kinds = new byte[0];
+
+  /**
+   * Fills the context with the legal moves of a player in the current position of the model.
+   *
+   * @param model the game
+   * @param color the TileState code of the player to move
+   * @return this context
+   */
+  public EvaluationContext reset(ReadonlyReversiModel model, int color) {
+    model.generateMoves(color, ownMoves);
+    return reset(model, color, ownMoves);
+  }
+
+  /**
+   * Fills the context with moves that were already generated for a player. The list is used as
+   * it is, not copied, so it must not change while the context is in use.
+   *
+   * @param model the game
+   * @param color the TileState code of the player to move
+   * @param moves the legal moves of the player, from generateMoves
+   * @return this context
+   */
+  public EvaluationContext reset(ReadonlyReversiModel model, int color, MoveList moves) {
+    this.model = model;
+    this.color = color;
+    this.moves = moves;
+    if (model.getTopology() != topology) {
+      classify(model.getTopology());
+    }
+    return this;
+  }
+
+  /**
+   * Gives the game the context was filled from.
+   *
+   * @return the model
+   */
+  public ReadonlyReversiModel getModel() {
+    return model;
+  }
+
+  /**
+   * Gives the player the moves are for.
+   *
+   * @return the TileState code of the player
+   */
+  public int getColor() {
+    return color;
+  }
+
+  /**
+   * Gives the legal moves, in the order every strategy's values are given in.
+   *
+   * @return the moves
+   */
+  public MoveList getMoves() {
+    return moves;
+  }
+
+  /**
+   * Gives the number of legal moves.
+   *
+   * @return the move count
+   */
+  public int size() {
+    return moves.size();
+  }
+
+  /**
+   * Gives the cell of a move.
+   *
+   * @param i the position of the move in the list
+   * @return the cell index of the move
+   */
+  public int getCell(int i) {
+    return moves.getCell(i);
+  }
+
+  /**
+   * Gives how many discs a move flips.
+   *
+   * @param i the position of the move in the list
+   * @return the flip count of the move
+   */
+  public int getFlips(int i) {
+    return moves.getFlips(i);
+  }
+
+  /**
+   * Gives the kind of cell a move is on.
+   *
+   * @param i the position of the move in the list
+   * @return CORNER, X_SQUARE, NEXT_TO_CORNER, EDGE or INTERIOR
+   */
+  public int getKind(int i) {
+    return kinds[moves.getCell(i)];
+  }
+
+  /**
+   * Returns true if a move is on a corner.
+   *
+   * @param i the position of the move in the list
+   * @return true for a corner move
+   */
+  public boolean isCorner(int i) {
+    return getKind(i) == CORNER;
+  }
+
+  /**
+   * Returns true if a move is next to a corner, diagonally or not.
+   *
+   * @param i the position of the move in the list
+   * @return true for a move next to a corner
+   */
+  public boolean isNextToCorner(int i) {
+    int kind = getKind(i);
+    return kind == X_SQUARE || kind == NEXT_TO_CORNER;
+  }
+
+  // finds the kind of every cell of a board
+  private void classify(BoardTopology topology) {
+    this.topology = topology;
+    this.kinds = new byte[topology.getCellCount()];
+    for (int cell = 0; cell < kinds.length; cell++) {
+      if (topology.isCorner(cell)) {
+        kinds[cell] = CORNER;
+      } else if (topology.isXSquare(cell)) {
+        kinds[cell] = X_SQUARE;
+      } else if (topology.isNextToCorner(cell)) {
+        kinds[cell] = NEXT_TO_CORNER;
+      } else if (topology.isEdge(cell)) {
+        kinds[cell] = EDGE;
+      } else {
+        kinds[cell] = INTERIOR;
+      }
+    }
+  }
+}
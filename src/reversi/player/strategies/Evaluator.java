@@ -0,0 +1,33 @@
+package reversi.player.strategies;
+
+import reversi.model.ReadonlyReversiModel;
+
+/**
+ * Scores a position for the search strategies. Higher scores are better for the given player,
+ * and the score of a position for one player is the negation of its score for the other.
+ * Scores must stay well inside plus or minus {@link AlphaBetaStrategy#WIN} so they are never
+ * mistaken for a finished game. An evaluator is only used by one thread at a time, and a
+ * parallel search asks for a copy for each of its other threads.
+ */
+public interface Evaluator {
+
+  /**
+   * Gives the value of the current position of the model for the player of the given color.
+   *
+   * @param model the position to score
+   * @param color the TileState code of the player to score it for
+   * @return the value of the position, positive when it favors that player
+   */
+  int evaluate(ReadonlyReversiModel model, int color);
+
+  /**
+   * Gives an evaluator that scores positions the same way and can be used on another thread at
+   * the same time as this one. An evaluator that keeps no state can return itself, which is the
+   * default.
+   *
+   * @return an evaluator for another thread
+   */
+  default Evaluator copy() {
+    return this;
+  }
+}
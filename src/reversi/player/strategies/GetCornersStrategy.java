@@ -1,9 +1,7 @@
 package reversi.player.strategies;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import reversi.model.Coordinate;
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
 import reversi.model.ReadonlyReversiModel;
 import reversi.player.strategies.AStrategy;
 
@@ -22,22 +20,23 @@ public class GetCornersStrategy extends AStrategy {
 
   // Gives moves that end in a corner 2 points.
   @Override
-  public int[] moveValues(String player) {
-    List<Coordinate> moves = model.allValidMoves(player);
+  public int[] moveValues(String player, MoveList moves) {
     int[] values = new int[moves.size()];
-    ArrayList<Coordinate> corners = this.getCorners();
+    BoardTopology topology = model.getTopology();
     // gets the array of values. A corner receives a score of 2. Other tiles are 0.
     for (int i = 0; i < moves.size(); i++) {
-      Coordinate current = moves.get(i);
-      // default 0
-      values[i] = 0;
-      for (Coordinate c : corners) {
-        if (current.equals(c)) {
-          values[i] = 2;
-          break;
-        }
-      }
+      values[i] = topology.isCorner(moves.getCell(i)) ? 2 : 0;
     }
     return values;
   }
+
+  // The same values, read from the kinds of cell the context has already found.
+  @Override
+  public double[] moveScores(String player, EvaluationContext context) {
+    double[] scores = new double[context.size()];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = context.isCorner(i) ? 2 : 0;
+    }
+    return scores;
+  }
 }
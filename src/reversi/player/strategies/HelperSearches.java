@@ -0,0 +1,51 @@
+package reversi.player.strategies;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for the helper threads of a parallel search. A search is stopped by interrupting the
+ * thread that runs it, so an interrupt that arrives while it waits for its helpers is passed on
+ * to them rather than ignored.
+ */
+final class HelperSearches {
+
+  private HelperSearches() {
+  }
+
+  /**
+   * Waits for the helpers to end. If the waiting thread is interrupted, the pool is shut down,
+   * which interrupts every helper, and this waits until they have all ended. The interrupt is
+   * kept on the waiting thread, and the pool cannot be used again.
+   *
+   * @param pool    the pool the helpers run on
+   * @param helpers the helper searches
+   * @return false if the pool was shut down, so the caller must make a new one
+   * @throws IllegalStateException if a helper failed
+   */
+  static boolean await(ExecutorService pool, Future<?>[] helpers) {
+    try {
+      for (Future<?> helper : helpers) {
+        helper.get();
+      }
+      return true;
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      // the helpers stop at their next check, so this wait is short
+      boolean ended = false;
+      while (!ended) {
+        try {
+          ended = pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException again) {
+          // already stopping
+        }
+      }
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A helper search failed", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,419 @@
+package reversi.player.strategies;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.model.UndoRecord;
+import reversi.player.TileState;
+
+/**
+ * MctsStrategy chooses moves with a Monte Carlo tree search. Each iteration walks down a shared
+ * tree of positions with the UCT rule, adds the children of the position it reaches, and plays
+ * one random game from there to the end, preferring corners when it can take one. The moves
+ * that win the most games are tried the most, and the move tried the most is played. It needs
+ * no evaluation function, so it plays well on big hex boards where there are too many moves for
+ * alpha-beta to look far ahead.
+ *
+ * <p>With more than one thread, every thread grows the same tree. A thread walking down the tree
+ * counts a virtual loss on each position it passes until its game is finished, which steers the
+ * other threads onto different lines. The part of the tree under the position reached after the
+ * strategy's move and the opponent's reply is kept for the next move.
+ */
+public class MctsStrategy extends AStrategy {
+
+  // the number of lost games counted on a position while a thread is playing through it
+  private static final int VIRTUAL_LOSS = 3;
+
+  private final long moveTimeMillis;
+  private final long maxPlayouts;
+  private final double exploration;
+
+  // the tree of the current position, kept between moves
+  private Node root;
+
+  // the number of threads that search each move and their states
+  private int threads = 1;
+  private Worker[] workers;
+  private ExecutorService pool;
+
+  // shared by the threads of the search in progress
+  private volatile long deadline;
+  private volatile boolean stopped;
+  private final AtomicLong playouts = new AtomicLong();
+
+  // what the last search did
+  private long lastPlayouts;
+
+  /**
+   * Creates a search that thinks for up to one second per move.
+   *
+   * @param model the model the strategy plays on.
+   * @param type  the type of board.
+   */
+  public MctsStrategy(ReadonlyReversiModel model, String type) {
+    this(model, type, 1000, 0, Math.sqrt(2));
+  }
+
+  /**
+   * Creates a search with the given budget for each move. The search always plays at least one
+   * game, even if the budget runs out first.
+   *
+   * @param model          the model the strategy plays on.
+   * @param type           the type of board.
+   * @param moveTimeMillis the wall-clock time to think for, or 0 for no time limit.
+   * @param maxPlayouts    the number of random games to play, or 0 for no limit.
+   * @param exploration    how much the search favors moves it has tried less, the UCT constant.
+   * @throws IllegalArgumentException if a limit or the exploration is negative, or there is no
+   *                                  limit at all.
+   */
+  public MctsStrategy(ReadonlyReversiModel model, String type, long moveTimeMillis,
+                      long maxPlayouts, double exploration) {
+    super(model, type);
+    if (moveTimeMillis < 0 || maxPlayouts < 0 || (moveTimeMillis == 0 && maxPlayouts == 0)) {
+      throw new IllegalArgumentException("Invalid search limits");
+    }
+    if (!(exploration >= 0) || Double.isInfinite(exploration)) {
+      throw new IllegalArgumentException("Invalid exploration constant");
+    }
+    this.moveTimeMillis = moveTimeMillis;
+    this.maxPlayouts = maxPlayouts;
+    this.exploration = exploration;
+  }
+
+  // Searches the position and values each move by the number of games played through it. If it
+  // is not the player's turn the moves are valued by how many discs they flip. Only one search
+  // runs at a time, so a search that was stopped by an interrupt has ended before the next one
+  // starts.
+  @Override
+  public synchronized int[] moveValues(String player, MoveList moves) {
+    int[] values = new int[moves.size()];
+    if (moves.isEmpty()) {
+      return values;
+    }
+    if (model.getCurrentColor() != TileState.codeOf(player)) {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = moves.getFlips(i);
+      }
+      return values;
+    }
+    if (!(model instanceof SearchableReversiModel)) {
+      throw new IllegalArgumentException("The model cannot be searched");
+    }
+    if (moves.size() == 1) {
+      values[0] = 1;
+      return values;
+    }
+    SearchableReversiModel copy = ((SearchableReversiModel) model).copyForSearch();
+    search(copy);
+    Node[] children = root.children;
+    for (int i = 0; i < values.length; i++) {
+      for (Node child : children) {
+        if (child.cell == moves.getCell(i)) {
+          values[i] = child.visits.get();
+        }
+      }
+    }
+    return values;
+  }
+
+  // Lets the search use the given number of threads for each move. A new pool of helper threads
+  // is made the next time more than one is needed.
+  @Override
+  public synchronized void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search with at least one thread");
+    }
+    if (threads != this.threads && pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Gives the number of random games played during the last move.
+   *
+   * @return the number of playouts
+   */
+  public long getLastPlayouts() {
+    return lastPlayouts;
+  }
+
+  /**
+   * Gives the number of games played through the current position of the tree, including the
+   * ones kept from earlier moves.
+   *
+   * @return the visits of the root, 0 before the first search
+   */
+  public int getRootVisits() {
+    return root == null ? 0 : root.visits.get();
+  }
+
+  // finds or makes the root for the position, then has every thread grow the tree from it
+  private void search(SearchableReversiModel copy) {
+    root = findRoot(copy);
+    if (workers == null || workers.length != threads) {
+      workers = new Worker[threads];
+      for (int i = 0; i < threads; i++) {
+        workers[i] = new Worker(i);
+      }
+    }
+    deadline = moveTimeMillis == 0 ? Long.MAX_VALUE
+            : System.nanoTime() + moveTimeMillis * 1_000_000L;
+    stopped = false;
+    playouts.set(0);
+
+    Future<?>[] helpers = new Future<?>[threads - 1];
+    for (int i = 1; i < threads; i++) {
+      Worker helper = workers[i];
+      helper.board = copy.copyForSearch();
+      helpers[i - 1] = pool().submit(helper::run);
+    }
+    workers[0].board = copy;
+    try {
+      workers[0].run();
+    } finally {
+      stopped = true;
+      if (!HelperSearches.await(pool, helpers)) {
+        pool = null;
+      }
+    }
+    lastPlayouts = playouts.get();
+  }
+
+  // Gives the node of the tree for the position, if the last tree reached it in one or two
+  // moves, or else a new tree.
+  private Node findRoot(SearchableReversiModel copy) {
+    long hash = copy.getPositionHash();
+    if (root != null) {
+      if (root.hash == hash) {
+        return root;
+      }
+      Node[] children = root.children;
+      if (children != null) {
+        for (Node child : children) {
+          if (child.hash == hash) {
+            return child;
+          }
+          Node[] grandchildren = child.children;
+          if (grandchildren != null) {
+            for (Node grandchild : grandchildren) {
+              if (grandchild.hash == hash) {
+                return grandchild;
+              }
+            }
+          }
+        }
+      }
+    }
+    Node fresh = new Node(-1, TileState.opposite(copy.getCurrentColor()));
+    fresh.hash = hash;
+    return fresh;
+  }
+
+  // the pool the helper threads run on, made the first time it is needed
+  private synchronized ExecutorService pool() {
+    if (pool == null) {
+      pool = Executors.newFixedThreadPool(threads - 1, r -> {
+        Thread thread = new Thread(r, "mcts-helper");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return pool;
+  }
+
+  // A position in the tree, reached by a move of the given color. Its score counts two for every
+  // game that color won through it and one for every draw. The children are made all at once
+  // the first time a thread reaches the position, and never change after that.
+  private static final class Node {
+    private static final Node[] NONE = new Node[0];
+
+    private final int cell;
+    private final int color;
+    private final AtomicInteger visits = new AtomicInteger();
+    private final AtomicInteger score = new AtomicInteger();
+    private volatile Node[] children;
+    // the position hash, set when the move is first played; 0 until then
+    private volatile long hash;
+
+    private Node(int cell, int color) {
+      this.cell = cell;
+      this.color = color;
+    }
+  }
+
+  // The state of one thread: its copy of the game, the path it took down the tree, the records
+  // to take its moves back with and its random number generator, all reused between games so
+  // playing one allocates nothing.
+  private final class Worker {
+    private final MoveList moves = new MoveList();
+    private SearchableReversiModel board;
+    private BoardTopology topology;
+    private Node[] path = new Node[0];
+    private UndoRecord[] records = new UndoRecord[0];
+    private long seed;
+
+    private Worker(int id) {
+      this.seed = 0x9E3779B97F4A7C15L * (id + 1);
+    }
+
+    // plays games until the budget runs out or the thread is interrupted, at least one
+    private void run() {
+      topology = board.getTopology();
+      int maxPly = board.getCellCount() * 2 + 2;
+      if (path.length < maxPly) {
+        path = new Node[maxPly];
+        records = new UndoRecord[maxPly];
+      }
+      do {
+        iterate();
+        long count = playouts.incrementAndGet();
+        if ((maxPlayouts > 0 && count >= maxPlayouts) || System.nanoTime() > deadline
+                || Thread.currentThread().isInterrupted()) {
+          stopped = true;
+        }
+      } while (!stopped);
+      board = null;
+    }
+
+    // walks down the tree to a new position, plays a game from it and counts the result on
+    // every position on the way
+    private void iterate() {
+      int depth = 0;
+      Node node = root;
+      node.visits.addAndGet(VIRTUAL_LOSS);
+      path[depth++] = node;
+      while (true) {
+        Node[] children = node.children;
+        boolean leaf = children == null;
+        if (leaf) {
+          children = expand(node);
+        }
+        if (children.length == 0) {
+          break;
+        }
+        Node child = select(node, children);
+        UndoRecord record = child.cell < 0 ? board.makePass() : board.makeMove(child.cell);
+        records[depth] = record;
+        if (child.hash == 0) {
+          child.hash = board.getPositionHash();
+        }
+        child.visits.addAndGet(VIRTUAL_LOSS);
+        path[depth++] = child;
+        node = child;
+        if (leaf) {
+          break;
+        }
+      }
+      int winner = playout(depth);
+      for (int i = depth - 1; i >= 0; i--) {
+        Node n = path[i];
+        n.visits.addAndGet(1 - VIRTUAL_LOSS);
+        if (winner == n.color) {
+          n.score.addAndGet(2);
+        } else if (winner == TileState.EMPTY) {
+          n.score.addAndGet(1);
+        }
+        if (i > 0) {
+          board.unmakeMove(records[i]);
+        }
+      }
+    }
+
+    // makes the children of a position the first time it is reached: one for each move, one
+    // pass if the player to move has none, and none once the game is over
+    private Node[] expand(Node node) {
+      synchronized (node) {
+        if (node.children == null) {
+          int color = board.getCurrentColor();
+          int n = board.getGameOver() ? 0 : board.generateMoves(color, moves);
+          Node[] children;
+          if (n > 0) {
+            children = new Node[n];
+            for (int i = 0; i < n; i++) {
+              children[i] = new Node(moves.getCell(i), color);
+            }
+          } else if (!board.getGameOver() && board.hasAnyValidMove(TileState.opposite(color))) {
+            children = new Node[]{new Node(-1, color)};
+          } else {
+            children = Node.NONE;
+          }
+          node.children = children;
+        }
+        return node.children;
+      }
+    }
+
+    // picks the child with the best UCT value, any child that has never been tried first
+    private Node select(Node parent, Node[] children) {
+      double logParent = Math.log(Math.max(1, parent.visits.get()));
+      Node best = children[0];
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (Node child : children) {
+        int visits = child.visits.get();
+        if (visits == 0) {
+          return child;
+        }
+        double value = child.score.get() / (2.0 * visits)
+                + exploration * Math.sqrt(logParent / visits);
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    // plays random moves to the end of the game, always taking a corner when there is one, then
+    // takes them back and returns the color of the winner, or EMPTY for a draw. The records go
+    // after the ones of the path down the tree.
+    private int playout(int depth) {
+      int made = depth;
+      while (true) {
+        int color = board.getCurrentColor();
+        int n = board.getGameOver() ? 0 : board.generateMoves(color, moves);
+        UndoRecord record;
+        if (n == 0) {
+          if (board.getGameOver() || !board.hasAnyValidMove(TileState.opposite(color))) {
+            break;
+          }
+          record = board.makePass();
+        } else {
+          record = board.makeMove(moves.getCell(pick(n)));
+        }
+        if (record == null) {
+          break;
+        }
+        records[made++] = record;
+      }
+      int black = board.getScore(TileState.BLACK);
+      int white = board.getScore(TileState.WHITE);
+      while (made > depth) {
+        board.unmakeMove(records[--made]);
+      }
+      return black > white ? TileState.BLACK : white > black ? TileState.WHITE : TileState.EMPTY;
+    }
+
+    // the index of the move to play in a random game
+    private int pick(int n) {
+      for (int i = 0; i < n; i++) {
+        if (topology.isCorner(moves.getCell(i))) {
+          return i;
+        }
+      }
+      // xorshift, so choosing a move does not allocate or contend with other threads
+      seed ^= seed << 13;
+      seed ^= seed >>> 7;
+      seed ^= seed << 17;
+      return (int) ((seed >>> 33) % n);
+    }
+  }
+}
@@ -1,8 +1,6 @@
 package reversi.player.strategies;
 
-import java.util.List;
-
-import reversi.model.Coordinate;
+import reversi.model.MoveList;
 import reversi.model.ReadonlyReversiModel;
 import reversi.player.strategies.AStrategy;
 
@@ -21,12 +19,21 @@ public class MostPiecesStrategy extends AStrategy {
 
   // Every move in the array gets a value, the value is the amount of pieces the move flips.
   @Override
-  public int[] moveValues(String player) {
-    List<Coordinate> moves = model.allValidMoves(player);
+  public int[] moveValues(String player, MoveList moves) {
     int[] values = new int[moves.size()];
     for (int i = 0; i < moves.size(); i++) {
-      values[i] = model.isLegalMove(moves.get(i), player);
+      values[i] = moves.getFlips(i);
     }
     return values;
   }
+
+  // The same values, read from the flip counts in the context.
+  @Override
+  public double[] moveScores(String player, EvaluationContext context) {
+    double[] scores = new double[context.size()];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = context.getFlips(i);
+    }
+    return scores;
+  }
 }
@@ -0,0 +1,177 @@
+package reversi.player.strategies;
+
+import java.util.Arrays;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.player.TileState;
+
+/**
+ * Decides the order a search tries moves in, since alpha-beta cuts off far more when the best
+ * move comes first. Each move gets a key, highest first, built from:
+ * <ul>
+ *   <li>the best move a transposition table stored for the position, first of all,</li>
+ *   <li>the two killer moves of the ply, moves that caused a cutoff in a sibling position,</li>
+ *   <li>the static weight of the cell from the board topology: corners are good, edges are
+ *       fine, and the cells next to a corner are bad. The weight is fixed for each cell and
+ *       does not look at whether the corner is still empty,</li>
+ *   <li>the history of the cell for the color, which grows every time a move there causes a
+ *       cutoff anywhere in the search,</li>
+ *   <li>and last, moves that flip fewer discs.</li>
+ * </ul>
+ * An ordering keeps state for one search thread and is not safe to share between threads.
+ */
+public final class MoveOrdering {
+
+  // the parts of a key, from most to least important
+  private static final int TABLE_MOVE = 1 << 30;
+  private static final int FIRST_KILLER = 1 << 29;
+  private static final int SECOND_KILLER = 1 << 28;
+  private static final int WEIGHT_SCALE = 1 << 12;
+  // history values stay below this, so they never outweigh a static weight class
+  private static final int MAX_HISTORY = WEIGHT_SCALE / 2;
+
+  private static final int CORNER = 4;
+  private static final int EDGE = 1;
+  private static final int NEXT_TO_CORNER = -1;
+  private static final int X_SQUARE = -2;
+
+  private BoardTopology topology;
+  private int[] weights;
+  // history[color][cell], for the codes of both colors
+  private int[][] history;
+  // killers[ply][slot], -1 for none
+  private int[][] killers = new int[0][];
+
+  /**
+   * Gets ready to order moves on boards of the given topology, forgetting everything learned if
+   * it is a different one.
+   *
+   * @param topology the board to order moves on
+   */
+  public void reset(BoardTopology topology) {
+    if (topology == this.topology) {
+      return;
+    }
+    this.topology = topology;
+    int cells = topology.getCellCount();
+    weights = new int[cells];
+    for (int cell = 0; cell < cells; cell++) {
+      weights[cell] = staticWeight(topology, cell);
+    }
+    history = new int[TileState.WHITE + 1][cells];
+    killers = new int[0][];
+  }
+
+  /**
+   * Starts a new search: killers are forgotten, since the plies now mean different positions,
+   * and the history is halved so recent cutoffs count for more.
+   */
+  public void newSearch() {
+    for (int[] slots : killers) {
+      Arrays.fill(slots, -1);
+    }
+    if (history != null) {
+      for (int[] cells : history) {
+        for (int i = 0; i < cells.length; i++) {
+          cells[i] >>= 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives a key to each move of a list, to try them highest first.
+   *
+   * @param moves     the moves to order
+   * @param color     the color of the player to move
+   * @param ply       the distance from the root of the search
+   * @param tableMove the best move stored in a transposition table, or -1 if there is none
+   * @param keys      the array to put the key of the i-th move in, at least as long as the list
+   */
+  public void score(MoveList moves, int color, int ply, int tableMove, int[] keys) {
+    int[] slots = killersAt(ply);
+    int[] cellHistory = history[color];
+    for (int i = 0; i < moves.size(); i++) {
+      int cell = moves.getCell(i);
+      int key;
+      if (cell == tableMove) {
+        key = TABLE_MOVE;
+      } else if (cell == slots[0]) {
+        key = FIRST_KILLER;
+      } else if (cell == slots[1]) {
+        key = SECOND_KILLER;
+      } else {
+        key = weights[cell] * WEIGHT_SCALE + cellHistory[cell] - moves.getFlips(i);
+      }
+      keys[i] = key;
+    }
+  }
+
+  /**
+   * Gives the key of a single move from its static weight and flip count, without killers or
+   * history, for ordering root moves before anything has been searched.
+   *
+   * @param cell  the cell of the move
+   * @param flips the number of discs the move flips
+   * @return the key of the move
+   */
+  public int staticKey(int cell, int flips) {
+    return weights[cell] * WEIGHT_SCALE - flips;
+  }
+
+  /**
+   * Records that a move caused a beta cutoff, so it is tried earlier in sibling positions and
+   * anywhere else in the search.
+   *
+   * @param cell  the cell of the move
+   * @param color the color of the player who made it
+   * @param ply   the distance from the root of the search
+   * @param depth the depth that was left to search, deeper cutoffs count for more
+   */
+  public void cutoff(int cell, int color, int ply, int depth) {
+    int[] slots = killersAt(ply);
+    if (slots[0] != cell) {
+      slots[1] = slots[0];
+      slots[0] = cell;
+    }
+    int[] cellHistory = history[color];
+    cellHistory[cell] += depth * depth;
+    if (cellHistory[cell] >= MAX_HISTORY) {
+      for (int i = 0; i < cellHistory.length; i++) {
+        cellHistory[i] >>= 1;
+      }
+    }
+  }
+
+  // the killer slots of a ply, growing the table as the search goes deeper
+  private int[] killersAt(int ply) {
+    if (ply >= killers.length) {
+      int old = killers.length;
+      killers = Arrays.copyOf(killers, Math.max(ply + 1, old * 2));
+      for (int i = old; i < killers.length; i++) {
+        killers[i] = new int[]{-1, -1};
+      }
+    }
+    return killers[ply];
+  }
+
+  /**
+   * Gives the static weight of a cell of a board: corners, then edges, then the middle, then the
+   * cells next to a corner, then the X-squares.
+   *
+   * @param topology the board
+   * @param cell     the cell to weigh
+   * @return the weight class of the cell
+   */
+  public static int staticWeight(BoardTopology topology, int cell) {
+    if (topology.isCorner(cell)) {
+      return CORNER;
+    } else if (topology.isXSquare(cell)) {
+      return X_SQUARE;
+    } else if (topology.isNextToCorner(cell)) {
+      return NEXT_TO_CORNER;
+    }
+    return topology.isEdge(cell) ? EDGE : 0;
+  }
+}
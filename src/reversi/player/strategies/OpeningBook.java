@@ -0,0 +1,213 @@
+package reversi.player.strategies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+
+/**
+ * A book of known good opening moves, read from a file written by {@link OpeningBookBuilder}.
+ * The file is mapped into memory rather than read, so opening a book is instant however big it
+ * is, and the operating system shares its pages between every game that uses it. A book is
+ * never changed once opened and can be used by any number of threads.
+ *
+ * <p>The file starts with a header naming the board it was built for, followed by records of a
+ * position hash, the cell of a move from that position, the score the move was given and the
+ * number of times it was seen. The records are sorted by hash and then by cell, so the moves of
+ * a position are found with a binary search.
+ */
+public final class OpeningBook {
+
+  static final int MAGIC = 0x5256424B;
+  static final int VERSION = 1;
+  // magic, version, board type, board size and record count
+  static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8;
+  // hash, cell, score and visits
+  static final int RECORD_BYTES = 8 + 4 + 4 + 4;
+
+  private final ByteBuffer records;
+  private final String boardType;
+  private final int boardSize;
+  private final int count;
+
+  private OpeningBook(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+            || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not an opening book");
+    }
+    this.boardType = buffer.getInt(8) == 0 ? BoardTopology.HEX : BoardTopology.SQUARE;
+    this.boardSize = buffer.getInt(12);
+    long records = buffer.getLong(16);
+    if (records < 0 || HEADER_BYTES + records * RECORD_BYTES != buffer.capacity()) {
+      throw new IOException("The opening book is damaged");
+    }
+    this.count = (int) records;
+    this.records = buffer;
+  }
+
+  /**
+   * Opens the book in the given file by mapping it into memory.
+   *
+   * @param file the book file
+   * @return the book
+   * @throws IOException if the file cannot be read or is not an opening book
+   */
+  public static OpeningBook open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The opening book is too big");
+      }
+      return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Returns true if the book was built for boards like the given one. Position hashes are only
+   * comparable between boards of the same shape and size.
+   *
+   * @param topology the board to check
+   * @return true if the book can be used on that board
+   */
+  public boolean matches(BoardTopology topology) {
+    return topology.getType().equals(boardType) && topology.getSize() == boardSize;
+  }
+
+  /**
+   * Gives the number of records in the book.
+   *
+   * @return the record count
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Finds the first record of a position.
+   *
+   * @param hash the position hash
+   * @return the index of the first record with that hash, or -1 if the position is not in the
+   *         book
+   */
+  public int find(long hash) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (getHash(mid) < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low < count && getHash(low) == hash ? low : -1;
+  }
+
+  /**
+   * Gives the best book move of the current position of the model: the one with the highest
+   * score, then the most visits, among the moves that are legal in the position and in the
+   * given list of moves.
+   *
+   * @param model the game to look up
+   * @param moves the legal moves of the player to move
+   * @return the cell of the book move, or -1 if the position is not in the book or the book
+   *         does not fit the board
+   */
+  public int bestMove(ReadonlyReversiModel model, MoveList moves) {
+    if (!matches(model.getTopology())) {
+      return -1;
+    }
+    long hash = model.getPositionHash();
+    int best = -1;
+    for (int i = find(hash); i >= 0 && i < count && getHash(i) == hash; i++) {
+      if (!contains(moves, getCell(i))) {
+        continue;
+      }
+      if (best < 0 || getScore(i) > getScore(best)
+              || (getScore(i) == getScore(best) && getVisits(i) > getVisits(best))) {
+        best = i;
+      }
+    }
+    return best < 0 ? -1 : getCell(best);
+  }
+
+  /**
+   * Gives the position hash of a record.
+   *
+   * @param i the index of the record
+   * @return the hash of the position of the move
+   */
+  public long getHash(int i) {
+    return records.getLong(offset(i));
+  }
+
+  /**
+   * Gives the cell of the move of a record.
+   *
+   * @param i the index of the record
+   * @return the cell of the move
+   */
+  public int getCell(int i) {
+    return records.getInt(offset(i) + 8);
+  }
+
+  /**
+   * Gives the score of a record, from the point of view of the player making the move.
+   *
+   * @param i the index of the record
+   * @return the score of the move
+   */
+  public int getScore(int i) {
+    return records.getInt(offset(i) + 12);
+  }
+
+  /**
+   * Gives the number of times the move of a record was played or searched while the book grew.
+   *
+   * @param i the index of the record
+   * @return the visit count of the move
+   */
+  public int getVisits(int i) {
+    return records.getInt(offset(i) + 16);
+  }
+
+  /**
+   * Gives the type of board the book was built for.
+   *
+   * @return hex or square
+   */
+  public String getBoardType() {
+    return boardType;
+  }
+
+  /**
+   * Gives the size of board the book was built for.
+   *
+   * @return the board size
+   */
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  // gives the byte offset of a record, which must exist
+  private int offset(int i) {
+    if (i < 0 || i >= count) {
+      throw new IllegalArgumentException("No record at index " + i);
+    }
+    return HEADER_BYTES + i * RECORD_BYTES;
+  }
+
+  // returns true if the cell is one of the moves
+  private static boolean contains(MoveList moves, int cell) {
+    for (int i = 0; i < moves.size(); i++) {
+      if (moves.getCell(i) == cell) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,179 @@
+package reversi.player.strategies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import reversi.model.BoardTopology;
+import reversi.model.Coordinate;
+import reversi.model.ReversiModel;
+
+/**
+ * Collects opening moves and writes them as an {@link OpeningBook} file. Moves can be added one
+ * at a time from any source, or found by letting a search play games against itself. A book can
+ * be grown by starting a builder from it, adding more games and writing it out again.
+ */
+public final class OpeningBookBuilder {
+
+  private final BoardTopology topology;
+  // the score and visits of each move, by position hash and then cell
+  private final Map<Long, Map<Integer, long[]>> positions = new HashMap<>();
+  private int records;
+
+  /**
+   * Creates an empty book for boards of the given topology.
+   *
+   * @param topology the board the book is for
+   */
+  public OpeningBookBuilder(BoardTopology topology) {
+    if (topology == null) {
+      throw new IllegalArgumentException("Topology cannot be null");
+    }
+    this.topology = topology;
+  }
+
+  /**
+   * Creates a builder holding every move of an existing book, to grow it.
+   *
+   * @param book the book to start from
+   */
+  public OpeningBookBuilder(OpeningBook book) {
+    this(BoardTopology.of(book.getBoardType(), book.getBoardSize()));
+    for (int i = 0; i < book.size(); i++) {
+      add(book.getHash(i), book.getCell(i), book.getScore(i), book.getVisits(i));
+    }
+  }
+
+  /**
+   * Adds a move to the book. If the book already has the move, the visits are added together
+   * and the score becomes the average of the two, weighted by their visits.
+   *
+   * @param hash   the hash of the position the move is played from
+   * @param cell   the cell of the move
+   * @param score  the score of the move for the player making it
+   * @param visits the number of times the move was seen, at least one
+   * @throws IllegalArgumentException if the cell is not on the board or the visits are less
+   *                                  than one
+   */
+  public void add(long hash, int cell, int score, int visits) {
+    if (cell < 0 || cell >= topology.getCellCount()) {
+      throw new IllegalArgumentException("Cell is not on the board");
+    }
+    if (visits < 1) {
+      throw new IllegalArgumentException("Visits must be positive");
+    }
+    Map<Integer, long[]> moves = positions.computeIfAbsent(hash, h -> new HashMap<>());
+    long[] entry = moves.get(cell);
+    if (entry == null) {
+      moves.put(cell, new long[]{score, visits});
+      records++;
+    } else {
+      long total = entry[1] + visits;
+      entry[0] = (entry[0] * entry[1] + (long) score * visits) / total;
+      entry[1] = Math.min(total, Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Lets a search play the given game against itself for a number of moves, adding the move it
+   * finds in each position with the score of its search. To make later games branch out, a
+   * random legal move is played instead of the searched one some of the time.
+   *
+   * @param game    the game to play on, which the search must be playing on too
+   * @param search  the search to find the moves with
+   * @param plies   the number of moves to play
+   * @param random  the source of the random moves
+   * @param explore the chance of playing a random move, from 0 to 1
+   * @return the number of moves added
+   * @throws IllegalArgumentException if the game is not on this book's board
+   */
+  public int selfPlay(ReversiModel game, AlphaBetaStrategy search, int plies, Random random,
+                      double explore) {
+    if (game.getTopology() != topology) {
+      throw new IllegalArgumentException("The game is not on the board of the book");
+    }
+    int added = 0;
+    for (int ply = 0; ply < plies && !game.getGameOver(); ply++) {
+      String player = game.getCurrentPlayer();
+      List<Coordinate> legal = game.allValidMoves(player);
+      if (legal.isEmpty()) {
+        game.passTurn();
+        continue;
+      }
+      Coordinate move = search.bestMove(player);
+      add(game.getPositionHash(), game.cellIndex(move), search.getLastScore(), 1);
+      added++;
+      if (random.nextDouble() < explore) {
+        move = legal.get(random.nextInt(legal.size()));
+      }
+      game.doMove(move);
+    }
+    return added;
+  }
+
+  /**
+   * Gives the number of moves in the book so far.
+   *
+   * @return the record count
+   */
+  public int size() {
+    return records;
+  }
+
+  /**
+   * Writes the book to a file, replacing anything already there. Some systems do not allow a
+   * file to be replaced while a book has it mapped, so a grown book is best written to a new
+   * file.
+   *
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path file) throws IOException {
+    List<long[]> sorted = new ArrayList<>(records);
+    for (Map.Entry<Long, Map<Integer, long[]>> position : positions.entrySet()) {
+      for (Map.Entry<Integer, long[]> move : position.getValue().entrySet()) {
+        long[] entry = move.getValue();
+        sorted.add(new long[]{position.getKey(), move.getKey(), entry[0], entry[1]});
+      }
+    }
+    sorted.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = ByteBuffer.allocate(OpeningBook.HEADER_BYTES);
+      header.putInt(OpeningBook.MAGIC)
+              .putInt(OpeningBook.VERSION)
+              .putInt(topology.getType().equals(BoardTopology.HEX) ? 0 : 1)
+              .putInt(topology.getSize())
+              .putLong(sorted.size());
+      writeFully(channel, header);
+      ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.RECORD_BYTES * 4096);
+      for (long[] record : sorted) {
+        if (buffer.remaining() < OpeningBook.RECORD_BYTES) {
+          writeFully(channel, buffer);
+        }
+        buffer.putLong(record[0])
+                .putInt((int) record[1])
+                .putInt((int) record[2])
+                .putInt((int) record[3]);
+      }
+      writeFully(channel, buffer);
+    }
+  }
+
+  // writes everything put in the buffer and clears it
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
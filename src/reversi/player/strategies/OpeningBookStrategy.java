@@ -0,0 +1,78 @@
+package reversi.player.strategies;
+
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
+
+/**
+ * OpeningBookStrategy plays the book move when the position is in an {@link OpeningBook}, which
+ * takes no thinking time at all, and asks another strategy once the game leaves the book.
+ */
+public class OpeningBookStrategy extends AStrategy {
+
+  private final OpeningBook book;
+  private final Strategy fallback;
+  private boolean lastFromBook;
+
+  /**
+   * Creates a strategy that plays from the book before asking the given strategy.
+   *
+   * @param model    the model the strategy plays on.
+   * @param type     the type of board.
+   * @param book     the opening book to play from.
+   * @param fallback the strategy to play with once the game leaves the book.
+   * @throws IllegalArgumentException if the book or fallback is null.
+   */
+  public OpeningBookStrategy(ReadonlyReversiModel model, String type, OpeningBook book,
+                             Strategy fallback) {
+    super(model, type);
+    if (book == null || fallback == null) {
+      throw new IllegalArgumentException("Book and fallback strategy cannot be null");
+    }
+    this.book = book;
+    this.fallback = fallback;
+  }
+
+  // Gives the book move the only positive value when the position is in the book, and asks the
+  // fallback strategy otherwise.
+  @Override
+  public int[] moveValues(String player, MoveList moves) {
+    lastFromBook = false;
+    if (model.getCurrentColor() == TileState.codeOf(player)) {
+      int cell = book.bestMove(model, moves);
+      if (cell >= 0) {
+        int[] values = new int[moves.size()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = moves.getCell(i) == cell ? 1 : 0;
+        }
+        lastFromBook = true;
+        return values;
+      }
+    }
+    return fallback.moveValues(player, moves);
+  }
+
+  @Override
+  public void setThreads(int threads) {
+    fallback.setThreads(threads);
+  }
+
+  @Override
+  public void ponder(String player) {
+    fallback.ponder(player);
+  }
+
+  @Override
+  public void stopPondering() {
+    fallback.stopPondering();
+  }
+
+  /**
+   * Returns true if the last move was found in the book.
+   *
+   * @return true if the book chose the last move
+   */
+  public boolean wasFromBook() {
+    return lastFromBook;
+  }
+}
@@ -0,0 +1,59 @@
+package reversi.player.strategies;
+
+import reversi.model.ReadonlyReversiModel;
+
+/**
+ * An evaluation built from lookup tables: it reads the code of every {@link BoardPatterns}
+ * pattern on the board and adds up the weights the tables give those codes in the current phase
+ * of the game. Each pattern costs a few array reads, which makes it cheaper per position than
+ * counting moves, and with trained weights it knows far more about edges and corners than fixed
+ * bonuses do. It keeps no state, so one evaluator can be shared by any number of threads.
+ */
+public class PatternEvaluator implements Evaluator {
+
+  private final PatternWeights weights;
+
+  /**
+   * Creates an evaluation that scores with the given weights.
+   *
+   * @param weights the weight tables, usually trained by a {@link PatternTrainer}
+   * @throws IllegalArgumentException if the weights are null
+   */
+  public PatternEvaluator(PatternWeights weights) {
+    if (weights == null) {
+      throw new IllegalArgumentException("Weights cannot be null");
+    }
+    this.weights = weights;
+  }
+
+  // Adds up the weights of the pattern codes for both players, so the score for one player is
+  // the negation of the score for the other.
+  @Override
+  public int evaluate(ReadonlyReversiModel model, int color) {
+    if (model.getTopology() != weights.getTopology()) {
+      throw new IllegalArgumentException("The weights are for another board");
+    }
+    BoardPatterns patterns = weights.getPatterns();
+    int phase = weights.phaseOf(model);
+    float score = 0;
+    for (int p = 0; p < patterns.getPatternCount(); p++) {
+      float[] table = weights.table(phase, patterns.getGroup(p));
+      int code = patterns.code(model, p, color);
+      score += table[code] - table[mirror(code)];
+    }
+    return Math.round(score);
+  }
+
+  // the code of the same cells read for the other player: every 1 digit becomes a 2 and back
+  static int mirror(int code) {
+    int result = 0;
+    int place = 1;
+    while (code > 0) {
+      int digit = code % 3;
+      result += (digit == 0 ? 0 : 3 - digit) * place;
+      code /= 3;
+      place *= 3;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,373 @@
+package reversi.player.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.model.UndoRecord;
+import reversi.player.TileState;
+
+/**
+ * Fits {@link PatternWeights} to the results of games, offline. Each sample is a position and
+ * the final disc difference of the game it came from, for the player to move; training finds the
+ * weights whose evaluation is closest to those results by least-squares regression, with full
+ * batch gradient descent. Samples can be added one at a time or made by self-play, and both
+ * self-play and training split their work across a number of threads.
+ *
+ * <p>The evaluator scores a position for one player as the negation of its score for the other,
+ * so each sample trains both players at once and only needs to be stored for the player to move.
+ */
+public final class PatternTrainer {
+
+  // one move in eight is played at random in self-play, so the games try out new positions
+  private static final long EXPLORE_MASK = 7;
+
+  private final BoardTopology topology;
+  private final BoardPatterns patterns;
+  private final int phases;
+  private final int threads;
+  private final PatternWeights weights;
+  private final PatternEvaluator evaluator;
+
+  // the samples: patternCount codes each, then their phases and results
+  private int[] codes = new int[0];
+  private byte[] samplePhases = new byte[0];
+  private float[] results = new float[0];
+  private int size;
+  private double error = Double.NaN;
+
+  /**
+   * Creates a trainer with no samples, and weights of zero, for boards of the given topology.
+   *
+   * @param topology the board
+   * @param phases   the number of phases to split the game into, at least one
+   * @param threads  the number of threads to play and train with, at least one
+   * @throws IllegalArgumentException if there are no phases or threads
+   */
+  public PatternTrainer(BoardTopology topology, int phases, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must use at least one thread");
+    }
+    if (phases > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many phases");
+    }
+    this.weights = new PatternWeights(topology, phases);
+    this.topology = topology;
+    this.patterns = weights.getPatterns();
+    this.evaluator = new PatternEvaluator(weights);
+    this.phases = phases;
+    this.threads = threads;
+  }
+
+  /**
+   * Adds the current position of the model as a sample.
+   *
+   * @param model  the position
+   * @param result the final disc difference of the game, for the player to move in the position
+   * @throws IllegalArgumentException if the model is for another board
+   */
+  public synchronized void addSample(ReadonlyReversiModel model, int result) {
+    if (model.getTopology() != topology) {
+      throw new IllegalArgumentException("The model is for another board");
+    }
+    int count = patterns.getPatternCount();
+    ensureRoom();
+    int color = model.getCurrentColor();
+    for (int p = 0; p < count; p++) {
+      codes[size * count + p] = patterns.code(model, p, color);
+    }
+    samplePhases[size] = (byte) weights.phaseOf(model);
+    results[size] = result;
+    size++;
+  }
+
+  /**
+   * Plays games from the given position and adds every position of them as a sample. Each side
+   * plays the move the weights trained so far like best, one ply deep, except that one move in
+   * eight is random so the games keep finding new positions. With no training yet every move is
+   * random, so the usual way to train is to alternate self-play and training a few times, each
+   * round playing better games to learn from. Self-play must not run during training.
+   *
+   * @param start the position to play from, which is not changed
+   * @param games the number of games to play
+   * @param seed  the seed of the random moves, so the same seed gives the same samples
+   * @throws IllegalArgumentException if the position is for another board or games is negative
+   */
+  public void selfPlay(SearchableReversiModel start, int games, long seed) {
+    if (start.getTopology() != topology) {
+      throw new IllegalArgumentException("The model is for another board");
+    }
+    if (games < 0) {
+      throw new IllegalArgumentException("Cannot play a negative number of games");
+    }
+    List<Runnable> tasks = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      SearchableReversiModel board = start.copyForSearch();
+      int first = (int) ((long) games * t / threads);
+      int last = (int) ((long) games * (t + 1) / threads);
+      long threadSeed = seed * 31 + t + 1;
+      tasks.add(() -> {
+        long random = threadSeed == 0 ? 1 : threadSeed;
+        for (int game = first; game < last; game++) {
+          random = playGame(board, random);
+        }
+      });
+    }
+    runAll(tasks);
+  }
+
+  /**
+   * Gives the number of samples added so far.
+   *
+   * @return the sample count
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Improves the weights for the samples. Each epoch scores every sample with the current
+   * weights and moves the weight of each pattern code against its average error, so codes that
+   * are seen rarely still learn as fast as common ones.
+   *
+   * @param epochs       the number of passes over the samples
+   * @param learningRate how far to move the weights each pass, around 0.5 works well
+   * @return the trained weights, which later calls to train keep improving
+   * @throws IllegalArgumentException if epochs is negative or the learning rate is not positive
+   */
+  public synchronized PatternWeights train(int epochs, double learningRate) {
+    if (epochs < 0) {
+      throw new IllegalArgumentException("Cannot train for a negative number of epochs");
+    }
+    if (!(learningRate > 0)) {
+      throw new IllegalArgumentException("Learning rate must be positive");
+    }
+    float[][][][] gradients = new float[threads][phases][3][];
+    int[][][][] counts = new int[threads][phases][3][];
+    for (int t = 0; t < threads; t++) {
+      for (int phase = 0; phase < phases; phase++) {
+        for (int group = 0; group < 3; group++) {
+          gradients[t][phase][group] = new float[patterns.getTableSize(group)];
+          counts[t][phase][group] = new int[patterns.getTableSize(group)];
+        }
+      }
+    }
+    double[] squares = new double[threads];
+    for (int epoch = 0; epoch < epochs; epoch++) {
+      List<Runnable> tasks = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        tasks.add(() -> squares[thread] = gradient(thread, gradients[thread], counts[thread]));
+      }
+      runAll(tasks);
+      double sum = 0;
+      for (double square : squares) {
+        sum += square;
+      }
+      error = size == 0 ? Double.NaN : Math.sqrt(sum / size);
+      update(gradients, counts, learningRate);
+    }
+    return weights;
+  }
+
+  /**
+   * Gives the root mean square error, in discs, of the weights before the last epoch of
+   * training.
+   *
+   * @return the error, or NaN if there has been no training on any samples
+   */
+  public synchronized double getError() {
+    return error;
+  }
+
+  /**
+   * Gives the weights as trained so far.
+   *
+   * @return the weights
+   */
+  public PatternWeights getWeights() {
+    return weights;
+  }
+
+  // plays one game on the board, adds its positions as samples and takes the moves back,
+  // returning the random state to carry on from
+  private long playGame(SearchableReversiModel board, long random) {
+    MoveList moves = new MoveList();
+    List<UndoRecord> records = new ArrayList<>();
+    int count = patterns.getPatternCount();
+    List<int[]> gameCodes = new ArrayList<>();
+    List<Integer> colors = new ArrayList<>();
+    List<Integer> gamePhases = new ArrayList<>();
+    while (!board.getGameOver()) {
+      int color = board.getCurrentColor();
+      int n = board.generateMoves(color, moves);
+      UndoRecord record;
+      if (n == 0) {
+        if (!board.hasAnyValidMove(TileState.opposite(color))) {
+          break;
+        }
+        record = board.makePass();
+      } else {
+        int[] sample = new int[count];
+        for (int p = 0; p < count; p++) {
+          sample[p] = patterns.code(board, p, color);
+        }
+        gameCodes.add(sample);
+        colors.add(color);
+        gamePhases.add(weights.phaseOf(board));
+        // xorshift, so choosing a move does not allocate or contend with other threads
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        int pick = (int) ((random >>> 33) % n);
+        if ((random & EXPLORE_MASK) != 0) {
+          pick = greedyMove(board, moves, n, color, pick);
+        }
+        record = board.makeMove(moves.getCell(pick));
+      }
+      if (record == null) {
+        break;
+      }
+      records.add(record);
+    }
+    int black = board.getScore(TileState.BLACK) - board.getScore(TileState.WHITE);
+    for (int i = records.size() - 1; i >= 0; i--) {
+      board.unmakeMove(records.get(i));
+    }
+    synchronized (this) {
+      for (int i = 0; i < gameCodes.size(); i++) {
+        ensureRoom();
+        System.arraycopy(gameCodes.get(i), 0, codes, size * count, count);
+        samplePhases[size] = gamePhases.get(i).byteValue();
+        results[size] = colors.get(i) == TileState.BLACK ? black : -black;
+        size++;
+      }
+    }
+    return random;
+  }
+
+  // the move the weights so far think is best, looking from the given one so ties are broken at
+  // random
+  private int greedyMove(SearchableReversiModel board, MoveList moves, int n, int color,
+                         int from) {
+    int best = from;
+    int bestValue = Integer.MIN_VALUE;
+    for (int k = 0; k < n; k++) {
+      int i = (from + k) % n;
+      UndoRecord record = board.makeMove(moves.getCell(i));
+      int value = evaluator.evaluate(board, color);
+      board.unmakeMove(record);
+      if (value > bestValue) {
+        bestValue = value;
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  // makes sure there is room for one more sample
+  private void ensureRoom() {
+    if (size == results.length) {
+      int grown = Math.max(1024, size * 2);
+      codes = Arrays.copyOf(codes, grown * patterns.getPatternCount());
+      samplePhases = Arrays.copyOf(samplePhases, grown);
+      results = Arrays.copyOf(results, grown);
+    }
+  }
+
+  // adds up the error gradient of one thread's share of the samples, returning the sum of
+  // the squared errors
+  private double gradient(int thread, float[][][] gradient, int[][][] count) {
+    for (int phase = 0; phase < phases; phase++) {
+      for (int group = 0; group < 3; group++) {
+        Arrays.fill(gradient[phase][group], 0);
+        Arrays.fill(count[phase][group], 0);
+      }
+    }
+    int patternCount = patterns.getPatternCount();
+    int first = (int) ((long) size * thread / threads);
+    int last = (int) ((long) size * (thread + 1) / threads);
+    double squares = 0;
+    for (int s = first; s < last; s++) {
+      int phase = samplePhases[s];
+      int base = s * patternCount;
+      float predicted = 0;
+      for (int p = 0; p < patternCount; p++) {
+        float[] table = weights.table(phase, patterns.getGroup(p));
+        int code = codes[base + p];
+        predicted += table[code] - table[PatternEvaluator.mirror(code)];
+      }
+      float difference = results[s] - predicted;
+      squares += difference * difference;
+      for (int p = 0; p < patternCount; p++) {
+        int group = patterns.getGroup(p);
+        int code = codes[base + p];
+        int mirror = PatternEvaluator.mirror(code);
+        gradient[phase][group][code] += difference;
+        gradient[phase][group][mirror] -= difference;
+        count[phase][group][code]++;
+        count[phase][group][mirror]++;
+      }
+    }
+    return squares;
+  }
+
+  // moves every weight against the average error of the samples it was seen in
+  private void update(float[][][][] gradients, int[][][][] counts, double learningRate) {
+    double scale = learningRate / patterns.getPatternCount();
+    for (int phase = 0; phase < phases; phase++) {
+      for (int group = 0; group < 3; group++) {
+        float[] table = weights.table(phase, group);
+        for (int code = 0; code < table.length; code++) {
+          float sum = 0;
+          int seen = 0;
+          for (int t = 0; t < threads; t++) {
+            sum += gradients[t][phase][group][code];
+            seen += counts[t][phase][group][code];
+          }
+          if (seen > 0) {
+            table[code] += (float) (scale * sum / seen);
+          }
+        }
+      }
+    }
+  }
+
+  // runs the tasks on their own threads, the last on this one, and waits for them all
+  private void runAll(List<Runnable> tasks) {
+    if (tasks.size() == 1) {
+      tasks.get(0).run();
+      return;
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(tasks.size() - 1, r -> {
+      Thread thread = new Thread(r, "pattern-trainer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < tasks.size() - 1; t++) {
+        futures.add(pool.submit(tasks.get(t)));
+      }
+      tasks.get(tasks.size() - 1).run();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while training", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A training thread failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package reversi.player.strategies;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import reversi.model.BoardTopology;
+import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
+
+/**
+ * The weight tables of a {@link PatternEvaluator}: one table for each group of
+ * {@link BoardPatterns} in each phase of the game. The game is split into phases by how many
+ * discs are on the board, since a pattern that is good early can be bad near the end. Weights
+ * are in discs, and are usually fitted by a {@link PatternTrainer} and saved to a file.
+ */
+public final class PatternWeights {
+
+  private static final int MAGIC = 0x52565057;
+
+  private final BoardTopology topology;
+  private final BoardPatterns patterns;
+  // tables[phase][group][code]
+  private final float[][][] tables;
+
+  /**
+   * Creates weights of zero for boards of the given topology.
+   *
+   * @param topology the board
+   * @param phases   the number of phases to split the game into, at least one
+   * @throws IllegalArgumentException if there are no phases
+   */
+  public PatternWeights(BoardTopology topology, int phases) {
+    if (phases < 1) {
+      throw new IllegalArgumentException("Must have at least one phase");
+    }
+    this.topology = topology;
+    this.patterns = BoardPatterns.of(topology);
+    this.tables = new float[phases][3][];
+    for (int phase = 0; phase < phases; phase++) {
+      for (int group = 0; group < 3; group++) {
+        tables[phase][group] = new float[patterns.getTableSize(group)];
+      }
+    }
+  }
+
+  /**
+   * Gives the board the weights are for.
+   *
+   * @return the topology of the board
+   */
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gives the patterns the weights score.
+   *
+   * @return the patterns of the board
+   */
+  public BoardPatterns getPatterns() {
+    return patterns;
+  }
+
+  /**
+   * Gives the number of phases the game is split into.
+   *
+   * @return the phase count
+   */
+  public int getPhases() {
+    return tables.length;
+  }
+
+  /**
+   * Gives the phase of the current position of a model, from 0 at the start to getPhases() - 1
+   * when the board is full.
+   *
+   * @param model the position
+   * @return the phase of the position
+   */
+  public int phaseOf(ReadonlyReversiModel model) {
+    int cells = topology.getCellCount();
+    int discs = cells - model.getScore(TileState.EMPTY);
+    return Math.min(tables.length - 1, discs * tables.length / cells);
+  }
+
+  /**
+   * Gives the weight of a pattern code.
+   *
+   * @param phase the phase of the game
+   * @param group the group of the pattern
+   * @param code  the code of the pattern
+   * @return the weight, in discs
+   */
+  public float getWeight(int phase, int group, int code) {
+    return tables[phase][group][code];
+  }
+
+  // the table of a group in a phase, for the evaluator and trainer to use directly
+  float[] table(int phase, int group) {
+    return tables[phase][group];
+  }
+
+  /**
+   * Writes the weights to a file, replacing anything already there.
+   *
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeUTF(topology.getType());
+      out.writeInt(topology.getSize());
+      out.writeInt(tables.length);
+      for (float[][] phase : tables) {
+        for (float[] table : phase) {
+          out.writeInt(table.length);
+          for (float weight : table) {
+            out.writeFloat(weight);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads weights written by write.
+   *
+   * @param file the file to read
+   * @return the weights
+   * @throws IOException if the file cannot be read or does not hold weights for the patterns
+   */
+  public static PatternWeights read(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a pattern weights file");
+      }
+      String type = in.readUTF();
+      int size = in.readInt();
+      int phases = in.readInt();
+      if (size < 1 || phases < 1) {
+        throw new IOException("The pattern weights file is damaged");
+      }
+      PatternWeights weights = new PatternWeights(BoardTopology.of(type, size), phases);
+      for (float[][] phase : weights.tables) {
+        for (float[] table : phase) {
+          if (in.readInt() != table.length) {
+            throw new IOException("The pattern weights do not fit the board");
+          }
+          for (int i = 0; i < table.length; i++) {
+            table[i] = in.readFloat();
+          }
+        }
+      }
+      return weights;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package reversi.player.strategies;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
+
+/**
+ * A simple evaluation that works on any board shape: corners are worth a lot, tiles next to an
+ * empty corner cost a little, having more moves than the opponent is good, and discs themselves
+ * only start to matter as the board fills up. All of the geometry comes from the model's
+ * topology.
+ */
+public class PositionalEvaluator implements Evaluator {
+
+  private static final int CORNER = 30;
+  private static final int X_SQUARE = -12;
+  private static final int NEXT_TO_CORNER = -4;
+  private static final int MOBILITY = 4;
+
+  // scratch lists for counting moves, so evaluating does not allocate
+  private final MoveList ownMoves = new MoveList();
+  private final MoveList oppMoves = new MoveList();
+  // the corners of the last board scored, kept so they are not copied out of the topology again
+  private BoardTopology lastTopology;
+  private int[] corners;
+
+  @Override
+  public int evaluate(ReadonlyReversiModel model, int color) {
+    BoardTopology topology = model.getTopology();
+    if (topology != lastTopology) {
+      lastTopology = topology;
+      corners = topology.getCorners();
+    }
+    int opp = TileState.opposite(color);
+    int score = 0;
+    for (int corner : corners) {
+      int owner = model.getStateAt(corner);
+      if (owner != TileState.EMPTY) {
+        score += owner == color ? CORNER : -CORNER;
+        continue;
+      }
+      // tiles around an empty corner give it away
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        int n = topology.neighbor(d, corner);
+        if (n < 0) {
+          continue;
+        }
+        int state = model.getStateAt(n);
+        if (state != TileState.EMPTY) {
+          int weight = topology.isXSquare(n) ? X_SQUARE : NEXT_TO_CORNER;
+          score += state == color ? weight : -weight;
+        }
+      }
+    }
+    score += MOBILITY * (model.generateMoves(color, ownMoves)
+            - model.generateMoves(opp, oppMoves));
+    // discs count for more the fuller the board is
+    int empty = model.getScore(TileState.EMPTY);
+    int discs = model.getScore(color) - model.getScore(opp);
+    score += discs * (topology.getCellCount() - empty) / topology.getCellCount();
+    return score;
+  }
+
+  // Gives a new evaluator, since the scratch lists cannot be shared between threads.
+  @Override
+  public Evaluator copy() {
+    return new PositionalEvaluator();
+  }
+}
@@ -1,6 +1,7 @@
 package reversi.player.strategies;
 
 import reversi.model.Coordinate;
+import reversi.model.MoveList;
 
 /**
  * Evaluates how good of a choice a potential move is.
@@ -15,6 +16,39 @@ public interface Strategy {
    */
   int[] moveValues(String player);
 
+  /**
+   * Gives the value of each move in a list that was already generated for the player, so that
+   * several strategies can share one pass of move generation. The list must hold the player's
+   * moves in the order moveValues(String) uses. By default the list is not used and the moves
+   * are found again.
+   *
+   * @param player is the player for which to get the values.
+   * @param moves the legal moves of the player, from generateMoves.
+   * @return the array of values of each move.
+   */
+  default int[] moveValues(String player, MoveList moves) {
+    return moveValues(player);
+  }
+
+  /**
+   * Gives the value of each move in a shared evaluation context, as a double so that a
+   * CombinedStrategy can weight strategies without rounding them. Strategies that only need the
+   * moves and what kind of cell each is on can read them from the context instead of the board.
+   * By default the values are those of moveValues for the context's moves.
+   *
+   * @param player is the player for which to get the values.
+   * @param context the moves of the player and what is known about them.
+   * @return the array of values of each move, in the order of the context's moves.
+   */
+  default double[] moveScores(String player, EvaluationContext context) {
+    int[] values = moveValues(player, context.getMoves());
+    double[] scores = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      scores[i] = values[i];
+    }
+    return scores;
+  }
+
   /**
    * Gives the index of the Coordinate that represents the best move for the strategy
    * implementation. Ties are won by the upper-left coordinate. Returns the coordinate -1, -1 if
@@ -24,4 +58,46 @@ public interface Strategy {
    * @return the index representing the best move.
    */
   Coordinate bestMove(String player);
+
+  /**
+   * Gives a legal move for the player found at once, without searching, to play when a search
+   * for bestMove ran out of time or failed. Returns the coordinate -1, -1 if there are no valid
+   * moves, or if the strategy cannot tell, which is the default.
+   *
+   * @param player is the player for which to get the Coordinate.
+   * @return a legal move, or -1, -1.
+   */
+  default Coordinate quickMove(String player) {
+    return new Coordinate(-1, -1);
+  }
+
+  /**
+   * Sets how many threads the strategy may use to find a move. Strategies that only ever use
+   * one thread ignore it, which is the default.
+   *
+   * @param threads the number of threads, at least one.
+   * @throws IllegalArgumentException if the number of threads is less than one.
+   */
+  default void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search with at least one thread");
+    }
+  }
+
+  /**
+   * Starts thinking about the player's next move while the opponent is to move, in the
+   * background, so the time is not wasted. The next call to bestMove or moveValues stops it and
+   * uses what it found. Strategies that cannot ponder ignore it, which is the default.
+   *
+   * @param player is the player whose next move to think about.
+   */
+  default void ponder(String player) {
+  }
+
+  /**
+   * Stops any pondering and waits for it to end. Does nothing if the strategy is not pondering,
+   * which is the default.
+   */
+  default void stopPondering() {
+  }
 }
@@ -0,0 +1,180 @@
+package reversi.player.strategies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+
+/**
+ * The solved value and best move of every position reachable on a small board, read from a file
+ * written by {@link TablebaseBuilder}. Like the {@link OpeningBook}, the file is mapped into
+ * memory rather than read, never changes once opened and can be used by any number of threads.
+ *
+ * <p>The file has a header naming the board, an index of where the records of each range of
+ * hashes start, and the records, sorted by hash as an unsigned number. Each record is the
+ * position hash, the final disc difference with best play for the player to move, and the cell
+ * of the best move. A lookup jumps to the hash's range through the index and binary searches the
+ * handful of records in it.
+ */
+public final class Tablebase {
+
+  static final int MAGIC = 0x52565442;
+  static final int VERSION = 1;
+  // magic, version, board type, board size, index bits and record count
+  static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 4 + 4;
+  // hash, value and best move
+  static final int RECORD_BYTES = 8 + 1 + 2;
+
+  private final ByteBuffer buffer;
+  private final String boardType;
+  private final int boardSize;
+  private final int indexBits;
+  private final int count;
+  private final int recordStart;
+
+  private Tablebase(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+            || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not a tablebase");
+    }
+    this.boardType = buffer.getInt(8) == 0 ? BoardTopology.HEX : BoardTopology.SQUARE;
+    this.boardSize = buffer.getInt(12);
+    this.indexBits = buffer.getInt(16);
+    this.count = buffer.getInt(20);
+    if (indexBits < 1 || indexBits > 24 || count < 0) {
+      throw new IOException("The tablebase is damaged");
+    }
+    this.recordStart = HEADER_BYTES + ((1 << indexBits) + 1) * 4;
+    if ((long) recordStart + (long) count * RECORD_BYTES != buffer.capacity()) {
+      throw new IOException("The tablebase is damaged");
+    }
+    this.buffer = buffer;
+  }
+
+  /**
+   * Opens the tablebase in the given file by mapping it into memory.
+   *
+   * @param file the tablebase file
+   * @return the tablebase
+   * @throws IOException if the file cannot be read or is not a tablebase
+   */
+  public static Tablebase open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The tablebase is too big");
+      }
+      return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Returns true if the tablebase was built for boards like the given one.
+   *
+   * @param topology the board to check
+   * @return true if the tablebase can be used on that board
+   */
+  public boolean matches(BoardTopology topology) {
+    return topology.getType().equals(boardType) && topology.getSize() == boardSize;
+  }
+
+  /**
+   * Gives the number of positions in the tablebase.
+   *
+   * @return the record count
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Finds the record of a position.
+   *
+   * @param hash the position hash
+   * @return the index of the record, or -1 if the position is not in the tablebase
+   */
+  public int find(long hash) {
+    int bucket = (int) (hash >>> (64 - indexBits));
+    int low = buffer.getInt(HEADER_BYTES + bucket * 4);
+    int high = buffer.getInt(HEADER_BYTES + (bucket + 1) * 4);
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      long found = getHash(mid);
+      if (found == hash) {
+        return mid;
+      } else if (Long.compareUnsigned(found, hash) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gives the best move of the current position of the model, if the position is in the
+   * tablebase and the move is one of the given legal moves.
+   *
+   * @param model the game to look up
+   * @param moves the legal moves of the player to move
+   * @return the cell of the best move, or -1 if it is not known
+   */
+  public int bestMove(ReadonlyReversiModel model, MoveList moves) {
+    if (!matches(model.getTopology())) {
+      return -1;
+    }
+    int i = find(model.getPositionHash());
+    if (i < 0) {
+      return -1;
+    }
+    int cell = getBestMove(i);
+    for (int m = 0; m < moves.size(); m++) {
+      if (moves.getCell(m) == cell) {
+        return cell;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gives the position hash of a record.
+   *
+   * @param i the index of the record
+   * @return the hash of the position
+   */
+  public long getHash(int i) {
+    return buffer.getLong(offset(i));
+  }
+
+  /**
+   * Gives the final disc difference of a position with best play from both sides.
+   *
+   * @param i the index of the record
+   * @return the disc difference for the player to move
+   */
+  public int getValue(int i) {
+    return buffer.get(offset(i) + 8);
+  }
+
+  /**
+   * Gives the best move of a position.
+   *
+   * @param i the index of the record
+   * @return the cell of the best move, or -1 if the player to move must pass
+   */
+  public int getBestMove(int i) {
+    return buffer.getShort(offset(i) + 9);
+  }
+
+  // gives the byte offset of a record, which must exist
+  private int offset(int i) {
+    if (i < 0 || i >= count) {
+      throw new IllegalArgumentException("No record at index " + i);
+    }
+    return recordStart + i * RECORD_BYTES;
+  }
+}
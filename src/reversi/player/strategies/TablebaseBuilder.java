@@ -0,0 +1,269 @@
+package reversi.player.strategies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.model.SearchableReversiModel;
+import reversi.model.UndoRecord;
+import reversi.player.TileState;
+
+/**
+ * Solves a small board completely and writes the result as a {@link Tablebase} file. Starting
+ * from a position, usually the start of the game, it plays every line to the end and works each
+ * position's value back from its children, remembering every position it has solved so one
+ * reached by several move orders is only solved once. Every position reachable from the start
+ * ends up in the table, whatever either player does.
+ *
+ * <p>The number of reachable positions grows very fast with the board: 4x4 square and size 3
+ * hex boards have a few hundred thousand at most, but bigger boards quickly have too many to
+ * fit in memory, so the builder stops with an error once it has more than a given number.
+ */
+public final class TablebaseBuilder {
+
+  // the largest board whose values and cells fit in a record
+  private static final int MAX_CELLS = Byte.MAX_VALUE;
+
+  private final int maxPositions;
+  // an open-addressing table of the solved positions: the hash and the value and move packed
+  // into an int, with the hash 0 marking a free slot
+  private long[] hashes;
+  private int[] results;
+  private int mask;
+  private int size;
+  // the solved value of position 0, which cannot be stored in the table
+  private int zeroResult = Integer.MIN_VALUE;
+
+  private SearchableReversiModel board;
+  private MoveList[] plyMoves;
+
+  /**
+   * Creates a builder that gives up after the given number of positions.
+   *
+   * @param maxPositions the most positions to solve, at least one
+   * @throws IllegalArgumentException if the limit is less than one
+   */
+  public TablebaseBuilder(int maxPositions) {
+    if (maxPositions < 1) {
+      throw new IllegalArgumentException("Must allow at least one position");
+    }
+    this.maxPositions = maxPositions;
+    this.hashes = new long[1024];
+    this.results = new int[1024];
+    this.mask = 1023;
+  }
+
+  /**
+   * Solves every position reachable from the given one. The board is searched in place and is
+   * left as it was.
+   *
+   * @param start the position to solve from
+   * @return the final disc difference of the position with best play, for the player to move
+   * @throws IllegalArgumentException if the board is too big for a tablebase
+   * @throws IllegalStateException    if there are more reachable positions than the limit, in
+   *                                  which case the board is left part way through the search
+   */
+  public int solve(SearchableReversiModel start) {
+    if (start.getCellCount() > MAX_CELLS) {
+      throw new IllegalArgumentException("The board is too big for a tablebase");
+    }
+    board = start;
+    int plies = start.getCellCount() * 2 + 2;
+    plyMoves = new MoveList[plies];
+    for (int i = 0; i < plies; i++) {
+      plyMoves[i] = new MoveList();
+    }
+    try {
+      return valueOf(solve(0));
+    } finally {
+      board = null;
+    }
+  }
+
+  /**
+   * Gives the number of positions solved so far.
+   *
+   * @return the number of positions
+   */
+  public int size() {
+    return size + (zeroResult == Integer.MIN_VALUE ? 0 : 1);
+  }
+
+  /**
+   * Writes every solved position to a tablebase file for boards of the given topology.
+   *
+   * @param file     the file to write
+   * @param topology the board the positions were solved on
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path file, BoardTopology topology) throws IOException {
+    int total = size();
+    long[] sorted = new long[total];
+    int n = 0;
+    for (long hash : hashes) {
+      if (hash != 0) {
+        sorted[n++] = hash;
+      }
+    }
+    if (zeroResult != Integer.MIN_VALUE) {
+      sorted[n] = 0;
+    }
+    // sort as unsigned numbers, so the top bits of the hash give the index range
+    for (int i = 0; i < total; i++) {
+      sorted[i] ^= Long.MIN_VALUE;
+    }
+    Arrays.sort(sorted);
+    for (int i = 0; i < total; i++) {
+      sorted[i] ^= Long.MIN_VALUE;
+    }
+    int indexBits = Math.max(1, Math.min(24, 31 - Integer.numberOfLeadingZeros(total)));
+    int buckets = 1 << indexBits;
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES + (buckets + 1) * 4);
+      header.putInt(Tablebase.MAGIC)
+              .putInt(Tablebase.VERSION)
+              .putInt(topology.getType().equals(BoardTopology.HEX) ? 0 : 1)
+              .putInt(topology.getSize())
+              .putInt(indexBits)
+              .putInt(total);
+      int record = 0;
+      for (int bucket = 0; bucket <= buckets; bucket++) {
+        while (record < total && (int) (sorted[record] >>> (64 - indexBits)) < bucket) {
+          record++;
+        }
+        header.putInt(record);
+      }
+      writeFully(channel, header);
+      ByteBuffer buffer = ByteBuffer.allocate(Tablebase.RECORD_BYTES * 4096);
+      for (long hash : sorted) {
+        if (buffer.remaining() < Tablebase.RECORD_BYTES) {
+          writeFully(channel, buffer);
+        }
+        int result = find(hash);
+        buffer.putLong(hash).put((byte) valueOf(result)).putShort((short) moveOf(result));
+      }
+      writeFully(channel, buffer);
+    }
+  }
+
+  // solves the position on the board and returns its packed result
+  private int solve(int ply) {
+    long hash = board.getPositionHash();
+    int known = find(hash);
+    if (known != Integer.MIN_VALUE) {
+      return known;
+    }
+    int color = board.getCurrentColor();
+    MoveList moves = plyMoves[ply];
+    int n = board.generateMoves(color, moves);
+    int result;
+    if (n == 0) {
+      if (!board.hasAnyValidMove(TileState.opposite(color))) {
+        // the end of the game is not stored, it is cheap to score again
+        return pack(board.getScore(color) - board.getScore(TileState.opposite(color)), -1);
+      }
+      UndoRecord pass = board.makePass();
+      result = pack(-valueOf(solve(ply + 1)), -1);
+      board.unmakeMove(pass);
+    } else {
+      int best = Integer.MIN_VALUE;
+      int bestMove = -1;
+      for (int i = 0; i < n; i++) {
+        int cell = moves.getCell(i);
+        UndoRecord record = board.makeMove(cell);
+        int value = -valueOf(solve(ply + 1));
+        board.unmakeMove(record);
+        if (value > best) {
+          best = value;
+          bestMove = cell;
+        }
+      }
+      result = pack(best, bestMove);
+    }
+    store(hash, result);
+    return result;
+  }
+
+  // packs a value and a move, or -1 for none, into an int
+  private static int pack(int value, int move) {
+    return (value << 16) | ((move + 1) & 0xFFFF);
+  }
+
+  private static int valueOf(int result) {
+    return result >> 16;
+  }
+
+  private static int moveOf(int result) {
+    return (result & 0xFFFF) - 1;
+  }
+
+  // gives the packed result of a solved position, or Integer.MIN_VALUE if it is not solved
+  private int find(long hash) {
+    if (hash == 0) {
+      return zeroResult;
+    }
+    for (int i = slot(hash); ; i = (i + 1) & mask) {
+      if (hashes[i] == hash) {
+        return results[i];
+      } else if (hashes[i] == 0) {
+        return Integer.MIN_VALUE;
+      }
+    }
+  }
+
+  // remembers the result of a position, growing the table when it is half full
+  private void store(long hash, int result) {
+    if (size() >= maxPositions) {
+      throw new IllegalStateException("More than " + maxPositions + " reachable positions");
+    }
+    if (hash == 0) {
+      zeroResult = result;
+      return;
+    }
+    if ((size + 1) * 2 > hashes.length) {
+      long[] oldHashes = hashes;
+      int[] oldResults = results;
+      hashes = new long[oldHashes.length * 2];
+      results = new int[oldHashes.length * 2];
+      mask = hashes.length - 1;
+      for (int i = 0; i < oldHashes.length; i++) {
+        if (oldHashes[i] != 0) {
+          insert(oldHashes[i], oldResults[i]);
+        }
+      }
+    }
+    insert(hash, result);
+    size++;
+  }
+
+  // puts a position in the first free slot from its own
+  private void insert(long hash, int result) {
+    int i = slot(hash);
+    while (hashes[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    hashes[i] = hash;
+    results[i] = result;
+  }
+
+  // the first slot to look for a position in
+  private int slot(long hash) {
+    return (int) (hash ^ (hash >>> 29)) & mask;
+  }
+
+  // writes everything put in the buffer and clears it
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,79 @@
+package reversi.player.strategies;
+
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
+
+/**
+ * TablebaseStrategy plays perfectly on boards that have been solved completely, by looking up the
+ * best move of the position in a {@link Tablebase}. Positions that are not in the tablebase, such
+ * as games set up by hand, are left to another strategy.
+ */
+public class TablebaseStrategy extends AStrategy {
+
+  private final Tablebase tablebase;
+  private final Strategy fallback;
+  private boolean lastFromTable;
+
+  /**
+   * Creates a strategy that looks moves up before asking the given strategy.
+   *
+   * @param model     the model the strategy plays on.
+   * @param type      the type of board.
+   * @param tablebase the solved positions of the board.
+   * @param fallback  the strategy to play with when a position is not in the tablebase.
+   * @throws IllegalArgumentException if the tablebase or fallback is null.
+   */
+  public TablebaseStrategy(ReadonlyReversiModel model, String type, Tablebase tablebase,
+                           Strategy fallback) {
+    super(model, type);
+    if (tablebase == null || fallback == null) {
+      throw new IllegalArgumentException("Tablebase and fallback strategy cannot be null");
+    }
+    this.tablebase = tablebase;
+    this.fallback = fallback;
+  }
+
+  // Gives the best move the only positive value when the position is in the tablebase, and asks
+  // the fallback strategy otherwise.
+  @Override
+  public int[] moveValues(String player, MoveList moves) {
+    lastFromTable = false;
+    if (model.getCurrentColor() == TileState.codeOf(player)) {
+      int cell = tablebase.bestMove(model, moves);
+      if (cell >= 0) {
+        int[] values = new int[moves.size()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = moves.getCell(i) == cell ? 1 : 0;
+        }
+        lastFromTable = true;
+        return values;
+      }
+    }
+    return fallback.moveValues(player, moves);
+  }
+
+  @Override
+  public void setThreads(int threads) {
+    fallback.setThreads(threads);
+  }
+
+  @Override
+  public void ponder(String player) {
+    fallback.ponder(player);
+  }
+
+  @Override
+  public void stopPondering() {
+    fallback.stopPondering();
+  }
+
+  /**
+   * Returns true if the last move was looked up in the tablebase.
+   *
+   * @return true if the tablebase chose the last move
+   */
+  public boolean wasFromTable() {
+    return lastFromTable;
+  }
+}
@@ -0,0 +1,210 @@
+package reversi.player.strategies;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of search results keyed by the 64-bit position hash, so a search that
+ * reaches the same position through different move orders does not search it again. Each entry
+ * is two longs in one preallocated array: the packed data (score, best move, depth, bound and
+ * age) and the hash XORed with that data. A reader only trusts an entry whose two words XOR back
+ * to the hash it is looking for, so entries written at the same time by different threads, or
+ * torn writes, are rejected instead of being misread, and no locks are needed.
+ *
+ * <p>Entries are stored in buckets of two. A new result replaces the entry for the same
+ * position, or else the entry in the bucket that is least worth keeping: the shallowest one,
+ * where entries from earlier moves count as shallower the older they get.
+ */
+public final class TranspositionTable {
+
+  /**
+   * The stored score is the exact value of the position.
+   */
+  public static final int EXACT = 1;
+
+  /**
+   * The stored score is a lower bound, the search failed high.
+   */
+  public static final int LOWER = 2;
+
+  /**
+   * The stored score is an upper bound, the search failed low.
+   */
+  public static final int UPPER = 3;
+
+  // the bytes taken by one entry, two longs
+  private static final int ENTRY_BYTES = 16;
+  private static final int AGE_MASK = 0x3F;
+
+  // data layout: score in bits 0-31, move + 1 in bits 32-47, depth in bits 48-55, bound in bits
+  // 56-57 and age in bits 58-63. A data word of 0 is an empty entry because the bound is never 0.
+  private final long[] table;
+  // the number of buckets minus one, each bucket being two entries
+  private final int bucketMask;
+  private volatile int age;
+
+  /**
+   * Creates a table that uses about the given number of megabytes. The number of entries is
+   * rounded down to a power of two.
+   *
+   * @param megabytes the memory to use, at least 1
+   * @throws IllegalArgumentException if the size is less than 1 megabyte or too big for an array
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1 || megabytes > 8192) {
+      throw new IllegalArgumentException("Table size must be between 1 and 8192 megabytes");
+    }
+    long entries = Long.highestOneBit(megabytes * 1024L * 1024L / ENTRY_BYTES);
+    entries = Math.min(entries, 1L << 29);
+    this.table = new long[(int) entries * 2];
+    this.bucketMask = (int) (entries / 2 - 1);
+  }
+
+  /**
+   * Starts a new search, so results stored from now on are younger than the ones before and the
+   * old ones are replaced first.
+   */
+  public void newSearch() {
+    age = (age + 1) & AGE_MASK;
+  }
+
+  /**
+   * Removes every entry.
+   */
+  public void clear() {
+    Arrays.fill(table, 0);
+  }
+
+  /**
+   * Gives the number of entries the table holds.
+   *
+   * @return the capacity in entries
+   */
+  public int capacity() {
+    return table.length / 2;
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param hash the hash of the position
+   * @return the packed entry for the position, to be read with the static accessors, or 0 if it
+   *         is not in the table
+   */
+  public long probe(long hash) {
+    int base = bucketOf(hash);
+    for (int i = base; i < base + 4; i += 2) {
+      long data = table[i + 1];
+      if (data != 0 && (table[i] ^ data) == hash) {
+        return data;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Stores the result of searching a position.
+   *
+   * @param hash  the hash of the position
+   * @param depth the depth it was searched to, 0 to 255
+   * @param bound EXACT, LOWER or UPPER
+   * @param score the score found
+   * @param move  the cell of the best move found, or -1 if there is none
+   */
+  public void store(long hash, int depth, int bound, int score, int move) {
+    int currentAge = age;
+    long data = (score & 0xFFFFFFFFL)
+            | ((long) ((move + 1) & 0xFFFF) << 32)
+            | ((long) Math.min(Math.max(depth, 0), 255) << 48)
+            | ((long) bound << 56)
+            | ((long) currentAge << 58);
+    int base = bucketOf(hash);
+    int target = base;
+    int worst = Integer.MAX_VALUE;
+    for (int i = base; i < base + 4; i += 2) {
+      long old = table[i + 1];
+      if (old == 0 || (table[i] ^ old) == hash) {
+        // the same position keeps its best move if this search did not find one
+        if (old != 0 && move < 0) {
+          data = (data & ~(0xFFFFL << 32)) | (old & (0xFFFFL << 32));
+        }
+        target = i;
+        break;
+      }
+      int keep = depthOf(old) - 4 * ((currentAge - ageOf(old)) & AGE_MASK);
+      if (keep < worst) {
+        worst = keep;
+        target = i;
+      }
+    }
+    table[target + 1] = data;
+    table[target] = hash ^ data;
+  }
+
+  /**
+   * Gives an estimate of how full the table is with entries from the current search, in parts
+   * per thousand, by looking at the first thousand entries.
+   *
+   * @return the fill of the table, from 0 to 1000
+   */
+  public int fillPermille() {
+    int sample = Math.min(1000, capacity());
+    int used = 0;
+    for (int i = 0; i < sample; i++) {
+      long data = table[i * 2 + 1];
+      if (data != 0 && ageOf(data) == age) {
+        used++;
+      }
+    }
+    return used * 1000 / sample;
+  }
+
+  // gives the index of the first word of the bucket of a hash
+  private int bucketOf(long hash) {
+    return ((int) (hash ^ (hash >>> 32)) & bucketMask) << 2;
+  }
+
+  /**
+   * Gives the score of an entry.
+   *
+   * @param entry an entry returned by probe
+   * @return the stored score
+   */
+  public static int scoreOf(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Gives the best move of an entry.
+   *
+   * @param entry an entry returned by probe
+   * @return the cell of the stored move, or -1 if there is none
+   */
+  public static int moveOf(long entry) {
+    return (int) ((entry >>> 32) & 0xFFFF) - 1;
+  }
+
+  /**
+   * Gives the depth of an entry.
+   *
+   * @param entry an entry returned by probe
+   * @return the depth the position was searched to
+   */
+  public static int depthOf(long entry) {
+    return (int) ((entry >>> 48) & 0xFF);
+  }
+
+  /**
+   * Gives the kind of bound of an entry.
+   *
+   * @param entry an entry returned by probe
+   * @return EXACT, LOWER or UPPER
+   */
+  public static int boundOf(long entry) {
+    return (int) ((entry >>> 56) & 0x3);
+  }
+
+  // gives the age of an entry
+  private static int ageOf(long entry) {
+    return (int) (entry >>> 58) & AGE_MASK;
+  }
+}
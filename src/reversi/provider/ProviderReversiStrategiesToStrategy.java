@@ -54,6 +54,13 @@ public class ProviderReversiStrategiesToStrategy implements Strategy {
     }
   }
 
+  // the first of the valid moves, without asking the provider's strategy
+  @Override
+  public Coordinate quickMove(String player) {
+    List<Coordinate> validMoves = model.allValidMoves(player);
+    return validMoves.isEmpty() ? new Coordinate(-1, -1) : validMoves.get(0);
+  }
+
   //gets all the possible moves in hexacoords
   private ArrayList<HexaCoordinate> convertedMoves() {
     List<Coordinate> validMoves = model.allValidMoves(model.getCurrentPlayer());
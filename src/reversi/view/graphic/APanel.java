@@ -21,8 +21,10 @@ import javax.swing.event.MouseInputAdapter;
 import java.awt.event.MouseEvent;
 
 import reversi.controller.Features;
+import reversi.model.BoardTopology;
 import reversi.model.Coordinate;
 import reversi.model.ReadonlyReversiModel;
+import reversi.player.TileState;
 
 import static javax.swing.JOptionPane.showMessageDialog;
 
@@ -72,17 +74,14 @@ public abstract class APanel extends JPanel {
       translationClick(clicked);
 
       selected = false;
-      String[][] copy = model.getBoardCopy();
-      for (int row = 0; row < copy.length; row++) {
-        for (int col = 0; col < copy[row].length; col++) {
-          Point p = convertCoordToGame(model.indexToCoord(row, col));
-          Polygon shape = getShape(p);
-          if (shape.contains(clicked)) {
-            Coordinate currentCoord = model.indexToCoord(row, col);
-            if (!currentCoord.equals(selectedTile)) {
-              selected = true;
-              selectedTile = model.indexToCoord(row, col);
-            }
+      BoardTopology topology = model.getTopology();
+      for (int cell = 0; cell < topology.getCellCount(); cell++) {
+        Coordinate currentCoord = topology.coordOf(cell);
+        Polygon shape = getShape(convertCoordToGame(currentCoord));
+        if (shape.contains(clicked)) {
+          if (!currentCoord.equals(selectedTile)) {
+            selected = true;
+            selectedTile = currentCoord;
           }
         }
       }
@@ -157,34 +156,35 @@ public abstract class APanel extends JPanel {
 
     //boolean selected = false;
     g2d.transform(translationRender());
-    String[][] copy = model.getBoardCopy();
-    for (int row = 0; row < copy.length; row++) {
-      for (int col = 0; col < copy[row].length; col++) {
-        Point p = convertCoordToGame(model.indexToCoord(row, col));
-        Polygon shape = getShape(p);
-
-        // dark gray outline
-        g2d.setColor(Color.DARK_GRAY);
-        g2d.setStroke(new BasicStroke(4));
-        g2d.drawPolygon(shape);
-
-        // fill
-        g2d.setColor(Color.LIGHT_GRAY);
-        Coordinate currentCoord = model.indexToCoord(row, col);
-        if (currentCoord.equals(selectedTile)) {
-          g2d.setColor(Color.CYAN);
-        }
-        g2d.fill(shape);
-
-        //draw pieces
-        for (String s : colorsInGame) {
-          if (copy[row][col].equals(s)) {
-            g2d.setColor(this.getColor(s));
-            g2d.setStroke(new BasicStroke(1));
-            Ellipse2D piece = getPiece(p);
-            g2d.draw(piece);
-            g2d.fill(piece);
-          }
+    // the whole board is drawn from one position, even if a move is played meanwhile
+    ReadonlyReversiModel board = model.snapshot();
+    BoardTopology topology = board.getTopology();
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      Coordinate currentCoord = topology.coordOf(cell);
+      Point p = convertCoordToGame(currentCoord);
+      Polygon shape = getShape(p);
+
+      // dark gray outline
+      g2d.setColor(Color.DARK_GRAY);
+      g2d.setStroke(new BasicStroke(4));
+      g2d.drawPolygon(shape);
+
+      // fill
+      g2d.setColor(Color.LIGHT_GRAY);
+      if (currentCoord.equals(selectedTile)) {
+        g2d.setColor(Color.CYAN);
+      }
+      g2d.fill(shape);
+
+      //draw pieces
+      String tile = TileState.fromCode(board.getStateAt(cell)).toString();
+      for (String s : colorsInGame) {
+        if (tile.equals(s)) {
+          g2d.setColor(this.getColor(s));
+          g2d.setStroke(new BasicStroke(1));
+          Ellipse2D piece = getPiece(p);
+          g2d.draw(piece);
+          g2d.fill(piece);
         }
       }
     }
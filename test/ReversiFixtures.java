@@ -0,0 +1,61 @@
+import java.util.List;
+import java.util.Random;
+
+import reversi.model.Coordinate;
+import reversi.model.MoveList;
+import reversi.model.ReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.model.UndoRecord;
+import reversi.player.IPlayer;
+import reversi.player.Player;
+import reversi.player.TileState;
+
+/**
+ * Players, games and exact results shared by the tests.
+ */
+final class ReversiFixtures {
+
+  private ReversiFixtures() {
+  }
+
+  // a black and a white player, in turn order
+  static IPlayer[] players() {
+    return new IPlayer[]{new Player(TileState.black), new Player(TileState.white)};
+  }
+
+  // plays random moves until only the given number of tiles are empty or the game is over
+  static void playRandomly(ReversiModel model, int empties, long seed) {
+    Random rand = new Random(seed);
+    while (!model.getGameOver() && model.getScore("empty") > empties) {
+      List<Coordinate> moves = model.allValidMoves(model.getCurrentPlayer());
+      if (moves.isEmpty()) {
+        model.passTurn();
+      } else {
+        model.doMove(moves.get(rand.nextInt(moves.size())));
+      }
+    }
+  }
+
+  // the final disc difference for the player to move with best play, by trying every line
+  static int bruteForce(SearchableReversiModel model) {
+    int color = model.getCurrentColor();
+    int opp = TileState.opposite(color);
+    MoveList moves = new MoveList();
+    if (model.generateMoves(color, moves) == 0) {
+      if (!model.hasAnyValidMove(opp)) {
+        return model.getScore(color) - model.getScore(opp);
+      }
+      UndoRecord pass = model.makePass();
+      int result = -bruteForce(model);
+      model.unmakeMove(pass);
+      return result;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int i = 0; i < moves.size(); i++) {
+      UndoRecord record = model.makeMove(moves.getCell(i));
+      best = Math.max(best, -bruteForce(model));
+      model.unmakeMove(record);
+    }
+    return best;
+  }
+}
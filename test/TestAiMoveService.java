@@ -0,0 +1,242 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import reversi.controller.PlayerActions;
+import reversi.model.BasicReversiModel;
+import reversi.model.BitboardSquareReversiModel;
+import reversi.model.Coordinate;
+import reversi.player.AiMoveService;
+import reversi.player.Player;
+import reversi.player.TileState;
+import reversi.player.strategies.AlphaBetaStrategy;
+import reversi.player.strategies.MctsStrategy;
+import reversi.player.strategies.MostPiecesStrategy;
+import reversi.player.strategies.PositionalEvaluator;
+import reversi.player.strategies.Strategy;
+
+/**
+ * Tests for finding computer moves off the calling thread.
+ */
+public class TestAiMoveService {
+
+  private AiMoveService service;
+  private List<String> sent;
+  private CountDownLatch sentLatch;
+
+  @Before
+  public void init() {
+    // moves are handed back on the search thread, with a short deadline and no delay
+    service = new AiMoveService(1, 300, 0, Runnable::run);
+    sent = new ArrayList<>();
+    sentLatch = new CountDownLatch(1);
+  }
+
+  @After
+  public void shutdown() {
+    service.shutdown();
+  }
+
+  // records what a player sends, as "move q r" or "pass"
+  private PlayerActions recorder() {
+    return new PlayerActions() {
+      @Override
+      public void requestDoMove(Coordinate c) {
+        if (c.q != -1) {
+          synchronized (sent) {
+            sent.add("move " + c.q + " " + c.r);
+          }
+          sentLatch.countDown();
+        }
+      }
+
+      @Override
+      public void requestPass() {
+        synchronized (sent) {
+          sent.add("pass");
+        }
+        sentLatch.countDown();
+      }
+    };
+  }
+
+  // a strategy that takes the given time, then plays (1, 1)
+  private Strategy slow(long millis, CountDownLatch started) {
+    return new Strategy() {
+      @Override
+      public int[] moveValues(String player) {
+        return new int[0];
+      }
+
+      @Override
+      public Coordinate bestMove(String player) {
+        started.countDown();
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+          Thread.onSpinWait();
+        }
+        return new Coordinate(1, 1);
+      }
+    };
+  }
+
+  @Test
+  public void testMoveIsSentWhenFound() throws Exception {
+    BasicReversiModel model = new BasicReversiModel();
+    Player player = new Player(TileState.black);
+    player.setService(service);
+    player.addFeatures(recorder());
+    player.setStrat(new MostPiecesStrategy(model, "hex"));
+    Coordinate expected = new MostPiecesStrategy(model, "hex").bestMove("black");
+
+    Future<Coordinate> move = player.strategicMoveAsync();
+    Assert.assertEquals(expected, move.get(5, TimeUnit.SECONDS));
+    Assert.assertTrue(sentLatch.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals("move " + expected.q + " " + expected.r, sent.get(0));
+    Assert.assertEquals(1, service.getMoveCount());
+  }
+
+  @Test
+  public void testDeadlineMakesThePlayerPass() throws Exception {
+    Player player = new Player(TileState.black);
+    player.setService(service);
+    player.addFeatures(recorder());
+    player.setStrat(slow(2000, new CountDownLatch(1)));
+
+    Future<Coordinate> move = player.strategicMoveAsync();
+    Assert.assertTrue(sentLatch.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals("pass", sent.get(0));
+    Assert.assertEquals(1, service.getTimeoutCount());
+    try {
+      move.get();
+      Assert.fail("The move should have timed out");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof TimeoutException);
+    }
+  }
+
+  // a search on a real board that runs out of time, or fails, still plays a legal move
+  @Test
+  public void testTimedOutSearchStillPlaysAMove() throws Exception {
+    BasicReversiModel model = new BasicReversiModel();
+    Player player = new Player(TileState.black);
+    player.setService(service);
+    player.addFeatures(recorder());
+    player.setStrat(new MostPiecesStrategy(model, "hex") {
+      @Override
+      public Coordinate bestMove(String player) {
+        long end = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < end) {
+          Thread.onSpinWait();
+        }
+        return super.bestMove(player);
+      }
+    });
+
+    player.strategicMoveAsync();
+    Assert.assertTrue(sentLatch.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, service.getTimeoutCount());
+    Coordinate first = model.allValidMoves("black").get(0);
+    Assert.assertEquals("move " + first.q + " " + first.r, sent.get(0));
+  }
+
+  @Test
+  public void testFailedSearchStillPlaysAMove() throws Exception {
+    BasicReversiModel model = new BasicReversiModel();
+    Player player = new Player(TileState.black);
+    player.setService(service);
+    player.addFeatures(recorder());
+    player.setStrat(new MostPiecesStrategy(model, "hex") {
+      @Override
+      public Coordinate bestMove(String player) {
+        throw new IllegalArgumentException("The model cannot be searched");
+      }
+    });
+
+    player.strategicMoveAsync();
+    Assert.assertTrue(sentLatch.await(5, TimeUnit.SECONDS));
+    Assert.assertTrue(sent.get(0).startsWith("move "));
+    Assert.assertEquals(0, service.getTimeoutCount());
+  }
+
+  // a real search with no limit that runs out of time plays a legal move and frees its thread
+  private void checkTimedOutSearchEnds(BitboardSquareReversiModel model, Strategy strategy)
+          throws Exception {
+    Player player = new Player(TileState.black);
+    player.setService(service);
+    player.addFeatures(recorder());
+    player.setStrat(strategy);
+    player.setThreads(2);
+
+    player.strategicMoveAsync();
+    Assert.assertTrue(sentLatch.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, service.getTimeoutCount());
+    Assert.assertTrue(sent.get(0).startsWith("move "));
+    // the service has one thread, so this only finishes once the stopped search has ended
+    Future<Coordinate> next = service.submit(() -> new Coordinate(0, 0), c -> { });
+    Assert.assertEquals(new Coordinate(0, 0), next.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testTimedOutAlphaBetaSearchEnds() throws Exception {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    checkTimedOutSearchEnds(model, new AlphaBetaStrategy(model, "square", 0, 0, 64,
+            new PositionalEvaluator()));
+  }
+
+  @Test
+  public void testTimedOutMctsSearchEnds() throws Exception {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    checkTimedOutSearchEnds(model, new MctsStrategy(model, "square", 600_000, 0, Math.sqrt(2)));
+  }
+
+  @Test
+  public void testCancelledMoveIsNeverSent() throws Exception {
+    Player player = new Player(TileState.black);
+    player.setService(service);
+    player.addFeatures(recorder());
+    CountDownLatch started = new CountDownLatch(1);
+    player.setStrat(slow(100, started));
+
+    Future<Coordinate> move = player.strategicMoveAsync();
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    player.cancelMove();
+    Assert.assertTrue(move.isCancelled());
+    Assert.assertFalse(sentLatch.await(500, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(sent.isEmpty());
+    Assert.assertEquals(0, service.getTimeoutCount());
+  }
+
+  @Test
+  public void testMoveIsNotSentBeforeTheDelay() throws Exception {
+    AiMoveService delayed = new AiMoveService(1, 5000, 300, Runnable::run);
+    try {
+      long start = System.nanoTime();
+      CountDownLatch done = new CountDownLatch(1);
+      delayed.submit(() -> new Coordinate(2, 3), c -> done.countDown());
+      Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+      Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+      Assert.assertTrue(delayed.getMaxLatencyMillis() < 300);
+    } finally {
+      delayed.shutdown();
+    }
+  }
+
+  @Test
+  public void testPlayerWithoutStrategyDoesNothing() throws Exception {
+    Player player = new Player(TileState.white);
+    player.setService(service);
+    player.addFeatures(recorder());
+    Assert.assertEquals(new Coordinate(0, 0), player.strategicMoveAsync().get());
+    Assert.assertTrue(sent.isEmpty());
+  }
+}
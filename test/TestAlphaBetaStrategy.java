@@ -0,0 +1,261 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.BitboardSquareReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.MoveList;
+import reversi.model.ReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.player.IPlayer;
+import reversi.player.Player;
+import reversi.player.TileState;
+import reversi.player.strategies.AlphaBetaStrategy;
+import reversi.player.strategies.PositionalEvaluator;
+import reversi.player.strategies.TranspositionTable;
+
+/**
+ * Tests for the alpha-beta search strategy.
+ */
+public class TestAlphaBetaStrategy {
+
+  // the exact result of the game for the player to move: 1 for a win, 0 a draw and -1 a loss
+  private int solve(SearchableReversiModel model) {
+    return Integer.signum(ReversiFixtures.bruteForce(model));
+  }
+
+  private AlphaBetaStrategy unlimited(ReversiModel model, String type) {
+    return new AlphaBetaStrategy(model, type, 0, 0, 64, new PositionalEvaluator());
+  }
+
+  @Test
+  public void testFindsExactResultNearEnd() {
+    for (int seed = 0; seed < 10; seed++) {
+      BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+      ReversiFixtures.playRandomly(model, 7, seed);
+      if (model.getGameOver() || model.allValidMoves(model.getCurrentPlayer()).isEmpty()) {
+        continue;
+      }
+      AlphaBetaStrategy strategy = unlimited(model, "hex");
+      Coordinate move = strategy.bestMove(model.getCurrentPlayer());
+      Assert.assertTrue(model.isLegalMove(move, model.getCurrentPlayer()) > 0);
+      int expected = solve(model.copyForSearch());
+      int score = strategy.getLastScore();
+      int found = score >= AlphaBetaStrategy.WIN / 2 ? 1 : score <= -AlphaBetaStrategy.WIN / 2
+              ? -1 : 0;
+      Assert.assertEquals(expected, found);
+      // the chosen move must reach that result
+      SearchableReversiModel after = model.copyForSearch();
+      after.makeMove(after.cellIndex(move));
+      Assert.assertEquals(expected, -solve(after));
+    }
+  }
+
+  // helper threads share the table with the main search without changing its result
+  @Test
+  public void testParallelSearchFindsExactResult() {
+    for (int seed = 0; seed < 10; seed++) {
+      BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+      ReversiFixtures.playRandomly(model, 8, seed);
+      if (model.getGameOver() || model.allValidMoves(model.getCurrentPlayer()).isEmpty()) {
+        continue;
+      }
+      AlphaBetaStrategy strategy = unlimited(model, "hex");
+      strategy.setThreads(3);
+      Coordinate move = strategy.bestMove(model.getCurrentPlayer());
+      int expected = solve(model.copyForSearch());
+      SearchableReversiModel after = model.copyForSearch();
+      after.makeMove(after.cellIndex(move));
+      Assert.assertEquals(expected, -solve(after));
+    }
+  }
+
+  @Test
+  public void testThreadsFromPlayer() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    AlphaBetaStrategy strategy = unlimited(model, "hex");
+    IPlayer player = new Player(TileState.black);
+    player.setThreads(4);
+    player.setStrat(strategy);
+    Assert.assertEquals(4, strategy.getThreads());
+    player.setThreads(2);
+    Assert.assertEquals(2, strategy.getThreads());
+    Assert.assertThrows(IllegalArgumentException.class, () -> player.setThreads(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> strategy.setThreads(0));
+  }
+
+  @Test
+  public void testNodeBudgetStopsSearch() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(model, "square", 0, 5000, 64,
+            new PositionalEvaluator());
+    Coordinate move = strategy.bestMove("black");
+    Assert.assertTrue(model.isLegalMove(move, "black") > 0);
+    Assert.assertTrue(strategy.getLastDepth() >= 1);
+    Assert.assertTrue(strategy.getLastDepth() < 64);
+    Assert.assertTrue(strategy.getLastNodes() < 5000 + 1024);
+  }
+
+  @Test
+  public void testTimeBudget() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 6);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(model, "hex", 100, 0, 64,
+            new PositionalEvaluator());
+    long start = System.currentTimeMillis();
+    Coordinate move = strategy.bestMove("black");
+    Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+    Assert.assertTrue(model.isLegalMove(move, "black") > 0);
+  }
+
+  // the search works on a copy and leaves the game alone
+  @Test
+  public void testDoesNotChangeModel() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    String[][] before = model.getBoardCopy();
+    long hash = model.getPositionHash();
+    new AlphaBetaStrategy(model, "hex", 0, 20000, 6, new PositionalEvaluator())
+            .bestMove("black");
+    Assert.assertArrayEquals(before, model.getBoardCopy());
+    Assert.assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test
+  public void testNoMovesPasses() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    Assert.assertEquals(new Coordinate(-1, -1), unlimited(model, "hex").bestMove("empty"));
+  }
+
+  @Test
+  public void testInvalidLimits() {
+    BasicReversiModel model = new BasicReversiModel();
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AlphaBetaStrategy(model, "hex", -1, 0, 5, new PositionalEvaluator()));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AlphaBetaStrategy(model, "hex", 0, 0, 0, new PositionalEvaluator()));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AlphaBetaStrategy(model, "hex", 0, 0, 5, null));
+  }
+
+  // a depth-limited search that pondered the predicted reply to the end plays at once when the
+  // reply comes
+  @Test
+  public void testPonderHit() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaStrategy black = new AlphaBetaStrategy(model, "square", 0, 0, 4,
+            new PositionalEvaluator(), table);
+    model.doMove(black.bestMove("black"));
+    int predicted = TranspositionTable.moveOf(table.probe(model.getPositionHash()));
+    Assert.assertTrue(model.isLegalMove(predicted, TileState.WHITE) > 0);
+
+    black.ponder("black");
+    long end = System.currentTimeMillis() + 10_000;
+    while (black.isPondering() && System.currentTimeMillis() < end) {
+      Thread.onSpinWait();
+    }
+    model.doMove(model.getTopology().coordOf(predicted));
+    Coordinate move = black.bestMove("black");
+    Assert.assertEquals(1, black.getPonderHits());
+    Assert.assertEquals(4, black.getLastDepth());
+    Assert.assertTrue(model.isLegalMove(model.getTopology().cellIndex(move), TileState.BLACK) > 0);
+  }
+
+  // when the opponent plays something else the move is searched as usual
+  @Test
+  public void testPonderMiss() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaStrategy black = new AlphaBetaStrategy(model, "square", 0, 0, 4,
+            new PositionalEvaluator(), table);
+    model.doMove(black.bestMove("black"));
+    int predicted = TranspositionTable.moveOf(table.probe(model.getPositionHash()));
+
+    black.ponder("black");
+    MoveList replies = new MoveList();
+    model.generateMoves(TileState.WHITE, replies);
+    int other = replies.getCell(0) == predicted ? replies.getCell(1) : replies.getCell(0);
+    model.doMove(model.getTopology().coordOf(other));
+    Coordinate move = black.bestMove("black");
+    Assert.assertEquals(0, black.getPonderHits());
+    Assert.assertEquals(4, black.getLastDepth());
+    Assert.assertTrue(model.isLegalMove(model.getTopology().cellIndex(move), TileState.BLACK) > 0);
+  }
+
+  // a move pondered by several threads is played the same way as with one
+  @Test(timeout = 60_000)
+  public void testPonderHitWithHelperThreads() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaStrategy black = new AlphaBetaStrategy(model, "square", 0, 0, 4,
+            new PositionalEvaluator(), table);
+    black.setThreads(4);
+    model.doMove(black.bestMove("black"));
+    int predicted = TranspositionTable.moveOf(table.probe(model.getPositionHash()));
+
+    black.ponder("black");
+    long end = System.currentTimeMillis() + 10_000;
+    while (black.isPondering() && System.currentTimeMillis() < end) {
+      Thread.onSpinWait();
+    }
+    model.doMove(model.getTopology().coordOf(predicted));
+    Coordinate move = black.bestMove("black");
+    Assert.assertEquals(1, black.getPonderHits());
+    Assert.assertEquals(4, black.getLastDepth());
+    Assert.assertTrue(model.isLegalMove(model.getTopology().cellIndex(move), TileState.BLACK) > 0);
+  }
+
+  // pondering with helper threads stops at once when the opponent replies straight away,
+  // whether or not the reply was the predicted one
+  @Test(timeout = 60_000)
+  public void testPonderStopsWithHelperThreads() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaStrategy black = new AlphaBetaStrategy(model, "square", 50, 0, 30,
+            new PositionalEvaluator(), table);
+    black.setThreads(4);
+    MoveList replies = new MoveList();
+    for (int turn = 0; turn < 10 && !model.getGameOver(); turn++) {
+      model.doMove(black.bestMove("black"));
+      long entry = table.probe(model.getPositionHash());
+      black.ponder("black");
+      if (model.generateMoves(TileState.WHITE, replies) == 0) {
+        model.passTurn();
+        continue;
+      }
+      int reply = replies.getCell(replies.size() - 1);
+      if (turn % 2 == 0 && entry != 0
+              && model.isLegalMove(TranspositionTable.moveOf(entry), TileState.WHITE) > 0) {
+        reply = TranspositionTable.moveOf(entry);
+      }
+      model.doMove(model.getTopology().coordOf(reply));
+      if (turn == 5) {
+        black.setThreads(2);
+      }
+    }
+    black.stopPondering();
+    Assert.assertFalse(black.isPondering());
+  }
+
+  // the quick move is the one the last search stored for the position
+  @Test
+  public void testQuickMoveComesFromTheTable() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    AlphaBetaStrategy black = new AlphaBetaStrategy(model, "square", 0, 0, 4,
+            new PositionalEvaluator());
+    Coordinate quick = black.quickMove("black");
+    Assert.assertTrue(model.isLegalMove(model.getTopology().cellIndex(quick), TileState.BLACK) > 0);
+    Assert.assertEquals(black.bestMove("black"), black.quickMove("black"));
+  }
+
+  // pondering on the player's own turn, or after the game, does nothing
+  @Test
+  public void testPonderOnlyOnOpponentsTurn() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    AlphaBetaStrategy black = unlimited(model, "hex");
+    black.ponder("black");
+    black.stopPondering();
+    Coordinate move = black.bestMove("black");
+    Assert.assertEquals(0, black.getPonderHits());
+    Assert.assertTrue(model.isLegalMove(model.getTopology().cellIndex(move), TileState.BLACK) > 0);
+  }
+}
@@ -0,0 +1,181 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.BitboardHexReversiModel;
+import reversi.model.BitboardSquareReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.MoveList;
+import reversi.model.ReversiModel;
+import reversi.model.SquareReversiModel;
+
+/**
+ * Tests for the bitboard models, checking that they play exactly like the array models.
+ */
+public class TestBitboardModel {
+
+  private BitboardSquareReversiModel square8;
+  private BitboardHexReversiModel hex4;
+
+  @Before
+  public void init() {
+    square8 = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    hex4 = new BitboardHexReversiModel();
+  }
+
+  // plays random games on both models and checks that they always agree
+  private void playAlongside(ReversiModel expected, ReversiModel actual, long seed) {
+    Random rand = new Random(seed);
+    MoveList expectedMoves = new MoveList();
+    MoveList actualMoves = new MoveList(1);
+    while (!expected.getGameOver()) {
+      Assert.assertArrayEquals(expected.getBoardCopy(), actual.getBoardCopy());
+      Assert.assertEquals(expected.getCurrentPlayer(), actual.getCurrentPlayer());
+      Assert.assertEquals(expected.getPositionHash(), actual.getPositionHash());
+      for (String color : expected.getColors()) {
+        Assert.assertEquals(expected.allValidMoves(color), actual.allValidMoves(color));
+        Assert.assertEquals(expected.getScore(color), actual.getScore(color));
+      }
+      List<Coordinate> moves = expected.allValidMoves(expected.getCurrentPlayer());
+      int color = expected.getCurrentColor();
+      Assert.assertEquals(moves.size(), expected.generateMoves(color, expectedMoves));
+      Assert.assertEquals(moves.size(), actual.generateMoves(color, actualMoves));
+      for (int i = 0; i < moves.size(); i++) {
+        Assert.assertEquals(expected.cellIndex(moves.get(i)), actualMoves.getCell(i));
+        Assert.assertEquals(expectedMoves.getFlips(i), actualMoves.getFlips(i));
+        Assert.assertEquals(expected.isLegalMove(moves.get(i), expected.getCurrentPlayer()),
+                actualMoves.getFlips(i));
+      }
+      if (moves.isEmpty()) {
+        expected.passTurn();
+        actual.passTurn();
+      } else {
+        Coordinate move = moves.get(rand.nextInt(moves.size()));
+        Assert.assertEquals(expected.isLegalMove(move, expected.getCurrentPlayer()),
+                actual.isLegalMove(move, actual.getCurrentPlayer()));
+        expected.doMove(move);
+        actual.doMove(move);
+      }
+    }
+    Assert.assertTrue(actual.getGameOver());
+    Assert.assertArrayEquals(expected.getBoardCopy(), actual.getBoardCopy());
+  }
+
+  @Test
+  public void testStartingPieces() {
+    Assert.assertEquals("black", square8.getStateAt(new Coordinate(3, 3)));
+    Assert.assertEquals("white", square8.getStateAt(new Coordinate(3, 4)));
+    Assert.assertEquals("white", square8.getStateAt(new Coordinate(4, 3)));
+    Assert.assertEquals("black", square8.getStateAt(new Coordinate(4, 4)));
+    Assert.assertEquals("empty", square8.getStateAt(new Coordinate(0, 0)));
+    Assert.assertEquals(2, square8.getScore("black"));
+    Assert.assertEquals(60, square8.getScore("empty"));
+  }
+
+  @Test
+  public void testOddSizeThrows() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new BitboardSquareReversiModel(ReversiFixtures.players(), 7));
+  }
+
+  @Test
+  public void testOutOfBounds() {
+    IllegalArgumentException exception = Assert.assertThrows(IllegalArgumentException.class,
+        () -> square8.setStateAt(new Coordinate(8, 0), "black"));
+    Assert.assertEquals("Provided cooridnates are invalid", exception.getMessage());
+    Assert.assertEquals(0, square8.isLegalMove(new Coordinate(-1, 3), "black"));
+  }
+
+  @Test
+  public void testDoMoveFlips() {
+    square8.doMove(new Coordinate(2, 4));
+    Assert.assertEquals("black", square8.getStateAt(new Coordinate(2, 4)));
+    Assert.assertEquals("black", square8.getStateAt(new Coordinate(3, 4)));
+    Assert.assertEquals(4, square8.getScore("black"));
+    Assert.assertEquals(1, square8.getScore("white"));
+    Assert.assertEquals("white", square8.getCurrentPlayer());
+  }
+
+  @Test
+  public void testIllegalMoveThrows() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> square8.doMove(new Coordinate(0, 0)));
+  }
+
+  @Test
+  public void testMatchesArrayModelSingleWord() {
+    for (int seed = 0; seed < 20; seed++) {
+      playAlongside(new SquareReversiModel(ReversiFixtures.players(), 8),
+              new BitboardSquareReversiModel(ReversiFixtures.players(), 8), seed);
+    }
+  }
+
+  @Test
+  public void testMatchesArrayModelMultiWord() {
+    for (int seed = 0; seed < 10; seed++) {
+      playAlongside(new SquareReversiModel(ReversiFixtures.players(), 12),
+              new BitboardSquareReversiModel(ReversiFixtures.players(), 12), seed);
+    }
+  }
+
+  @Test
+  public void testHexStartingPieces() {
+    Assert.assertArrayEquals(new BasicReversiModel().getBoardCopy(), hex4.getBoardCopy());
+    Assert.assertEquals("black", hex4.getStateAt(new Coordinate(3, 2)));
+    Assert.assertEquals("white", hex4.getStateAt(new Coordinate(4, 2)));
+    Assert.assertEquals("white", hex4.getStateAt(new Coordinate(2, 3)));
+    Assert.assertEquals("black", hex4.getStateAt(new Coordinate(4, 3)));
+    Assert.assertEquals("black", hex4.getStateAt(new Coordinate(2, 4)));
+    Assert.assertEquals("white", hex4.getStateAt(new Coordinate(3, 4)));
+  }
+
+  // the corners of the parallelogram outside the hexagon are not tiles
+  @Test
+  public void testHexOutOfBounds() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> hex4.getStateAt(new Coordinate(1, 1)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> hex4.getStateAt(new Coordinate(5, 5)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> hex4.setStateAt(new Coordinate(7, 2), "black"));
+    Assert.assertEquals("empty", hex4.getStateAt(new Coordinate(6, 0)));
+    Assert.assertEquals("empty", hex4.getStateAt(new Coordinate(0, 6)));
+  }
+
+  // a move along the q axis must not wrap onto the next row through the padding bit
+  @Test
+  public void testHexNoWrapAcrossRows() {
+    hex4.setStateAt(new Coordinate(4, 2), "empty");
+    hex4.setStateAt(new Coordinate(6, 2), "white");
+    hex4.setStateAt(new Coordinate(0, 3), "black");
+    Assert.assertEquals(0, hex4.isLegalMove(new Coordinate(5, 2), "black"));
+  }
+
+  @Test
+  public void testHexDoMove() {
+    hex4.doMove(new Coordinate(4, 1));
+    Assert.assertEquals("black", hex4.getStateAt(new Coordinate(4, 1)));
+    Assert.assertEquals("black", hex4.getStateAt(new Coordinate(4, 2)));
+    Assert.assertEquals(5, hex4.getPlayersCopy()[0].getScore());
+  }
+
+  @Test
+  public void testMatchesHexModelSmall() {
+    for (int seed = 0; seed < 20; seed++) {
+      playAlongside(new BasicReversiModel(ReversiFixtures.players(), 4),
+              new BitboardHexReversiModel(ReversiFixtures.players(), 4), seed);
+    }
+  }
+
+  @Test
+  public void testMatchesHexModelLarge() {
+    for (int seed = 0; seed < 5; seed++) {
+      playAlongside(new BasicReversiModel(ReversiFixtures.players(), 12),
+              new BitboardHexReversiModel(ReversiFixtures.players(), 12), seed);
+    }
+  }
+}
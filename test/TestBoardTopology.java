@@ -0,0 +1,92 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.BoardTopology;
+import reversi.model.Coordinate;
+import reversi.model.SquareReversiModel;
+
+/**
+ * Tests for the shared board topology tables.
+ */
+public class TestBoardTopology {
+
+  @Test
+  public void testCachedPerShapeAndSize() {
+    Assert.assertSame(BoardTopology.hex(5), BoardTopology.hex(5));
+    Assert.assertSame(BoardTopology.square(8), BoardTopology.of("square", 8));
+    Assert.assertSame(BoardTopology.hex(4), BoardTopology.of("hex", 4));
+    Assert.assertNotSame(BoardTopology.hex(4), BoardTopology.square(4));
+    Assert.assertSame(new BasicReversiModel().getTopology(), new BasicReversiModel().getTopology());
+  }
+
+  @Test
+  public void testBadSizeThrows() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> BoardTopology.hex(0));
+  }
+
+  // the cell order is the same as the row order of getBoardCopy
+  @Test
+  public void testCellsMatchBoardCopy() {
+    BasicReversiModel hex = new BasicReversiModel(ReversiFixtures.players(), 5);
+    BoardTopology topology = hex.getTopology();
+    String[][] board = hex.getBoardCopy();
+    int cell = 0;
+    for (int row = 0; row < board.length; row++) {
+      Assert.assertEquals(board[row].length, topology.getRowLength(row));
+      for (int col = 0; col < board[row].length; col++) {
+        Coordinate c = hex.indexToCoord(row, col);
+        Assert.assertEquals(c, topology.coordOf(cell));
+        Assert.assertEquals(cell, topology.cellIndex(c));
+        cell++;
+      }
+    }
+    Assert.assertEquals(61, topology.getCellCount());
+    Assert.assertEquals(-1, topology.cellAt(0, 0));
+    Assert.assertEquals(-1, topology.cellAt(9, 4));
+  }
+
+  @Test
+  public void testNeighborsAndRays() {
+    BoardTopology topology = BoardTopology.square(8);
+    int cell = topology.cellAt(2, 5);
+    // direction 0 steps q by one
+    Assert.assertEquals(topology.cellAt(3, 5), topology.neighbor(0, cell));
+    Assert.assertEquals(5, topology.rayLength(0, cell));
+    Assert.assertEquals(topology.cellAt(7, 5), topology.rayCell(0, cell, 4));
+    Assert.assertEquals(-1, topology.neighbor(0, topology.cellAt(7, 5)));
+    Assert.assertEquals(0, topology.rayLength(0, topology.cellAt(7, 5)));
+  }
+
+  @Test
+  public void testHexCorners() {
+    BoardTopology topology = BoardTopology.hex(4);
+    Assert.assertEquals(6, topology.getCorners().length);
+    Assert.assertTrue(topology.isCorner(topology.cellAt(3, 0)));
+    Assert.assertTrue(topology.isCorner(topology.cellAt(0, 6)));
+    Assert.assertFalse(topology.isCorner(topology.cellAt(3, 3)));
+    Assert.assertTrue(topology.isXSquare(topology.cellAt(4, 0)));
+    Assert.assertTrue(topology.isXSquare(topology.cellAt(3, 1)));
+    Assert.assertTrue(topology.isNextToCorner(topology.cellAt(2, 1)));
+    Assert.assertFalse(topology.isNextToCorner(topology.cellAt(3, 0)));
+    Assert.assertTrue(topology.isEdge(topology.cellAt(3, 0)));
+    Assert.assertTrue(topology.isEdge(topology.cellAt(5, 0)));
+    Assert.assertFalse(topology.isEdge(topology.cellAt(3, 3)));
+    Assert.assertFalse(topology.isEdge(topology.cellAt(3, 1)));
+  }
+
+  @Test
+  public void testSquareCornersAndXSquares() {
+    BoardTopology topology = new SquareReversiModel(ReversiFixtures.players(), 8).getTopology();
+    Assert.assertEquals(4, topology.getCorners().length);
+    Assert.assertTrue(topology.isCorner(topology.cellAt(7, 0)));
+    Assert.assertTrue(topology.isXSquare(topology.cellAt(1, 1)));
+    Assert.assertTrue(topology.isXSquare(topology.cellAt(6, 1)));
+    Assert.assertFalse(topology.isXSquare(topology.cellAt(0, 1)));
+    Assert.assertTrue(topology.isNextToCorner(topology.cellAt(0, 1)));
+    Assert.assertFalse(topology.isNextToCorner(topology.cellAt(2, 2)));
+    Assert.assertTrue(topology.isEdge(topology.cellAt(3, 0)));
+    Assert.assertTrue(topology.isEdge(topology.cellAt(7, 5)));
+    Assert.assertFalse(topology.isEdge(topology.cellAt(2, 2)));
+  }
+}
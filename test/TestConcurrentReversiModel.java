@@ -0,0 +1,176 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import reversi.controller.ModelStatusFeatures;
+import reversi.model.BitboardHexReversiModel;
+import reversi.model.BitboardSquareReversiModel;
+import reversi.model.ConcurrentReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.ModelEvent;
+import reversi.model.MoveList;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.ReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.model.SquareReversiModel;
+import reversi.player.TileState;
+
+/**
+ * Tests for the model that can be read from many threads while it is played on.
+ */
+public class TestConcurrentReversiModel {
+
+  private SquareReversiModel plain;
+  private ConcurrentReversiModel shared;
+
+  @Before
+  public void init() {
+    plain = new SquareReversiModel(ReversiFixtures.players(), 8);
+    shared = new ConcurrentReversiModel(new SquareReversiModel(ReversiFixtures.players(), 8));
+  }
+
+  @Test
+  public void testPlaysLikeTheWrappedModel() {
+    Random rand = new Random(5);
+    while (!plain.getGameOver()) {
+      Assert.assertArrayEquals(plain.getBoardCopy(), shared.getBoardCopy());
+      Assert.assertEquals(plain.getCurrentPlayer(), shared.getCurrentPlayer());
+      Assert.assertEquals(plain.getPositionHash(), shared.getPositionHash());
+      Assert.assertEquals(plain.getScore("black"), shared.getScore("black"));
+      List<Coordinate> moves = plain.allValidMoves(plain.getCurrentPlayer());
+      Assert.assertEquals(moves, shared.allValidMoves(shared.getCurrentPlayer()));
+      if (moves.isEmpty()) {
+        plain.passTurn();
+        shared.passTurn();
+      } else {
+        Coordinate move = moves.get(rand.nextInt(moves.size()));
+        plain.doMove(move);
+        shared.doMove(move);
+      }
+    }
+    Assert.assertTrue(shared.getGameOver());
+    Assert.assertEquals(plain.getPositionHash(), shared.getPositionHash());
+  }
+
+  @Test
+  public void testSnapshotIsMadeOncePerChange() {
+    ReadonlyReversiModel before = shared.snapshot();
+    Assert.assertSame(before, shared.snapshot());
+    Coordinate move = shared.allValidMoves("black").get(0);
+    shared.doMove(move);
+    ReadonlyReversiModel after = shared.snapshot();
+    Assert.assertNotSame(before, after);
+    Assert.assertEquals("empty", before.getStateAt(move));
+    Assert.assertEquals("black", after.getStateAt(move));
+    Assert.assertEquals("black", shared.getStateAt(move));
+  }
+
+  @Test
+  public void testCopyForSearchIsIndependent() {
+    SearchableReversiModel copy = shared.copyForSearch();
+    long hash = shared.getPositionHash();
+    copy.makeMove(copy.cellIndex(copy.allValidMoves("black").get(0)));
+    Assert.assertEquals(hash, shared.getPositionHash());
+    Assert.assertNotSame(copy, shared.copyForSearch());
+  }
+
+  @Test
+  public void testListenersCanReadTheModel() {
+    List<Long> hashes = new ArrayList<>();
+    shared.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        // would never return if the write lock were still held
+        hashes.add(shared.getPositionHash());
+        shared.allValidMoves(shared.getCurrentPlayer());
+      }
+    });
+    shared.doMove(shared.allValidMoves("black").get(0));
+    Assert.assertEquals(List.of(shared.getPositionHash()), hashes);
+  }
+
+  @Test
+  public void testReadersSeeWholePositions() throws InterruptedException {
+    ConcurrentReversiModel big =
+            new ConcurrentReversiModel(new SquareReversiModel(ReversiFixtures.players(), 16));
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> problem = new AtomicReference<>();
+    Thread[] readers = new Thread[3];
+    for (int t = 0; t < readers.length; t++) {
+      readers[t] = new Thread(() -> {
+        while (!done.get()) {
+          ReadonlyReversiModel board = big.snapshot();
+          int total = board.getScore("black") + board.getScore("white")
+                  + board.getScore("empty");
+          if (total != board.getCellCount()) {
+            problem.set("Snapshot has " + total + " tiles");
+          }
+          for (int cell = 0; cell < big.getCellCount(); cell++) {
+            byte state = big.getStateAt(cell);
+            if (state < TileState.EMPTY || state > TileState.WHITE) {
+              problem.set("Read a bad tile " + state);
+            }
+          }
+        }
+      });
+      readers[t].start();
+    }
+    ReversiFixtures.playRandomly(big, 0, 9);
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join(10_000);
+    }
+    Assert.assertNull(problem.get());
+  }
+
+  // several threads reading the legal moves of a shared bitboard position all get them right
+  private void checkReadersAgree(ReversiModel model) throws InterruptedException {
+    ReversiFixtures.playRandomly(model, model.getCellCount() / 2, 4);
+    ConcurrentReversiModel game = new ConcurrentReversiModel(model);
+    int color = game.getCurrentColor();
+    MoveList expected = new MoveList();
+    game.generateMoves(color, expected);
+    Assert.assertFalse(expected.isEmpty());
+    List<Coordinate> expectedCoords = game.allValidMoves(game.getCurrentPlayer());
+    AtomicReference<String> problem = new AtomicReference<>();
+    Thread[] readers = new Thread[4];
+    for (int t = 0; t < readers.length; t++) {
+      readers[t] = new Thread(() -> {
+        MoveList moves = new MoveList();
+        for (int i = 0; i < 20_000 && problem.get() == null; i++) {
+          game.generateMoves(color, moves);
+          for (int m = 0; m < expected.size(); m++) {
+            if (moves.size() != expected.size() || moves.getCell(m) != expected.getCell(m)
+                    || moves.getFlips(m) != expected.getFlips(m)) {
+              problem.set("Wrong moves on read " + i);
+            }
+          }
+          if (!game.hasAnyValidMove(color)
+                  || game.isLegalMove(expected.getCell(0), color) != expected.getFlips(0)) {
+            problem.set("Wrong legality on read " + i);
+          }
+          if (i % 100 == 0 && !expectedCoords.equals(game.allValidMoves(game.getCurrentPlayer()))) {
+            problem.set("Wrong coordinates on read " + i);
+          }
+        }
+      });
+      readers[t].start();
+    }
+    for (Thread reader : readers) {
+      reader.join(30_000);
+    }
+    Assert.assertNull(problem.get());
+  }
+
+  @Test
+  public void testBitboardReadersAgree() throws InterruptedException {
+    checkReadersAgree(new BitboardSquareReversiModel(ReversiFixtures.players(), 8));
+    checkReadersAgree(new BitboardHexReversiModel(ReversiFixtures.players(), 6));
+  }
+}
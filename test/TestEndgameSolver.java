@@ -0,0 +1,84 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.BitboardSquareReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.ReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.model.SquareReversiModel;
+import reversi.player.strategies.EndgameSolver;
+import reversi.player.strategies.EndgameStrategy;
+import reversi.player.strategies.MostPiecesStrategy;
+
+/**
+ * Tests for the exact endgame solver.
+ */
+public class TestEndgameSolver {
+
+  private void checkExact(Supplier<ReversiModel> newGame, int empties, int seeds) {
+    EndgameSolver solver = new EndgameSolver(0);
+    for (int seed = 0; seed < seeds; seed++) {
+      ReversiModel game = newGame.get();
+      ReversiFixtures.playRandomly(game, empties, seed);
+      SearchableReversiModel copy = ((SearchableReversiModel) game).copyForSearch();
+      long hash = copy.getPositionHash();
+      Assert.assertTrue(solver.solve(copy));
+      Assert.assertEquals(hash, copy.getPositionHash());
+      int expected = ReversiFixtures.bruteForce(copy);
+      Assert.assertEquals(expected, solver.getDiscDifference());
+      Assert.assertEquals(Integer.signum(expected), solver.getOutcome());
+      // the best move reaches that result
+      if (solver.getBestMove() >= 0) {
+        copy.makeMove(solver.getBestMove());
+        Assert.assertEquals(expected, -ReversiFixtures.bruteForce(copy));
+      }
+    }
+  }
+
+  @Test
+  public void testExactOnHexBoard() {
+    checkExact(() -> new BasicReversiModel(ReversiFixtures.players(), 4), 9, 12);
+  }
+
+  @Test
+  public void testExactOnSquareBoards() {
+    checkExact(() -> new SquareReversiModel(ReversiFixtures.players(), 6), 9, 12);
+    checkExact(() -> new BitboardSquareReversiModel(ReversiFixtures.players(), 6), 9, 6);
+  }
+
+  @Test
+  public void testStrategyTakesOverNearEnd() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    EndgameStrategy strategy = new EndgameStrategy(model, "hex",
+            new MostPiecesStrategy(model, "hex"), 8, 0);
+    model.doMove(strategy.bestMove("black"));
+    Assert.assertFalse(strategy.wasSolved());
+    ReversiFixtures.playRandomly(model, 8, 3);
+    String player = model.getCurrentPlayer();
+    if (!model.allValidMoves(player).isEmpty()) {
+      Coordinate move = strategy.bestMove(player);
+      Assert.assertTrue(strategy.wasSolved());
+      SearchableReversiModel after = model.copyForSearch();
+      int expected = ReversiFixtures.bruteForce(model.copyForSearch());
+      after.makeMove(after.cellIndex(move));
+      Assert.assertEquals(expected, -ReversiFixtures.bruteForce(after));
+    }
+  }
+
+  // a solve that runs out of time gives up and leaves the board as it was
+  @Test
+  public void testTimeBudget() {
+    BitboardSquareReversiModel model = new BitboardSquareReversiModel(ReversiFixtures.players(), 8);
+    ReversiFixtures.playRandomly(model, 40, 1);
+    SearchableReversiModel copy = model.copyForSearch();
+    long hash = copy.getPositionHash();
+    long start = System.currentTimeMillis();
+    Assert.assertFalse(new EndgameSolver(50).solve(copy));
+    Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+    Assert.assertEquals(hash, copy.getPositionHash());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(-1));
+  }
+}
@@ -0,0 +1,264 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reversi.controller.GameEngine;
+import reversi.controller.ModelStatusFeatures;
+import reversi.model.BasicReversiModel;
+import reversi.model.BitboardHexReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.ModelEvent;
+import reversi.model.MoveList;
+import reversi.model.MoveResult;
+import reversi.model.ReadonlyReversiModel;
+import reversi.model.ReversiModel;
+import reversi.model.SearchableReversiModel;
+import reversi.player.IPlayer;
+import reversi.player.Player;
+import reversi.player.TileState;
+
+/**
+ * Tests for running a game on its own thread.
+ */
+public class TestGameEngine {
+
+  private BasicReversiModel model;
+  private GameEngine engine;
+
+  @Before
+  public void init() {
+    model = new BasicReversiModel(new IPlayer[]{new Player(TileState.black),
+        new Player(TileState.white)}, 4);
+    engine = new GameEngine(model, 64);
+  }
+
+  @After
+  public void shutdown() {
+    engine.shutdown();
+  }
+
+  @Test
+  public void testMoveIsApplied() throws Exception {
+    ReadonlyReversiModel before = engine.getSnapshot();
+    Coordinate c = before.allValidMoves("black").get(0);
+    MoveResult result = engine.submitMove(c).get(5, TimeUnit.SECONDS);
+    Assert.assertEquals("white", result.getNextPlayer());
+    ReadonlyReversiModel after = engine.getSnapshot();
+    Assert.assertEquals("black", after.getStateAt(c));
+    // an older snapshot is never changed
+    Assert.assertEquals("empty", before.getStateAt(c));
+    Assert.assertEquals(1, engine.getAppliedCount());
+  }
+
+  // a bitboard snapshot read by several threads at once gives each of them the right moves, and
+  // cannot be changed through its type
+  @Test
+  public void testSnapshotIsReadOnlyAndSharedByThreads() throws Exception {
+    BitboardHexReversiModel hex = new BitboardHexReversiModel(ReversiFixtures.players(), 6);
+    ReversiFixtures.playRandomly(hex, 40, 2);
+    GameEngine hexEngine = new GameEngine(hex, 4);
+    try {
+      ReadonlyReversiModel snapshot = hexEngine.getSnapshot();
+      Assert.assertFalse(snapshot instanceof ReversiModel);
+      Assert.assertFalse(snapshot instanceof SearchableReversiModel);
+      int color = snapshot.getCurrentColor();
+      int expected = snapshot.generateMoves(color, new MoveList());
+      Assert.assertTrue(expected > 0);
+      AtomicInteger wrong = new AtomicInteger();
+      Thread[] readers = new Thread[4];
+      for (int t = 0; t < readers.length; t++) {
+        readers[t] = new Thread(() -> {
+          MoveList moves = new MoveList();
+          for (int i = 0; i < 20_000; i++) {
+            if (snapshot.generateMoves(color, moves) != expected) {
+              wrong.incrementAndGet();
+            }
+          }
+        });
+        readers[t].start();
+      }
+      for (Thread reader : readers) {
+        reader.join(30_000);
+      }
+      Assert.assertEquals(0, wrong.get());
+    } finally {
+      hexEngine.shutdown();
+    }
+  }
+
+  // players taken from a snapshot are copies, so changing them leaves the snapshot as it was
+  @Test
+  public void testSnapshotPlayersAreCopies() throws Exception {
+    engine.submitStart().get(5, TimeUnit.SECONDS);
+    ReadonlyReversiModel snapshot = engine.getSnapshot();
+    IPlayer[] players = snapshot.getPlayersCopy();
+    Assert.assertEquals("black", players[0].getState());
+    int score = players[0].getScore();
+    players[0].setScore(score + 10);
+    players[0].setPassed(true);
+    IPlayer[] again = snapshot.getPlayersCopy();
+    Assert.assertNotSame(players[0], again[0]);
+    Assert.assertEquals(score, again[0].getScore());
+    Assert.assertFalse(again[0].getPassed());
+  }
+
+  @Test
+  public void testIllegalMoveFailsItsFuture() throws Exception {
+    try {
+      engine.submitMove(new Coordinate(0, 0)).get(5, TimeUnit.SECONDS);
+      Assert.fail("The move should have been illegal");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+    // the engine goes on after a failed command
+    engine.submitPass().get(5, TimeUnit.SECONDS);
+    Assert.assertEquals("white", engine.getSnapshot().getCurrentPlayer());
+  }
+
+  @Test
+  public void testManyThreadsPlayOneGame() throws Exception {
+    AtomicInteger played = new AtomicInteger();
+    List<String> seen = new ArrayList<>();
+    engine.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        for (ModelEvent e : events) {
+          if (e.getKind() == ModelEvent.Kind.MOVE_PLAYED) {
+            seen.add(e.getPlayer());
+          }
+        }
+      }
+    });
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      long seed = t;
+      threads[t] = new Thread(() -> {
+        Random rand = new Random(seed);
+        while (!engine.getSnapshot().getGameOver()) {
+          ReadonlyReversiModel snapshot = engine.getSnapshot();
+          List<Coordinate> moves = snapshot.allValidMoves(snapshot.getCurrentPlayer());
+          CompletableFuture<?> sent = moves.isEmpty() ? engine.submitPass()
+                  : engine.submitMove(moves.get(rand.nextInt(moves.size())));
+          try {
+            if (sent.get(5, TimeUnit.SECONDS) instanceof MoveResult) {
+              played.incrementAndGet();
+            }
+          } catch (ExecutionException e) {
+            // another thread moved first
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+          } catch (Exception e) {
+            throw new AssertionError(e);
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join(30_000);
+    }
+    Assert.assertTrue(engine.getSnapshot().getGameOver());
+    Assert.assertEquals(played.get(), seen.size());
+    Assert.assertArrayEquals(model.getBoardCopy(), engine.getSnapshot().getBoardCopy());
+  }
+
+  @Test
+  public void testFullQueueRejectsCommands() throws Exception {
+    GameEngine small = new GameEngine(new BasicReversiModel(), 1);
+    try {
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch busy = new CountDownLatch(1);
+      small.addFeatures(new ModelStatusFeatures() {
+        @Override
+        public void modelChanged(List<ModelEvent> events) {
+          busy.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+      CompletableFuture<Void> start = small.submitStart();
+      Assert.assertTrue(busy.await(5, TimeUnit.SECONDS));
+      CompletableFuture<Void> pass = small.submitPass();
+      try {
+        small.submitPass();
+        Assert.fail("The queue should have been full");
+      } catch (IllegalStateException expected) {
+        // the one waiting command fills the queue
+      }
+      release.countDown();
+      start.get(5, TimeUnit.SECONDS);
+      pass.get(5, TimeUnit.SECONDS);
+    } finally {
+      small.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailingListenerDoesNotStopTheEngine() throws Exception {
+    CountDownLatch handed = new CountDownLatch(2);
+    engine.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        throw new IllegalStateException("listener failed");
+      }
+    });
+    engine.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        handed.countDown();
+      }
+    });
+    engine.submitStart().get(5, TimeUnit.SECONDS);
+    engine.submitPass().get(5, TimeUnit.SECONDS);
+    Assert.assertTrue(handed.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(2, engine.getAppliedCount());
+  }
+
+  @Test
+  public void testCommandsRacingShutdownAllEnd() throws Exception {
+    for (int round = 0; round < 5000; round++) {
+      GameEngine racing = new GameEngine(new BasicReversiModel(), 8);
+      List<CompletableFuture<Void>> sent = new ArrayList<>();
+      Thread sender = new Thread(() -> {
+        while (true) {
+          try {
+            sent.add(racing.submitPass());
+          } catch (IllegalStateException e) {
+            if (e.getMessage().contains("shut down")) {
+              return;
+            }
+          }
+        }
+      });
+      sender.start();
+      racing.shutdown();
+      sender.join(5000);
+      for (CompletableFuture<Void> f : sent) {
+        try {
+          f.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException | CancellationException e) {
+          // applied with a failure, or cancelled by the shutdown
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoCommandsAfterShutdown() {
+    engine.shutdown();
+    engine.submitPass();
+  }
+}
@@ -0,0 +1,56 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.Coordinate;
+import reversi.player.strategies.MctsStrategy;
+
+/**
+ * Tests for the Monte Carlo tree search strategy.
+ */
+public class TestMctsStrategy {
+
+  @Test
+  public void testPlaysLegalMoveWithinBudget() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 5);
+    MctsStrategy strategy = new MctsStrategy(model, "hex", 0, 2000, Math.sqrt(2));
+    Coordinate move = strategy.bestMove("black");
+    Assert.assertTrue(model.isLegalMove(move, "black") > 0);
+    Assert.assertEquals(2000, strategy.getLastPlayouts());
+    Assert.assertEquals(2000, strategy.getRootVisits());
+  }
+
+  // after the strategy's move and the reply, the tree under the new position is kept
+  @Test
+  public void testReusesSubtree() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    MctsStrategy strategy = new MctsStrategy(model, "hex", 0, 3000, Math.sqrt(2));
+    model.doMove(strategy.bestMove("black"));
+    model.doMove(model.allValidMoves("white").get(0));
+    strategy.bestMove("black");
+    Assert.assertTrue(strategy.getRootVisits() > 3000);
+  }
+
+  @Test
+  public void testParallelSearch() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 5);
+    MctsStrategy strategy = new MctsStrategy(model, "hex", 0, 4000, 1.0);
+    strategy.setThreads(4);
+    Coordinate move = strategy.bestMove("black");
+    Assert.assertTrue(model.isLegalMove(move, "black") > 0);
+    Assert.assertTrue(strategy.getLastPlayouts() >= 4000);
+    // no virtual loss is left behind once every thread is done
+    Assert.assertEquals(strategy.getLastPlayouts(), strategy.getRootVisits());
+  }
+
+  @Test
+  public void testInvalidSettings() {
+    BasicReversiModel model = new BasicReversiModel();
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MctsStrategy(model, "hex", 0, 0, 1.0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MctsStrategy(model, "hex", 100, -1, 1.0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MctsStrategy(model, "hex", 100, 0, Double.NaN));
+  }
+}
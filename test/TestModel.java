@@ -3,10 +3,16 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import reversi.model.BasicReversiModel;
 import reversi.model.Coordinate;
+import reversi.model.MoveList;
+import reversi.model.MoveResult;
+import reversi.model.SearchableReversiModel;
 import reversi.model.SquareReversiModel;
+import reversi.model.UndoRecord;
 import reversi.player.IPlayer;
 
 import reversi.player.Player;
@@ -624,6 +630,32 @@ public class TestModel {
     Assert.assertEquals(simpleStarting.getScore(String.valueOf(TileState.black)), 0);
   }
 
+  //Test that overwriting a tile moves the count from the old state to the new one
+  @Test
+  public void testGetScoreOverwriteTile() {
+    simpleStarting.setStateAt(makeCordinate(3,2), String.valueOf(TileState.white));
+    simpleStarting.setStateAt(makeCordinate(3,2), String.valueOf(TileState.white));
+    simpleStarting.setStateAt(makeCordinate(3,0), String.valueOf(TileState.black));
+    Assert.assertEquals(simpleStarting.getScore(String.valueOf(TileState.white)), 4);
+    Assert.assertEquals(simpleStarting.getScore(String.valueOf(TileState.black)), 3);
+    Assert.assertEquals(simpleStarting.getScore(String.valueOf(TileState.empty)), 30);
+  }
+
+  //Test that the counts follow the placed disc and the flipped discs of a move
+  @Test
+  public void testGetScoreAfterMoves() {
+    simpleStarting.doMove(makeCordinate(4,1));
+    Assert.assertEquals(simpleStarting.getScore(TileState.BLACK), 5);
+    Assert.assertEquals(simpleStarting.getScore(TileState.WHITE), 2);
+    Assert.assertEquals(simpleStarting.getScore(TileState.EMPTY), 30);
+    Assert.assertEquals(simpleStarting.getPlayersCopy()[0].getScore(), 5);
+    Assert.assertEquals(simpleStarting.getPlayersCopy()[1].getScore(), 2);
+    simpleSquare.doMove(makeCordinate(0, 2));
+    Assert.assertEquals(simpleSquare.getScore(TileState.BLACK), 4);
+    Assert.assertEquals(simpleSquare.getScore(TileState.WHITE), 1);
+    Assert.assertEquals(simpleSquare.getScore(TileState.EMPTY), 11);
+  }
+
   //TODO test more getSCore with edge cases in refrence to if game is over
 
 
@@ -927,14 +959,169 @@ public class TestModel {
 
   }
 
+  // plays random games on two models, one of them maintaining moves incrementally, and checks
+  // that they always agree on the legal moves.
+  private void playIncrementalAlongside(BasicReversiModel normal, BasicReversiModel incremental,
+                                        long seed) {
+    incremental.setIncrementalMoves(true);
+    Random rand = new Random(seed);
+    while (!normal.getGameOver()) {
+      for (String color : normal.getColors()) {
+        Assert.assertEquals(normal.allValidMoves(color), incremental.allValidMoves(color));
+        int code = TileState.valueOf(color).ordinal();
+        Assert.assertEquals(normal.hasAnyValidMove(code), incremental.hasAnyValidMove(code));
+      }
+      List<Coordinate> moves = normal.allValidMoves(normal.getCurrentPlayer());
+      if (moves.isEmpty()) {
+        normal.passTurn();
+        incremental.passTurn();
+      } else {
+        Coordinate move = moves.get(rand.nextInt(moves.size()));
+        normal.doMove(move);
+        incremental.doMove(move);
+      }
+    }
+    Assert.assertTrue(incremental.getGameOver());
+  }
+
+  @Test
+  public void testIncrementalMovesMatch() {
+    for (int seed = 0; seed < 10; seed++) {
+      playIncrementalAlongside(new BasicReversiModel(5), new BasicReversiModel(5), seed);
+    }
+  }
+
+  // setting a tile by hand must also update the remembered moves
+  @Test
+  public void testIncrementalMovesAfterSetState() {
+    simpleStarting.setIncrementalMoves(true);
+    Assert.assertEquals(6, simpleStarting.allValidMoves("black").size());
+    simpleStarting.setStateAt(makeCordinate(4, 2), "black");
+    simpleStarting.setStateAt(makeCordinate(2, 3), "black");
+    simpleStarting.setStateAt(makeCordinate(3, 4), "black");
+    Assert.assertFalse(simpleStarting.hasAnyValidMove(TileState.BLACK));
+    Assert.assertFalse(simpleStarting.hasAnyValidMove(TileState.WHITE));
+    Assert.assertEquals(0, simpleStarting.allValidMoves("black").size());
+  }
+
+  @Test
+  public void testMakeMoveFlipsAndChangesTurn() {
+    UndoRecord record = simpleStarting.makeMove(simpleStarting.cellIndex(makeCordinate(4, 1)));
+    Assert.assertEquals("black", simpleStarting.getStateAt(makeCordinate(4, 1)));
+    Assert.assertEquals("black", simpleStarting.getStateAt(makeCordinate(4, 2)));
+    Assert.assertEquals("white", simpleStarting.getCurrentPlayer());
+    Assert.assertEquals(1, record.getFlipCount());
+    Assert.assertEquals(simpleStarting.cellIndex(makeCordinate(4, 2)), record.getFlipped(0));
+  }
+
+  @Test
+  public void testMakeMoveIllegalReturnsNull() {
+    int notLegal = simpleStarting.cellIndex(makeCordinate(3, 0));
+    Assert.assertEquals(null, simpleStarting.makeMove(notLegal));
+    Assert.assertEquals(null, simpleStarting.makeMove(-1));
+    Assert.assertEquals("black", simpleStarting.getCurrentPlayer());
+  }
 
+  @Test
+  public void testUnmakeMoveRestoresPosition() {
+    String[][] before = simpleStarting.getBoardCopy();
+    UndoRecord first = simpleStarting.makeMove(simpleStarting.cellIndex(makeCordinate(4, 1)));
+    UndoRecord second = simpleStarting.makeMove(simpleStarting.allValidMoves("white").isEmpty()
+            ? -1 : simpleStarting.cellIndex(simpleStarting.allValidMoves("white").get(0)));
+    simpleStarting.unmakeMove(second);
+    simpleStarting.unmakeMove(first);
+    Assert.assertArrayEquals(before, simpleStarting.getBoardCopy());
+    Assert.assertEquals("black", simpleStarting.getCurrentPlayer());
+    Assert.assertEquals(3, simpleStarting.getScore(TileState.BLACK));
+    Assert.assertEquals(3, simpleStarting.getScore(TileState.WHITE));
+  }
 
+  @Test
+  public void testUnmakeOutOfOrderThrows() {
+    UndoRecord first = simpleStarting.makeMove(simpleStarting.cellIndex(makeCordinate(4, 1)));
+    simpleStarting.makePass();
+    Assert.assertThrows(IllegalStateException.class, () -> simpleStarting.unmakeMove(first));
+  }
 
-  
+  @Test
+  public void testMakePassEndsGame() {
+    UndoRecord first = simpleStarting.makePass();
+    Assert.assertFalse(simpleStarting.getGameOver());
+    UndoRecord second = simpleStarting.makePass();
+    Assert.assertTrue(simpleStarting.getGameOver());
+    Assert.assertEquals(null, simpleStarting.makePass());
+    simpleStarting.unmakeMove(second);
+    simpleStarting.unmakeMove(first);
+    Assert.assertFalse(simpleStarting.getGameOver());
+    Assert.assertFalse(simpleStarting.getPlayersCopy()[0].getPassed());
+  }
 
+  @Test
+  public void testCopyForSearchIsDetached() {
+    SearchableReversiModel copy = simpleSquare.copyForSearch();
+    copy.makeMove(copy.cellIndex(makeCordinate(0, 2)));
+    Assert.assertEquals("empty", simpleSquare.getStateAt(makeCordinate(0, 2)));
+    Assert.assertEquals("black", copy.getStateAt(makeCordinate(0, 2)));
+  }
 
+  @Test
+  public void testPositionHashSameForSamePosition() {
+    Assert.assertEquals(new BasicReversiModel().getPositionHash(),
+            simpleStarting.getPositionHash());
+    Assert.assertEquals(simpleSquare.getPositionHash(),
+            simpleSquare.copyForSearch().getPositionHash());
+  }
 
+  @Test
+  public void testPositionHashFollowsMoves() {
+    long start = simpleStarting.getPositionHash();
+    UndoRecord move = simpleStarting.makeMove(simpleStarting.cellIndex(makeCordinate(4, 1)));
+    long afterMove = simpleStarting.getPositionHash();
+    Assert.assertNotEquals(start, afterMove);
+    UndoRecord pass = simpleStarting.makePass();
+    Assert.assertNotEquals(afterMove, simpleStarting.getPositionHash());
+    simpleStarting.unmakeMove(pass);
+    Assert.assertEquals(afterMove, simpleStarting.getPositionHash());
+    simpleStarting.unmakeMove(move);
+    Assert.assertEquals(start, simpleStarting.getPositionHash());
+  }
 
-}
+  @Test
+  public void testDoMoveResult() {
+    MoveResult result = simpleStarting.doMove(makeCordinate(4, 1));
+    Assert.assertEquals(makeCordinate(4, 1), result.getPlaced());
+    Assert.assertEquals(simpleStarting.cellIndex(makeCordinate(4, 1)), result.getCell());
+    Assert.assertEquals("black", result.getPlayer());
+    Assert.assertEquals(List.of(makeCordinate(4, 2)), result.getFlippedCoordinates());
+    Assert.assertEquals(5, result.getScore("black"));
+    Assert.assertEquals(2, result.getScore("white"));
+    Assert.assertEquals("white", result.getNextPlayer());
+    Assert.assertFalse(result.isGameOver());
+  }
 
+  // an illegal move is rejected without touching the board
+  @Test
+  public void testIllegalDoMoveLeavesBoard() {
+    String[][] before = simpleSquare.getBoardCopy();
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> simpleSquare.doMove(makeCordinate(0, 0)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> simpleSquare.doMove(makeCordinate(1, 1)));
+    Assert.assertArrayEquals(before, simpleSquare.getBoardCopy());
+    Assert.assertEquals(2, simpleSquare.getScore(TileState.BLACK));
+  }
 
+  @Test
+  public void testGenerateMoves() {
+    MoveList moves = new MoveList();
+    Assert.assertEquals(6, simpleStarting.generateMoves(TileState.BLACK, moves));
+    List<Coordinate> expected = simpleStarting.allValidMoves("black");
+    for (int i = 0; i < moves.size(); i++) {
+      Assert.assertEquals(expected.get(i), simpleStarting.cellToCoord(moves.getCell(i)));
+      Assert.assertEquals(1, moves.getFlips(i));
+    }
+    Assert.assertEquals(0, simpleStarting.generateMoves(TileState.EMPTY, moves));
+    Assert.assertTrue(moves.isEmpty());
+    Assert.assertThrows(IllegalArgumentException.class, () -> moves.getCell(0));
+  }
+}
@@ -0,0 +1,121 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import reversi.controller.ModelStatusFeatures;
+import reversi.model.BasicReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.ModelEvent;
+import reversi.model.MoveResult;
+import reversi.player.IPlayer;
+import reversi.player.Player;
+import reversi.player.TileState;
+
+/**
+ * Tests for the events the model hands its listeners.
+ */
+public class TestModelEvents {
+
+  private BasicReversiModel model;
+  private List<List<ModelEvent>> batches;
+  private List<String> messages;
+
+  @Before
+  public void init() {
+    model = new BasicReversiModel(new IPlayer[]{new Player(TileState.black),
+        new Player(TileState.white)}, 4);
+    batches = new ArrayList<>();
+    messages = new ArrayList<>();
+    model.addFeatures(new ModelStatusFeatures() {
+      @Override
+      public void modelChanged(List<ModelEvent> events) {
+        batches.add(events);
+        ModelStatusFeatures.super.modelChanged(events);
+      }
+
+      @Override
+      public void requestDisplayMessage(String s) {
+        messages.add(s);
+      }
+    });
+  }
+
+  // the kinds of the events of a batch, in order
+  private List<ModelEvent.Kind> kinds(List<ModelEvent> events) {
+    List<ModelEvent.Kind> kinds = new ArrayList<>();
+    for (ModelEvent e : events) {
+      kinds.add(e.getKind());
+    }
+    return kinds;
+  }
+
+  @Test
+  public void testMoveIsOneBatch() {
+    Coordinate c = model.allValidMoves(model.getCurrentPlayer()).get(0);
+    MoveResult result = model.doMove(c);
+    Assert.assertEquals(1, batches.size());
+    List<ModelEvent> events = batches.get(0);
+    Assert.assertEquals(List.of(ModelEvent.Kind.MOVE_PLAYED, ModelEvent.Kind.TURN_CHANGED),
+            kinds(events));
+    Assert.assertSame(result, events.get(0).getMove());
+    Assert.assertEquals("black", events.get(0).getPlayer());
+    Assert.assertTrue(events.get(0).getMove().getFlipCount() > 0);
+    Assert.assertEquals("white", events.get(1).getPlayer());
+    Assert.assertEquals(List.of("It's your turn!"), messages);
+  }
+
+  @Test
+  public void testIllegalMoveIsSentBeforeTheException() {
+    try {
+      model.doMove(new Coordinate(0, 0));
+      Assert.fail("The move should have been illegal");
+    } catch (IllegalArgumentException expected) {
+      // the listeners were still told
+    }
+    Assert.assertEquals(1, batches.size());
+    Assert.assertEquals(List.of(ModelEvent.Kind.ILLEGAL_MOVE), kinds(batches.get(0)));
+    Assert.assertEquals(List.of("Cannot perform move at given coordinates."), messages);
+  }
+
+  @Test
+  public void testPass() {
+    model.passTurn();
+    Assert.assertEquals(1, batches.size());
+    Assert.assertEquals(List.of(ModelEvent.Kind.PASSED, ModelEvent.Kind.TURN_CHANGED),
+            kinds(batches.get(0)));
+    Assert.assertEquals("black", batches.get(0).get(0).getPlayer());
+    Assert.assertEquals("white", batches.get(0).get(1).getPlayer());
+  }
+
+  @Test
+  public void testGameOverEndsTheLastBatch() {
+    model.passTurn();
+    model.passTurn();
+    List<ModelEvent> last = batches.get(batches.size() - 1);
+    Assert.assertEquals(ModelEvent.Kind.GAME_OVER, last.get(last.size() - 1).getKind());
+    Assert.assertEquals("Game Over", messages.get(messages.size() - 1));
+  }
+
+  @Test
+  public void testOneBatchPerCall() {
+    Random rand = new Random(3);
+    int calls = 0;
+    while (!model.getGameOver()) {
+      List<Coordinate> moves = model.allValidMoves(model.getCurrentPlayer());
+      if (moves.isEmpty()) {
+        model.passTurn();
+      } else {
+        model.doMove(moves.get(rand.nextInt(moves.size())));
+      }
+      calls++;
+      Assert.assertEquals(calls, batches.size());
+    }
+    for (List<ModelEvent> events : batches) {
+      Assert.assertFalse(events.isEmpty());
+    }
+  }
+}
@@ -0,0 +1,69 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import reversi.model.BoardTopology;
+import reversi.model.MoveList;
+import reversi.player.TileState;
+import reversi.player.strategies.MoveOrdering;
+
+/**
+ * Tests for the move ordering used by the searches.
+ */
+public class TestMoveOrdering {
+
+  private BoardTopology topology;
+  private MoveOrdering ordering;
+  private MoveList moves;
+  private int[] keys;
+
+  @Before
+  public void init() {
+    topology = BoardTopology.square(8);
+    ordering = new MoveOrdering();
+    ordering.reset(topology);
+    moves = new MoveList();
+    moves.add(topology.cellAt(3, 3), 1);
+    moves.add(topology.cellAt(0, 0), 1);
+    moves.add(topology.cellAt(1, 1), 1);
+    moves.add(topology.cellAt(0, 3), 1);
+    keys = new int[moves.size()];
+  }
+
+  @Test
+  public void testStaticWeights() {
+    ordering.score(moves, TileState.BLACK, 0, -1, keys);
+    // corner, then edge, then middle, then X-square
+    Assert.assertTrue(keys[1] > keys[3]);
+    Assert.assertTrue(keys[3] > keys[0]);
+    Assert.assertTrue(keys[0] > keys[2]);
+    Assert.assertEquals(1, MoveOrdering.staticWeight(topology, topology.cellAt(0, 3)));
+  }
+
+  @Test
+  public void testTableMoveThenKillers() {
+    ordering.cutoff(topology.cellAt(3, 3), TileState.BLACK, 2, 4);
+    ordering.score(moves, TileState.BLACK, 2, topology.cellAt(1, 1), keys);
+    Assert.assertTrue(keys[2] > keys[0]);
+    Assert.assertTrue(keys[0] > keys[1]);
+    // killers belong to their ply
+    ordering.score(moves, TileState.BLACK, 3, -1, keys);
+    Assert.assertTrue(keys[1] > keys[0]);
+  }
+
+  // history counts for the color it was learned for and never outweighs a weight class
+  @Test
+  public void testHistory() {
+    int middle = topology.cellAt(3, 3);
+    ordering.score(moves, TileState.WHITE, 5, -1, keys);
+    int before = keys[0];
+    for (int i = 0; i < 100; i++) {
+      ordering.cutoff(middle, TileState.WHITE, 0, 10);
+    }
+    ordering.score(moves, TileState.WHITE, 5, -1, keys);
+    Assert.assertTrue(keys[0] > before);
+    Assert.assertTrue(keys[3] > keys[0]);
+    ordering.score(moves, TileState.BLACK, 5, -1, keys);
+    Assert.assertEquals(before, keys[0]);
+  }
+}
@@ -0,0 +1,117 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.BoardTopology;
+import reversi.model.Coordinate;
+import reversi.model.MoveList;
+import reversi.model.SquareReversiModel;
+import reversi.player.TileState;
+import reversi.player.strategies.AlphaBetaStrategy;
+import reversi.player.strategies.MostPiecesStrategy;
+import reversi.player.strategies.OpeningBook;
+import reversi.player.strategies.OpeningBookBuilder;
+import reversi.player.strategies.OpeningBookStrategy;
+import reversi.player.strategies.PositionalEvaluator;
+
+/**
+ * Tests for the opening book and its builder.
+ */
+public class TestOpeningBook {
+
+  private Path file;
+
+  @Before
+  public void init() throws IOException {
+    file = Files.createTempFile("book", ".bin");
+    file.toFile().deleteOnExit();
+  }
+
+  @Test
+  public void testWriteAndLookUp() throws IOException {
+    BoardTopology topology = BoardTopology.square(6);
+    OpeningBookBuilder builder = new OpeningBookBuilder(topology);
+    builder.add(42, 7, 10, 1);
+    builder.add(42, 7, 20, 3);
+    builder.add(42, 3, 5, 1);
+    builder.add(-5, 1, 0, 1);
+    builder.add(100, 2, 0, 1);
+    Assert.assertEquals(4, builder.size());
+    builder.write(file);
+
+    OpeningBook book = OpeningBook.open(file);
+    Assert.assertEquals(4, book.size());
+    Assert.assertTrue(book.matches(topology));
+    Assert.assertFalse(book.matches(BoardTopology.hex(6)));
+    Assert.assertEquals(0, book.find(-5));
+    int first = book.find(42);
+    Assert.assertEquals(1, first);
+    Assert.assertEquals(3, book.getCell(first));
+    Assert.assertEquals(7, book.getCell(first + 1));
+    // the scores of a move seen twice are averaged by visits
+    Assert.assertEquals(17, book.getScore(first + 1));
+    Assert.assertEquals(4, book.getVisits(first + 1));
+    Assert.assertEquals(-1, book.find(43));
+  }
+
+  @Test
+  public void testNotABook() throws IOException {
+    Files.write(file, new byte[]{1, 2, 3});
+    Assert.assertThrows(IOException.class, () -> OpeningBook.open(file));
+  }
+
+  // a book grown from self-play gives the searched move in the starting position
+  @Test
+  public void testSelfPlayAndStrategy() throws IOException {
+    SquareReversiModel game = new SquareReversiModel(ReversiFixtures.players(), 6);
+    AlphaBetaStrategy search = new AlphaBetaStrategy(game, "square", 0, 0, 3,
+            new PositionalEvaluator());
+    OpeningBookBuilder builder = new OpeningBookBuilder(game.getTopology());
+    Assert.assertEquals(4, builder.selfPlay(game, search, 4, new Random(1), 0));
+    builder.write(file);
+
+    SquareReversiModel fresh = new SquareReversiModel(ReversiFixtures.players(), 6);
+    OpeningBook book = OpeningBook.open(file);
+    MoveList moves = new MoveList();
+    fresh.generateMoves(TileState.BLACK, moves);
+    Coordinate searched = new AlphaBetaStrategy(fresh, "square", 0, 0, 3,
+            new PositionalEvaluator()).bestMove("black");
+    Assert.assertEquals(fresh.cellIndex(searched), book.bestMove(fresh, moves));
+
+    OpeningBookStrategy strategy = new OpeningBookStrategy(fresh, "square", book,
+            new MostPiecesStrategy(fresh, "square"));
+    Assert.assertEquals(searched, strategy.bestMove("black"));
+    Assert.assertTrue(strategy.wasFromBook());
+
+    // a book for another board is never used
+    BasicReversiModel hex = new BasicReversiModel(ReversiFixtures.players(), 6);
+    OpeningBookStrategy other = new OpeningBookStrategy(hex, "hex", book,
+            new MostPiecesStrategy(hex, "hex"));
+    other.bestMove("black");
+    Assert.assertFalse(other.wasFromBook());
+  }
+
+  // a builder started from a book keeps its moves
+  @Test
+  public void testGrowBook() throws IOException {
+    OpeningBookBuilder builder = new OpeningBookBuilder(BoardTopology.hex(4));
+    builder.add(1, 2, 3, 4);
+    builder.write(file);
+    OpeningBookBuilder grown = new OpeningBookBuilder(OpeningBook.open(file));
+    grown.add(5, 6, 7, 8);
+    // a mapped file cannot be replaced on every system, so the bigger book goes to a new one
+    Path bigger = Files.createTempFile("book", ".bin");
+    bigger.toFile().deleteOnExit();
+    grown.write(bigger);
+    OpeningBook book = OpeningBook.open(bigger);
+    Assert.assertEquals(2, book.size());
+    Assert.assertEquals("hex", book.getBoardType());
+    Assert.assertEquals(8, book.getVisits(book.find(5)));
+  }
+}
@@ -0,0 +1,141 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.SquareReversiModel;
+import reversi.player.TileState;
+import reversi.player.strategies.AlphaBetaStrategy;
+import reversi.player.strategies.BoardPatterns;
+import reversi.player.strategies.PatternEvaluator;
+import reversi.player.strategies.PatternTrainer;
+import reversi.player.strategies.PatternWeights;
+
+/**
+ * Tests for the pattern-table evaluation and its trainer.
+ */
+public class TestPatternEvaluator {
+
+  private int countGroup(BoardPatterns patterns, int group) {
+    int count = 0;
+    for (int p = 0; p < patterns.getPatternCount(); p++) {
+      if (patterns.getGroup(p) == group) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void testSquarePatterns() {
+    SquareReversiModel model = new SquareReversiModel(ReversiFixtures.players(), 8);
+    BoardPatterns patterns = BoardPatterns.of(model.getTopology());
+    Assert.assertEquals(4, countGroup(patterns, BoardPatterns.EDGE));
+    Assert.assertEquals(4, countGroup(patterns, BoardPatterns.CORNER));
+    Assert.assertEquals(2, countGroup(patterns, BoardPatterns.LINE));
+    for (int p = 0; p < patterns.getPatternCount(); p++) {
+      if (patterns.getGroup(p) == BoardPatterns.CORNER) {
+        Assert.assertTrue(model.getTopology().isCorner(patterns.getCells(p)[0]));
+        Assert.assertEquals(9, patterns.getCells(p).length);
+      }
+    }
+  }
+
+  @Test
+  public void testHexPatterns() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 6);
+    BoardPatterns patterns = BoardPatterns.of(model.getTopology());
+    Assert.assertEquals(6, countGroup(patterns, BoardPatterns.EDGE));
+    Assert.assertEquals(6, countGroup(patterns, BoardPatterns.CORNER));
+    Assert.assertEquals(3, countGroup(patterns, BoardPatterns.LINE));
+  }
+
+  @Test
+  public void testCodesAreFromThePlayersSide() {
+    SquareReversiModel model = new SquareReversiModel(ReversiFixtures.players(), 8);
+    BoardPatterns patterns = BoardPatterns.of(model.getTopology());
+    for (int p = 0; p < patterns.getPatternCount(); p++) {
+      int black = patterns.code(model, p, TileState.BLACK);
+      int white = patterns.code(model, p, TileState.WHITE);
+      Assert.assertEquals(black == 0, white == 0);
+      Assert.assertTrue(black < patterns.getTableSize(patterns.getGroup(p)));
+    }
+  }
+
+  @Test
+  public void testTrainingReducesError() {
+    SquareReversiModel model = new SquareReversiModel(ReversiFixtures.players(), 6);
+    PatternTrainer trainer = new PatternTrainer(model.getTopology(), 4, 2);
+    trainer.selfPlay(model.copyForSearch(), 200, 1);
+    Assert.assertTrue(trainer.size() > 200 * 20);
+    trainer.train(1, 0.5);
+    double first = trainer.getError();
+    trainer.train(30, 0.5);
+    Assert.assertTrue(trainer.getError() < first * 0.8);
+
+    // the evaluation is from the side of the player asked about
+    PatternEvaluator evaluator = new PatternEvaluator(trainer.getWeights());
+    Assert.assertEquals(evaluator.evaluate(model, TileState.BLACK),
+            -evaluator.evaluate(model, TileState.WHITE));
+  }
+
+  @Test
+  public void testSelfPlayIsRepeatable() {
+    SquareReversiModel model = new SquareReversiModel(ReversiFixtures.players(), 6);
+    PatternTrainer first = new PatternTrainer(model.getTopology(), 2, 1);
+    PatternTrainer second = new PatternTrainer(model.getTopology(), 2, 1);
+    first.selfPlay(model.copyForSearch(), 20, 7);
+    second.selfPlay(model.copyForSearch(), 20, 7);
+    Assert.assertEquals(first.size(), second.size());
+    first.train(5, 0.5);
+    second.train(5, 0.5);
+    Assert.assertEquals(first.getError(), second.getError(), 1e-9);
+  }
+
+  @Test
+  public void testWeightsRoundTrip() throws IOException {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    PatternTrainer trainer = new PatternTrainer(model.getTopology(), 3, 1);
+    trainer.selfPlay(model.copyForSearch(), 50, 3);
+    PatternWeights weights = trainer.train(10, 0.5);
+    Path file = Files.createTempFile("weights", ".bin");
+    file.toFile().deleteOnExit();
+    weights.write(file);
+
+    PatternWeights read = PatternWeights.read(file);
+    Assert.assertSame(model.getTopology(), read.getTopology());
+    Assert.assertEquals(3, read.getPhases());
+    for (int group = 0; group < 3; group++) {
+      for (int code = 0; code < weights.getPatterns().getTableSize(group); code++) {
+        Assert.assertEquals(weights.getWeight(2, group, code), read.getWeight(2, group, code),
+                0);
+      }
+    }
+    Assert.assertEquals(new PatternEvaluator(weights).evaluate(model, TileState.BLACK),
+            new PatternEvaluator(read).evaluate(model, TileState.BLACK));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadRejectsOtherFiles() throws IOException {
+    Path file = Files.createTempFile("weights", ".bin");
+    file.toFile().deleteOnExit();
+    Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    PatternWeights.read(file);
+  }
+
+  @Test
+  public void testSearchWithPatterns() {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 4);
+    PatternTrainer trainer = new PatternTrainer(model.getTopology(), 2, 1);
+    trainer.selfPlay(model.copyForSearch(), 50, 5);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(model, "hex", 0, 0, 3,
+            new PatternEvaluator(trainer.train(10, 0.5)));
+    Coordinate move = strategy.bestMove("black");
+    Assert.assertTrue(model.isLegalMove(model.getTopology().cellAt(move.q, move.r),
+            TileState.BLACK) > 0);
+  }
+}
@@ -9,7 +9,9 @@ import java.util.List;
 import reversi.model.Coordinate;
 import reversi.model.MockStrategies;
 import reversi.player.strategies.AvoidNearCornersStrategy;
+import reversi.player.TileState;
 import reversi.player.strategies.CombinedStrategy;
+import reversi.player.strategies.EvaluationContext;
 import reversi.player.strategies.GetCornersStrategy;
 
 import reversi.player.strategies.MostPiecesStrategy;
@@ -175,5 +177,44 @@ public class TestStrategies {
 
   }
 
+  // With weights the values are added as doubles, so MostPieces alone picks the most flips and
+  // half a flip per disc still leaves the corner best.
+  @Test
+  public void testWeightedCombinedStrategy() {
+    ArrayList<Strategy> list = new ArrayList<Strategy>();
+    list.add(mostPiecesStrategy);
+    list.add(getCornersStrategy);
+    list.add(avoidNearCornersStrategy);
+    CombinedStrategy flipsOnly = new CombinedStrategy(mock, "hex", list,
+            new double[]{1, 0, 0});
+    Assert.assertEquals(coord3flips, flipsOnly.bestMove("white"));
+
+    CombinedStrategy halfFlips = new CombinedStrategy(mock, "hex", list,
+            new double[]{0.5, 1, 1});
+    EvaluationContext context = new EvaluationContext().reset(mock, TileState.WHITE);
+    double[] scores = halfFlips.moveScores("white", context);
+    Assert.assertEquals(-1.5, scores[0], 1e-9);
+    Assert.assertEquals(3, scores[1], 1e-9);
+    Assert.assertEquals(-0.5, scores[2], 1e-9);
+    Assert.assertEquals(coord2flips, halfFlips.bestMove("white"));
+  }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testCombinedStrategyNeedsAWeightPerStrategy() {
+    ArrayList<Strategy> list = new ArrayList<Strategy>();
+    list.add(mostPiecesStrategy);
+    new CombinedStrategy(mock, "hex", list, new double[]{1, 2});
+  }
+
+  // The context finds the moves, flips and kinds of cell that the strategies read
+  @Test
+  public void testEvaluationContext() {
+    EvaluationContext context = new EvaluationContext().reset(mock, TileState.WHITE);
+    Assert.assertEquals(3, context.size());
+    Assert.assertEquals(1, context.getFlips(0));
+    Assert.assertEquals(3, context.getFlips(2));
+    Assert.assertTrue(context.isNextToCorner(0));
+    Assert.assertEquals(EvaluationContext.CORNER, context.getKind(1));
+    Assert.assertTrue(context.isNextToCorner(2));
+  }
 }
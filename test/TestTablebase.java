@@ -0,0 +1,90 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import reversi.model.BasicReversiModel;
+import reversi.model.Coordinate;
+import reversi.model.SquareReversiModel;
+import reversi.player.strategies.EndgameSolver;
+import reversi.player.strategies.MostPiecesStrategy;
+import reversi.player.strategies.Tablebase;
+import reversi.player.strategies.TablebaseBuilder;
+import reversi.player.strategies.TablebaseStrategy;
+
+/**
+ * Tests for the solved-position tablebase.
+ */
+public class TestTablebase {
+
+  private Path tempFile() throws IOException {
+    Path file = Files.createTempFile("tablebase", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+  // 4x4 Reversi is a known win for white by 11 discs to 3
+  @Test
+  public void testSolvesSmallSquareBoard() throws IOException {
+    SquareReversiModel model = new SquareReversiModel(ReversiFixtures.players(), 4);
+    TablebaseBuilder builder = new TablebaseBuilder(1_000_000);
+    Assert.assertEquals(-8, builder.solve(model.copyForSearch()));
+    Path file = tempFile();
+    builder.write(file, model.getTopology());
+
+    Tablebase tablebase = Tablebase.open(file);
+    Assert.assertEquals(builder.size(), tablebase.size());
+    Assert.assertTrue(tablebase.matches(model.getTopology()));
+    int start = tablebase.find(model.getPositionHash());
+    Assert.assertEquals(-8, tablebase.getValue(start));
+
+    // white keeps the win however black plays
+    for (int seed = 0; seed < 5; seed++) {
+      SquareReversiModel game = new SquareReversiModel(ReversiFixtures.players(), 4);
+      TablebaseStrategy white = new TablebaseStrategy(game, "square", tablebase,
+              new MostPiecesStrategy(game, "square"));
+      Random rand = new Random(seed);
+      while (!game.getGameOver()) {
+        List<Coordinate> moves = game.allValidMoves(game.getCurrentPlayer());
+        if (moves.isEmpty()) {
+          game.passTurn();
+        } else if (game.getCurrentPlayer().equals("white")) {
+          game.doMove(white.bestMove("white"));
+          Assert.assertTrue(white.wasFromTable());
+        } else {
+          game.doMove(moves.get(rand.nextInt(moves.size())));
+        }
+      }
+      Assert.assertTrue(game.getScore("white") - game.getScore("black") >= 8);
+    }
+  }
+
+  @Test
+  public void testSmallHexBoardMatchesSolver() throws IOException {
+    BasicReversiModel model = new BasicReversiModel(ReversiFixtures.players(), 3);
+    TablebaseBuilder builder = new TablebaseBuilder(1_000_000);
+    int value = builder.solve(model.copyForSearch());
+    EndgameSolver solver = new EndgameSolver(0);
+    Assert.assertTrue(solver.solve(model.copyForSearch()));
+    Assert.assertEquals(solver.getDiscDifference(), value);
+
+    Path file = tempFile();
+    builder.write(file, model.getTopology());
+    Tablebase tablebase = Tablebase.open(file);
+    SquareReversiModel other = new SquareReversiModel(ReversiFixtures.players(), 4);
+    Assert.assertFalse(tablebase.matches(other.getTopology()));
+    Assert.assertEquals(-1, tablebase.find(12345));
+  }
+
+  @Test
+  public void testTooManyPositions() {
+    TablebaseBuilder builder = new TablebaseBuilder(1000);
+    Assert.assertThrows(IllegalStateException.class,
+        () -> builder.solve(new SquareReversiModel(ReversiFixtures.players(), 4).copyForSearch()));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new TablebaseBuilder(0));
+  }
+}
@@ -0,0 +1,105 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import reversi.player.strategies.TranspositionTable;
+
+/**
+ * Tests for the transposition table used by the search.
+ */
+public class TestTranspositionTable {
+
+  private TranspositionTable table;
+
+  @Before
+  public void init() {
+    table = new TranspositionTable(1);
+  }
+
+  @Test
+  public void testSizeFromMegabytes() {
+    Assert.assertEquals(65536, table.capacity());
+    Assert.assertEquals(131072, new TranspositionTable(3).capacity());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+  }
+
+  @Test
+  public void testStoreAndProbe() {
+    long hash = 0x123456789ABCDEFL;
+    Assert.assertEquals(0, table.probe(hash));
+    table.store(hash, 7, TranspositionTable.LOWER, -1_000_012, 42);
+    long entry = table.probe(hash);
+    Assert.assertEquals(-1_000_012, TranspositionTable.scoreOf(entry));
+    Assert.assertEquals(7, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(42, TranspositionTable.moveOf(entry));
+    Assert.assertEquals(0, table.probe(hash ^ 1L << 40));
+    table.clear();
+    Assert.assertEquals(0, table.probe(hash));
+  }
+
+  // a result without a best move keeps the move stored for the same position
+  @Test
+  public void testKeepsMoveOfSamePosition() {
+    table.store(99, 3, TranspositionTable.EXACT, 5, 12);
+    table.store(99, 4, TranspositionTable.UPPER, -8, -1);
+    long entry = table.probe(99);
+    Assert.assertEquals(4, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(12, TranspositionTable.moveOf(entry));
+  }
+
+  // hashes with equal halves all fall in the first bucket of two entries
+  @Test
+  public void testReplacesShallowestAndOldest() {
+    long a = 0x100000001L;
+    long b = 0x200000002L;
+    long c = 0x300000003L;
+    long d = 0x400000004L;
+    table.store(a, 9, TranspositionTable.EXACT, 1, 0);
+    table.store(b, 2, TranspositionTable.EXACT, 2, 0);
+    table.store(c, 5, TranspositionTable.EXACT, 3, 0);
+    Assert.assertNotEquals(0, table.probe(a));
+    Assert.assertEquals(0, table.probe(b));
+    Assert.assertNotEquals(0, table.probe(c));
+
+    // after a few moves even the deep entry is old enough to give way to shallow new ones
+    for (int i = 0; i < 3; i++) {
+      table.newSearch();
+    }
+    table.store(b, 2, TranspositionTable.EXACT, 2, 0);
+    table.store(d, 1, TranspositionTable.EXACT, 4, 0);
+    Assert.assertEquals(0, table.probe(a));
+    Assert.assertEquals(0, table.probe(c));
+    Assert.assertNotEquals(0, table.probe(b));
+    Assert.assertNotEquals(0, table.probe(d));
+  }
+
+  // entries written by many threads at once are either read back whole or not found
+  @Test
+  public void testConcurrentWritesNeverMixEntries() throws InterruptedException {
+    TranspositionTable small = new TranspositionTable(1);
+    Thread[] threads = new Thread[4];
+    boolean[] bad = new boolean[threads.length];
+    for (int t = 0; t < threads.length; t++) {
+      int id = t;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          // the stored score is derived from the hash, so a mixed entry would show
+          long hash = (i % 5000) * 0x9E3779B97F4A7C15L;
+          small.store(hash, id, TranspositionTable.EXACT, (int) (hash >>> 40), -1);
+          long entry = small.probe(hash);
+          if (entry != 0 && TranspositionTable.scoreOf(entry) != (int) (hash >>> 40)) {
+            bad[id] = true;
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (boolean b : bad) {
+      Assert.assertFalse(b);
+    }
+  }
+}